@@ -0,0 +1,152 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import lombok.Data;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Loading a chart's worth of samples: the map-based ContentMetrics read through Spring's reflective mapping, against
+// the primitive layout read by MongoConversionConfig (from its own documents and from map-based ones). Run with
+// -prof gc; gc.alloc.rate.norm is the bytes allocated per load
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentMetricsLayoutBenchmark {
+
+    @Param({"10000"})
+    private int samples;
+
+    private MappingMongoConverter mapConverter;
+    private MappingMongoConverter primitiveConverter;
+    private List<Document> mapDocuments;
+    private List<Document> primitiveDocuments;
+
+    @Setup
+    public void setUp() {
+        mapConverter = converter(new MongoCustomConversions(List.of()));
+        primitiveConverter = converter(new MongoConversionConfig().mongoCustomConversions());
+
+        mapDocuments = new ArrayList<>(samples);
+        primitiveDocuments = new ArrayList<>(samples);
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < samples; i++) {
+            LocalDateTime timestamp = start.plusMinutes(5L * i);
+            Map<String, Long> counters = Map.of("views", 1000L + i * 7L, "likes", 50L + i,
+                    "comments", 10L + i / 3, "shares", 5L + i / 10);
+
+            // As the map-based layout stored them: counters in a map and every other map, empty or not
+            mapDocuments.add(new Document("_id", new ObjectId())
+                    .append("contentId", 42L)
+                    .append("timestamp", Date.from(timestamp.atZone(ZoneId.systemDefault()).toInstant()))
+                    .append("metrics", new Document(counters))
+                    .append("platformData", new Document())
+                    .append("Engagement_metrics", new Document())
+                    .append("demographicData", new Document())
+                    .append("geographicData", new Document()));
+
+            ContentMetrics sample = new ContentMetrics();
+            sample.setId(new ObjectId().toHexString());
+            sample.setContentId(42L);
+            sample.setTimestamp(timestamp);
+            sample.setLastCheckedAt(timestamp);
+            sample.setMetrics(counters);
+            Document document = new Document();
+            primitiveConverter.write(sample, document);
+            primitiveDocuments.add(document);
+        }
+    }
+
+    @Benchmark
+    public long mapLayout() {
+        long views = 0;
+        for (Document document : mapDocuments) {
+            views += mapConverter.read(MapLayoutMetrics.class, document).getMetrics().get("views");
+        }
+        return views;
+    }
+
+    @Benchmark
+    public long primitiveLayout() {
+        long views = 0;
+        for (Document document : primitiveDocuments) {
+            views += primitiveConverter.read(ContentMetrics.class, document).getViews();
+        }
+        return views;
+    }
+
+    // Documents not rewritten yet, read through the migration path of the converter
+    @Benchmark
+    public long primitiveLayoutFromMapDocuments() {
+        long views = 0;
+        for (Document document : mapDocuments) {
+            views += primitiveConverter.read(ContentMetrics.class, document).getViews();
+        }
+        return views;
+    }
+
+
+    // HELPER methods
+
+    private MappingMongoConverter converter(MongoCustomConversions conversions) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+
+    // ContentMetrics as it was before the primitive layout: boxed counters under string keys and five maps
+    // allocated on every instance (twice, by the initializers and the constructor)
+    @Data
+    @org.springframework.data.mongodb.core.mapping.Document(collection = "content_metrics")
+    public static class MapLayoutMetrics {
+        private String id;
+        private long contentId;
+        private LocalDateTime timestamp;
+        private Map<String, Long> metrics = new HashMap<>();
+        private Map<String, Object> platformData = new HashMap<>();
+        @Field("Engagement_metrics")
+        private Map<String, Double> engagementMetrics = new HashMap<>();
+        private Map<String, Integer> demographicData = new HashMap<>();
+        private Map<String, Integer> geographicData = new HashMap<>();
+
+        public MapLayoutMetrics() {
+            this.metrics = new HashMap<>();
+            this.platformData = new HashMap<>();
+            this.engagementMetrics = new HashMap<>();
+            this.demographicData = new HashMap<>();
+            this.geographicData = new HashMap<>();
+        }
+    }
+}
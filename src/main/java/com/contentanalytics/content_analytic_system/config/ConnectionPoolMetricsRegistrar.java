@@ -0,0 +1,50 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps a handle on every per-host connection pool so its usage can be reported (no metrics backend needed)
+@Component
+public class ConnectionPoolMetricsRegistrar implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, PoolHandle> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(id, new PoolHandle(poolName, remoteAddress, metrics));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(id);
+    }
+
+    // One entry per remote host
+    public List<Map<String, Object>> getStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        pools.values().forEach(pool -> {
+            Map<String, Object> poolStatus = new LinkedHashMap<>();
+            poolStatus.put("pool", pool.poolName());
+            poolStatus.put("remoteAddress", String.valueOf(pool.remoteAddress()));
+            poolStatus.put("activeConnections", pool.metrics().acquiredSize());
+            poolStatus.put("idleConnections", pool.metrics().idleSize());
+            poolStatus.put("totalConnections", pool.metrics().allocatedSize());
+            poolStatus.put("maxConnections", pool.metrics().maxAllocatedSize());
+            poolStatus.put("pendingAcquires", pool.metrics().pendingAcquireSize());
+            poolStatus.put("maxPendingAcquires", pool.metrics().maxPendingAcquireSize());
+            status.add(poolStatus);
+        });
+        return status;
+    }
+
+    private record PoolHandle(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+    }
+}
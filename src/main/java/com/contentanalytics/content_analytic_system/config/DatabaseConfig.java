@@ -39,6 +39,16 @@ public class DatabaseConfig {
     @Value("${spring.jpa.properties.hibernate.dialect}")
     private String hibernateDialect;
 
+    @Value("${spring.jpa.show-sql:false}")
+    private boolean showSql;
+
+    @Value("${spring.jpa.properties.hibernate.format_sql:false}")
+    private boolean formatSql;
+
+    // Statements per JDBC batch when Hibernate flushes many inserts/updates
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
     @Bean
     public DataSource dataSource() {
 
@@ -65,10 +75,17 @@ public class DatabaseConfig {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", hibernateDialect);
         properties.setProperty("hibernate.hbm2ddl.auto", "update");
-        properties.setProperty("hibernate.show_sql", "true");
-        properties.setProperty("hibernate.format_sql", "true");
+        properties.setProperty("hibernate.show_sql", String.valueOf(showSql));
+        properties.setProperty("hibernate.format_sql", String.valueOf(formatSql));
+        // Grouping statements of the same table so they go out in JDBC batches
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
         // Adding constraint system
         properties.setProperty("hibernate.check_nullability", "true");
+        // Lets the index report explain the SQL of the repository methods
+        properties.setProperty("hibernate.session_factory.statement_inspector", SqlCaptureInspector.class.getName());
 
         em.setJpaProperties(properties);
 
@@ -0,0 +1,79 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// The one HTTP client every platform connector uses (backs both the WebClient and the RestTemplate)
+@Configuration
+public class HttpClientConfig {
+
+    // Pools are kept per remote host, so this is the connection cap for each platform host
+    @Value("${http.client.max-connections:500}")
+    private int maxConnections;
+
+    // Requests allowed to wait for a pooled connection before failing fast
+    @Value("${http.client.pending-acquire-max-count:5000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${http.client.pending-acquire-timeout-ms:10000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${http.client.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${http.client.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${http.client.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${http.client.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    // Read timeout per request (a pooled idle connection isn't affected)
+    @Value("${http.client.response-timeout-ms:10000}")
+    private long responseTimeoutMs;
+
+    @Value("${http.client.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider platformConnectionProvider(ConnectionPoolMetricsRegistrar poolMetricsRegistrar) {
+        return ConnectionProvider.builder("platform-connections")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                // Closing connections before the platforms' load balancers silently drop them
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true, () -> poolMetricsRegistrar)
+                .build();
+    }
+
+    @Bean
+    public HttpClient platformHttpClient(ConnectionProvider platformConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(platformConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)))
+                .compress(true);
+
+        // HTTP/2 is negotiated over TLS (ALPN); plain-http hosts stay on HTTP/1.1
+        return http2Enabled
+                ? httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                : httpClient;
+    }
+}
@@ -0,0 +1,32 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Runs bulk URL imports in the background, a few jobs at a time
+@Configuration
+public class ImportExecutorConfig {
+
+    @Value("${import.concurrent-jobs:2}")
+    private int concurrentJobs;
+
+    @Value("${import.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Bean(name = "bulkImportExecutor")
+    public ThreadPoolTaskExecutor bulkImportExecutor() {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrentJobs);
+        executor.setMaxPoolSize(concurrentJobs);
+        // Submissions beyond the queue are rejected rather than run on the request thread
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+
+    }
+}
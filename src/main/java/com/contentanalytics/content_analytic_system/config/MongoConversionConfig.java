@@ -0,0 +1,142 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hand-written mapping of ContentMetrics, the most numerous document: skips the reflective mapping and the
+// empty maps, and still reads documents stored in the map-based layout used before
+@Configuration
+public class MongoConversionConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new ContentMetricsWriter(), new ContentMetricsReader()));
+    }
+
+
+    @WritingConverter
+    static class ContentMetricsWriter implements Converter<ContentMetrics, Document> {
+
+        @Override
+        public Document convert(ContentMetrics source) {
+            Document document = new Document();
+            if (source.getId() != null) {
+                // Ids assigned up front are ObjectId hex strings, stored as ObjectIds like the mapped ones were
+                document.put("_id", ObjectId.isValid(source.getId()) ? new ObjectId(source.getId()) : source.getId());
+            }
+            document.put("contentId", source.getContentId());
+            if (source.getPlatform() != null) {
+                document.put("p", source.getPlatform().name());
+            }
+            document.put("timestamp", toDate(source.getTimestamp()));
+            if (source.getLastCheckedAt() != null) {
+                document.put("lastCheckedAt", toDate(source.getLastCheckedAt()));
+            }
+            document.put("v", source.getViews());
+            document.put("l", source.getLikes());
+            document.put("c", source.getComments());
+            document.put("s", source.getShares());
+            putIfPresent(document, "d", source.getDeltas());
+            putIfPresent(document, "pd", source.getPlatformData());
+            putIfPresent(document, "em", source.getEngagementMetrics());
+            putIfPresent(document, "dg", source.getDemographicData());
+            putIfPresent(document, "geo", source.getGeographicData());
+            return document;
+        }
+
+        private void putIfPresent(Document document, String field, Map<String, ?> values) {
+            if (!values.isEmpty()) {
+                document.put(field, new Document(values));
+            }
+        }
+
+        private Date toDate(LocalDateTime value) {
+            return value != null ? Date.from(value.atZone(ZoneId.systemDefault()).toInstant()) : null;
+        }
+    }
+
+
+    @ReadingConverter
+    static class ContentMetricsReader implements Converter<Document, ContentMetrics> {
+
+        @Override
+        public ContentMetrics convert(Document source) {
+            ContentMetrics metrics = new ContentMetrics();
+            Object id = source.get("_id");
+            metrics.setId(id instanceof ObjectId objectId ? objectId.toHexString() : id != null ? id.toString() : null);
+            metrics.setContentId(longOf(source.get("contentId")));
+            if (source.get("p") instanceof String platform) {
+                metrics.setPlatform(Platform.valueOf(platform));
+            }
+            metrics.setTimestamp(toLocalDateTime(source.get("timestamp")));
+            metrics.setLastCheckedAt(toLocalDateTime(source.get("lastCheckedAt")));
+
+            Object legacyCounters = source.get("metrics");
+            if (legacyCounters instanceof Map<?, ?> counters) {
+                // Map-based layout: {metrics: {views: .., likes: ..}, deltas, platformData, Engagement_metrics, ..}
+                for (String counter : ContentMetrics.COUNTERS) {
+                    metrics.setCounter(counter, longOf(counters.get(counter)));
+                }
+            } else {
+                metrics.setViews(longOf(source.get("v")));
+                metrics.setLikes(longOf(source.get("l")));
+                metrics.setComments(longOf(source.get("c")));
+                metrics.setShares(longOf(source.get("s")));
+            }
+
+            metrics.setDeltas(numberMap(firstPresent(source, "d", "deltas"), Number::longValue));
+            metrics.setPlatformData(objectMap(firstPresent(source, "pd", "platformData")));
+            metrics.setEngagementMetrics(numberMap(firstPresent(source, "em", "Engagement_metrics"), Number::doubleValue));
+            metrics.setDemographicData(numberMap(firstPresent(source, "dg", "demographicData"), Number::intValue));
+            metrics.setGeographicData(numberMap(firstPresent(source, "geo", "geographicData"), Number::intValue));
+            return metrics;
+        }
+
+        private Object firstPresent(Document source, String field, String legacyField) {
+            Object value = source.get(field);
+            return value != null ? value : source.get(legacyField);
+        }
+
+        // Null for a missing or empty map, so nothing gets allocated for it
+        private <T> Map<String, T> numberMap(Object value, java.util.function.Function<Number, T> convert) {
+            if (!(value instanceof Map<?, ?> map) || map.isEmpty()) return null;
+            Map<String, T> result = new HashMap<>(map.size() * 2);
+            map.forEach((key, entry) -> {
+                if (entry instanceof Number number) {
+                    result.put(String.valueOf(key), convert.apply(number));
+                }
+            });
+            return result;
+        }
+
+        private Map<String, Object> objectMap(Object value) {
+            if (!(value instanceof Map<?, ?> map) || map.isEmpty()) return null;
+            Map<String, Object> result = new HashMap<>(map.size() * 2);
+            map.forEach((key, entry) -> result.put(String.valueOf(key), entry));
+            return result;
+        }
+
+        private long longOf(Object value) {
+            return value instanceof Number number ? number.longValue() : 0L;
+        }
+
+        private LocalDateTime toLocalDateTime(Object value) {
+            return value instanceof Date date ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "simulator.enabled", havingValue = "true")
+// Local stand-in for the YouTube Data API and the Medium/WordPress stats endpoints, for load and latency testing
+// without network access (run with the "simulator" profile). Latency, error rate, 429 throttling and payload
+// size are set per platform under simulator.<platform>.*, falling back to simulator.default.*
+public class PlatformApiSimulator {
+
+    private static final List<String> PLATFORMS = List.of("youtube", "medium", "wordpress");
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final String host;
+    private final int port;
+    private final int threads;
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Map<String, Profile> profiles = new LinkedHashMap<>();
+    private final Map<String, Counters> counters = new LinkedHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PlatformApiSimulator(Environment environment,
+                                ObjectMapper objectMapper,
+                                @Value("${simulator.host:localhost}") String host,
+                                @Value("${simulator.port:8089}") int port,
+                                @Value("${simulator.threads:200}") int threads) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.host = host;
+        this.port = port;
+        this.threads = Math.max(threads, 1);
+
+        for (String platform : PLATFORMS) {
+            profiles.put(platform, new Profile(
+                    LatencyDistribution.valueOf(setting(platform, "latency", String.class, "lognormal").toUpperCase()),
+                    setting(platform, "latency-ms", Long.class, 120L),
+                    setting(platform, "latency-p99-ms", Long.class, 800L),
+                    setting(platform, "error-rate", Double.class, 0.01),
+                    setting(platform, "throttle-rate", Double.class, 0.02),
+                    setting(platform, "retry-after-seconds", Integer.class, 1),
+                    setting(platform, "payload-bytes", Integer.class, 0)
+            ));
+            counters.put(platform, new Counters());
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "platform-simulator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/youtube/v3/videos", exchange -> handle(exchange, "youtube", this::youTubeVideos));
+        server.createContext("/medium/posts/", exchange -> handle(exchange, "medium", this::mediumStats));
+        server.createContext("/wordpress/posts/", exchange -> handle(exchange, "wordpress", this::wordPressStats));
+        server.createContext("/status", exchange -> {
+            try {
+                send(exchange, 200, getStatus());
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+
+        log.info("Platform API simulator listening on http://{}:{} ({})", host, port, profiles);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    // Requests, throttled and failed responses per platform
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        counters.forEach((platform, count) -> {
+            Map<String, Object> platformStatus = new LinkedHashMap<>();
+            platformStatus.put("profile", profiles.get(platform));
+            platformStatus.put("requests", count.requests.get());
+            platformStatus.put("throttled", count.throttled.get());
+            platformStatus.put("errors", count.errors.get());
+            status.put(platform, platformStatus);
+        });
+        return status;
+    }
+
+
+    // ENDPOINTS
+
+    // GET /youtube/v3/videos?part=statistics,contentDetails&id=a,b,c
+    private Object youTubeVideos(HttpExchange exchange) {
+        String ids = queryParam(exchange, "id");
+        List<Map<String, Object>> items = new ArrayList<>();
+        if (ids != null) {
+            for (String id : ids.split(",")) {
+                if (id.isBlank()) continue;
+                long views = views(id);
+
+                // Counters come back as strings, like the real API
+                Map<String, Object> statistics = new LinkedHashMap<>();
+                statistics.put("viewCount", String.valueOf(views));
+                statistics.put("likeCount", String.valueOf(views / 25));
+                statistics.put("favoriteCount", "0");
+                statistics.put("commentCount", String.valueOf(views / 400));
+
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("kind", "youtube#video");
+                item.put("id", id);
+                item.put("statistics", statistics);
+                item.put("contentDetails", Map.of("duration", "PT" + (1 + seed(id) % 30) + "M" + seed(id) % 60 + "S"));
+                items.add(item);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("kind", "youtube#videoListResponse");
+        response.put("items", items);
+        response.put("pageInfo", Map.of("totalResults", items.size(), "resultsPerPage", items.size()));
+        return response;
+    }
+
+    // GET /medium/posts/{postId}/stats
+    private Object mediumStats(HttpExchange exchange) {
+        String postId = postId(exchange, "/medium/posts/");
+        long views = views(postId);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("postId", postId);
+        response.put("title", "Simulated Medium post " + postId);
+        response.put("views", views);
+        response.put("reads", views * 2 / 5);
+        response.put("claps", views / 8);
+        response.put("responses", views / 300);
+        return response;
+    }
+
+    // GET /wordpress/posts/{postId}/stats
+    private Object wordPressStats(HttpExchange exchange) {
+        String postId = postId(exchange, "/wordpress/posts/");
+        long views = views(postId);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("postId", postId);
+        response.put("title", "Simulated WordPress post " + postId);
+        response.put("views", views);
+        response.put("likes", views / 30);
+        response.put("comments", views / 150);
+        response.put("shares", views / 90);
+        return response;
+    }
+
+
+    // HELPER methods
+
+    private void handle(HttpExchange exchange, String platform, Function<HttpExchange, Object> endpoint) {
+        Profile profile = profiles.get(platform);
+        Counters count = counters.get(platform);
+        count.requests.incrementAndGet();
+
+        try {
+            sleep(profile.sampleLatencyMs());
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < profile.throttleRate()) {
+                count.throttled.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(profile.retryAfterSeconds()));
+                send(exchange, 429, Map.of("error", Map.of("code", 429, "message", "Rate limit exceeded")));
+                return;
+            }
+            if (roll < profile.throttleRate() + profile.errorRate()) {
+                count.errors.incrementAndGet();
+                send(exchange, 500, Map.of("error", Map.of("code", 500, "message", "Backend error")));
+                return;
+            }
+
+            Object body = endpoint.apply(exchange);
+            if (profile.payloadBytes() > 0 && body instanceof Map<?, ?> map) {
+                // Padding the response up to the configured size (ignored by our clients)
+                @SuppressWarnings("unchecked")
+                Map<String, Object> padded = (Map<String, Object>) map;
+                padded.put("padding", "x".repeat(profile.payloadBytes()));
+            }
+            send(exchange, 200, body);
+
+        } catch (Exception e) {
+            log.debug("Simulator request failed: {}", e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Stable per id, growing every minute so repeated syncs see both changed and unchanged counters
+    private long views(String id) {
+        long seed = seed(id);
+        long minutes = (System.currentTimeMillis() - startedAt) / 60000;
+        return 1000 + seed % 1_000_000 + minutes * (1 + seed % 50);
+    }
+
+    private long seed(String id) {
+        return id.hashCode() & 0x7fffffffL;
+    }
+
+    private String postId(HttpExchange exchange, String prefix) {
+        String path = exchange.getRequestURI().getPath().substring(prefix.length());
+        int slash = path.indexOf('/');
+        return slash >= 0 ? path.substring(0, slash) : path;
+    }
+
+    private String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // simulator.<platform>.<key>, falling back to simulator.default.<key>
+    private <T> T setting(String platform, String key, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty("simulator.default." + key, type, defaultValue);
+        return environment.getProperty("simulator." + platform + "." + key, type, fallback);
+    }
+
+
+    public enum LatencyDistribution {
+        FIXED,      // Always latency-ms
+        UNIFORM,    // Evenly spread around latency-ms, up to latency-p99-ms
+        LOGNORMAL   // Median latency-ms with a long tail reaching latency-p99-ms at the 99th percentile
+    }
+
+    public record Profile(LatencyDistribution latency, long latencyMs, long latencyP99Ms, double errorRate,
+                          double throttleRate, int retryAfterSeconds, int payloadBytes) {
+
+        long sampleLatencyMs() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (latency) {
+                case FIXED -> latencyMs;
+                case UNIFORM -> {
+                    long upper = Math.max(latencyP99Ms, latencyMs);
+                    long lower = Math.max(0, 2 * latencyMs - upper);
+                    yield lower + (long) (random.nextDouble() * (upper - lower));
+                }
+                case LOGNORMAL -> {
+                    // 2.326 is the standard normal's 99th percentile
+                    double sigma = Math.log(Math.max(latencyP99Ms, latencyMs + 1) / (double) Math.max(latencyMs, 1)) / 2.326;
+                    yield (long) (Math.max(latencyMs, 1) * Math.exp(sigma * random.nextGaussian()));
+                }
+            };
+        }
+    }
+
+    private static class Counters {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
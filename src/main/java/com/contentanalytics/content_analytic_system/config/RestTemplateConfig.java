@@ -2,14 +2,17 @@ package com.contentanalytics.content_analytic_system.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 public class RestTemplateConfig{
+    // Blocking calls share the pooled platform HTTP client instead of one HttpURLConnection per call
     @Bean
-    public RestTemplate restTemplate(){
+    public RestTemplate restTemplate(HttpClient platformHttpClient){
 
-        return new RestTemplate();
+        return new RestTemplate(new ReactorClientHttpRequestFactory(platformHttpClient));
 
     }
     
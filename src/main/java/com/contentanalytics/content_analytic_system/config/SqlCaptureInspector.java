@@ -0,0 +1,34 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Lets IndexManager see the SQL Hibernate generates for a repository call (registered in DatabaseConfig).
+// Outside a capture the SQL goes through untouched
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    // Runs the call on this thread with every statement recorded and sent as a zero-row query, so nothing is read
+    public static List<String> capture(Runnable call) {
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            call.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = CAPTURED.get();
+        if (statements == null) return sql;
+
+        statements.add(sql);
+        return "SELECT * FROM (" + sql + ") captured LIMIT 0";
+    }
+}
@@ -0,0 +1,37 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Worker pool used by the metrics sync engine
+@Configuration
+public class SyncExecutorConfig {
+
+    @Value("${sync.worker-threads:8}")
+    private int workerThreads;
+
+    @Value("${sync.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Bean(name = "metricsSyncExecutor")
+    public ThreadPoolTaskExecutor metricsSyncExecutor() {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Fixed size pool so a cycle never uses more than the configured workers
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("metrics-sync-");
+        // When the queue is full the submitting thread runs the shard itself (natural backpressure)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+
+    }
+}
@@ -0,0 +1,24 @@
+package com.contentanalytics.content_analytic_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+// Shared non-blocking HTTP client for the platform connectors
+@Configuration
+public class WebClientConfig {
+
+    @Value("${http.client.max-in-memory-size:2097152}")
+    private int maxInMemorySize;
+
+    @Bean
+    public WebClient platformWebClient(HttpClient platformHttpClient) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(platformHttpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+}
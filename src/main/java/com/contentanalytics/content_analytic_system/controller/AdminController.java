@@ -0,0 +1,142 @@
+package com.contentanalytics.content_analytic_system.controller;
+
+import com.contentanalytics.content_analytic_system.config.ConnectionPoolMetricsRegistrar;
+import com.contentanalytics.content_analytic_system.service.ClusterLeaseService;
+import com.contentanalytics.content_analytic_system.service.IndexManager;
+import com.contentanalytics.content_analytic_system.service.MetricsArchiveService;
+import com.contentanalytics.content_analytic_system.service.MetricsCollectionMigrator;
+import com.contentanalytics.content_analytic_system.service.MetricsFetchCoalescer;
+import com.contentanalytics.content_analytic_system.service.MetricsPlatformBackfill;
+import com.contentanalytics.content_analytic_system.service.MetricsRollupService;
+import com.contentanalytics.content_analytic_system.service.MetricsWriteBuffer;
+import com.contentanalytics.content_analytic_system.service.PlatformCallGuard;
+import com.contentanalytics.content_analytic_system.service.PlatformRateLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/v1/admin")
+// Operational views for platform integrations
+public class AdminController {
+
+    private final PlatformRateLimiterRegistry rateLimiters;
+    private final PlatformCallGuard platformGuard;
+    private final ConnectionPoolMetricsRegistrar poolMetrics;
+    private final MetricsWriteBuffer writeBuffer;
+    private final ClusterLeaseService leaseService;
+    private final MetricsFetchCoalescer fetchCoalescer;
+    private final MetricsCollectionMigrator collectionMigrator;
+    private final IndexManager indexManager;
+    private final MetricsRollupService rollupService;
+    private final MetricsArchiveService archiveService;
+    private final MetricsPlatformBackfill platformBackfill;
+
+    public AdminController(PlatformRateLimiterRegistry rateLimiters,
+                           PlatformCallGuard platformGuard,
+                           ConnectionPoolMetricsRegistrar poolMetrics,
+                           MetricsWriteBuffer writeBuffer,
+                           ClusterLeaseService leaseService,
+                           MetricsFetchCoalescer fetchCoalescer,
+                           MetricsCollectionMigrator collectionMigrator,
+                           IndexManager indexManager,
+                           MetricsRollupService rollupService,
+                           MetricsArchiveService archiveService,
+                           MetricsPlatformBackfill platformBackfill) {
+        this.rateLimiters = rateLimiters;
+        this.platformGuard = platformGuard;
+        this.poolMetrics = poolMetrics;
+        this.writeBuffer = writeBuffer;
+        this.leaseService = leaseService;
+        this.fetchCoalescer = fetchCoalescer;
+        this.collectionMigrator = collectionMigrator;
+        this.indexManager = indexManager;
+        this.rollupService = rollupService;
+        this.archiveService = archiveService;
+        this.platformBackfill = platformBackfill;
+    }
+
+    // Current per-platform limits, in-flight calls and rejections
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Object>> getRateLimits() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("platforms", rateLimiters.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // Circuit breaker state and bulkhead usage per platform
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Object>> getCircuitBreakers() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("platforms", platformGuard.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // Connection usage of the shared HTTP client, per remote host
+    @GetMapping("/http-pools")
+    public ResponseEntity<Map<String, Object>> getHttpPools() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("pools", poolMetrics.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // Buffered metric samples waiting for the next bulk insert
+    @GetMapping("/write-buffer")
+    public ResponseEntity<Map<String, Object>> getWriteBuffer() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("writeBuffer", writeBuffer.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // Scheduled-job leases and which node holds them
+    @GetMapping("/leases")
+    public ResponseEntity<Map<String, Object>> getLeases() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("nodeId", leaseService.getNodeId());
+        response.put("leases", leaseService.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // Shared in-flight fetches and reused recent results
+    @GetMapping("/fetch-coalescing")
+    public ResponseEntity<Map<String, Object>> getFetchCoalescing() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("coalescing", fetchCoalescer.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // Metric sample collection type, the progress of its time-series migration, the rollup tiers, the archive and
+    // the platform backfill of older samples
+    @GetMapping("/metrics-storage")
+    public ResponseEntity<Map<String, Object>> getMetricsStorage() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("storage", collectionMigrator.getStatus());
+        response.put("rollups", rollupService.getStatus());
+        response.put("archive", archiveService.getStatus());
+        response.put("platformBackfill", platformBackfill.getStatus());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // EXPLAIN of the repository queries, flagging the ones that scan a whole table or collection
+    @GetMapping("/index-report")
+    public ResponseEntity<Map<String, Object>> getIndexReport() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("report", indexManager.getIndexReport());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -3,9 +3,12 @@ package com.contentanalytics.content_analytic_system.controller;
 import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
 import com.contentanalytics.content_analytic_system.service.ContentAnalyticsService;
 import com.contentanalytics.content_analytic_system.service.ContentMetricsService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,11 +26,32 @@ public class ContentMetricsController {
 
     }
 
-    // To get new content for a specific content
+    // Metrics history of a content, oldest first, one page at a time: pass nextCursor back as cursor for the next
+    // one. fields picks what each sample carries besides its timestamp (views, likes, comments, shares by default)
     @GetMapping("/{contentId}")
-    public ResponseEntity<List<ContentMetrics>> getMetrics(@PathVariable Long contentId) {
-        List<ContentMetrics> metrics = metricsService.getMetrics(contentId);
-        return ResponseEntity.ok(metrics);
+    public ResponseEntity<Map<String, Object>> getMetrics(
+            @PathVariable Long contentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int size) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ContentMetricsService.MetricsPage page = metricsService.getMetricsPage(
+                    contentId, from, to, fields, cursor, Math.min(Math.max(size, 1), 1000));
+            response.put("contentId", page.contentId());
+            response.put("fields", page.fields());
+            response.put("samples", page.samples());
+            response.put("nextCursor", page.nextCursor());
+            response.put("timestamp", LocalDateTime.now());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            response.put("timestamp", LocalDateTime.now());
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // For getting the latest
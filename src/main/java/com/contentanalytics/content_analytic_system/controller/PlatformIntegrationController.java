@@ -48,7 +48,7 @@ public class PlatformIntegrationController {
             @PathVariable String contentId) {
 
         log.info("Fetching metrics for content {} from {}", contentId, platform);
-        PlatformMetricsDTO metrics = platformIntegrationManager.getContentMetrics(contentId, platform);
+        PlatformMetricsDTO metrics = platformIntegrationManager.getContentMetricsOrLastKnown(contentId, platform);
         return ResponseEntity.ok(metrics);
     }
 
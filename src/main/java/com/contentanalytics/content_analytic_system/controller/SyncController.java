@@ -0,0 +1,66 @@
+package com.contentanalytics.content_analytic_system.controller;
+
+import com.contentanalytics.content_analytic_system.model.entity.SyncRun;
+import com.contentanalytics.content_analytic_system.service.MetricsSyncEngine;
+import com.contentanalytics.content_analytic_system.service.SyncPriorityQueue;
+import com.contentanalytics.content_analytic_system.service.SyncRunJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/v1/sync")
+// Visibility into the background metrics sync
+public class SyncController {
+
+    private final MetricsSyncEngine syncEngine;
+    private final SyncPriorityQueue syncQueue;
+    private final SyncRunJournal runJournal;
+
+    public SyncController(MetricsSyncEngine syncEngine, SyncPriorityQueue syncQueue, SyncRunJournal runJournal) {
+        this.syncEngine = syncEngine;
+        this.syncQueue = syncQueue;
+        this.runJournal = runJournal;
+    }
+
+    // Per-shard progress of the current (or last) sync cycle
+    @GetMapping("/progress")
+    public ResponseEntity<Map<String, Object>> getSyncProgress() {
+        return ResponseEntity.ok(syncEngine.getProgress());
+    }
+
+    // Depth and oldest-item age of the sync queue
+    @GetMapping("/queue")
+    public ResponseEntity<Map<String, Object>> getSyncQueue() {
+        return ResponseEntity.ok(syncQueue.getStatus());
+    }
+
+    // Sync run history, newest first
+    @GetMapping("/runs")
+    public ResponseEntity<Map<String, Object>> getSyncRuns(@RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        Page<SyncRun> runs = runJournal.getRuns(Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("runs", runs.getContent());
+        response.put("page", runs.getNumber());
+        response.put("size", runs.getSize());
+        response.put("totalRuns", runs.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
+
+    // One run with the checkpoint of each shard
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<Map<String, Object>> getSyncRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(runJournal.getRun(runId));
+    }
+}
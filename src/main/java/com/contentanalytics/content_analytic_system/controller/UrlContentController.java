@@ -1,16 +1,23 @@
 package com.contentanalytics.content_analytic_system.controller;
 
 import com.contentanalytics.content_analytic_system.model.dto.ContentIdentifierDTO;
+import com.contentanalytics.content_analytic_system.model.dto.ImportJobProgress;
 import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
 import com.contentanalytics.content_analytic_system.model.entity.Content;
-import com.contentanalytics.content_analytic_system.service.ContentMetricsService;
+import com.contentanalytics.content_analytic_system.service.BulkImportService;
 import com.contentanalytics.content_analytic_system.service.ContentService;
 import com.contentanalytics.content_analytic_system.service.PlatformIntegrationManager;
 import com.contentanalytics.content_analytic_system.service.UrlParserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,14 +29,17 @@ public class UrlContentController {
     private final UrlParserService urlParseService;
     private final ContentService contentService;
     private final PlatformIntegrationManager platformIntegrationManager;
+    private final BulkImportService bulkImportService;
 
     public UrlContentController (UrlParserService urlParseService,
                                  PlatformIntegrationManager platformIntegrationManager,
-                                 ContentService contentService) {
+                                 ContentService contentService,
+                                 BulkImportService bulkImportService) {
 
         this.urlParseService = urlParseService;
         this.platformIntegrationManager = platformIntegrationManager;
         this.contentService = contentService;
+        this.bulkImportService = bulkImportService;
     }
 
     //Creating content and fetching analytics from a URL
@@ -51,22 +61,51 @@ public class UrlContentController {
         content.setContentIdentifier(identifier.getContentIdentifier());
         content.setContentUrl(identifier.getContentUrl());
 
-        // Saving the newly added content
-        Content savedContent = contentService.addContent(content);
+        // Saving the newly added content (its metrics are fetched once while adding it)
+        Map<String, Object> response = contentService.addContentWithMetrics(content);
 
-        // Fetching the metrics from it
-        PlatformMetricsDTO metrics = platformIntegrationManager.getContentMetrics(
-                identifier.getContentIdentifier(),
-                identifier.getPlatform()
-        );
+        return ResponseEntity.ok(response);
 
-        //Build and return response
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", savedContent);
-        response.put("metrics", metrics);
+    }
 
-        return ResponseEntity.ok(response);
 
+    // Bulk import from an uploaded file: one URL per line, or NDJSON lines {"url": ..., "title": ...}
+    // Runs in the background; poll the returned job for progress
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importFile(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Bulk import of file {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        try (InputStream input = file.getInputStream()) {
+            return importAccepted(bulkImportService.submit(input));
+        }
+    }
+
+    // Same as above with the URLs streamed as the request body (text/plain or application/x-ndjson)
+    @PostMapping(value = "/import", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Map<String, Object>> importStream(HttpServletRequest request) throws IOException {
+        log.info("Bulk import from request body");
+        return importAccepted(bulkImportService.submit(request.getInputStream()));
+    }
+
+    // Progress of a bulk import
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobProgress> getImport(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkImportService.getJob(jobId));
+    }
+
+    // URLs of a bulk import that failed or were skipped, with the stage and reason
+    @GetMapping("/import/{jobId}/errors")
+    public ResponseEntity<Map<String, Object>> getImportErrors(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+
+        ImportJobProgress job = bulkImportService.getJob(jobId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", jobId);
+        response.put("totalErrors", job.getErrorCount());
+        response.put("page", page);
+        response.put("errors", job.getErrors(Math.max(page, 0), Math.min(Math.max(size, 1), 1000)));
+        return ResponseEntity.ok(response);
     }
 
 
@@ -85,11 +124,21 @@ public class UrlContentController {
         log.info("Previewing URL: {}", url);
 
         ContentIdentifierDTO identifier = urlParseService.parseUrl(url);
-        PlatformMetricsDTO metrics = platformIntegrationManager.getContentMetrics(
+        PlatformMetricsDTO metrics = platformIntegrationManager.getContentMetricsOrLastKnown(
                 identifier.getContentIdentifier(),
                 identifier.getPlatform()
         );
 
         return ResponseEntity.ok(metrics);
     }
+
+
+    private ResponseEntity<Map<String, Object>> importAccepted(ImportJobProgress job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getJobId());
+        response.put("total", job.getTotal().get());
+        response.put("state", job.getState());
+        response.put("statusUrl", "/api/v1/url-content/import/" + job.getJobId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
 }
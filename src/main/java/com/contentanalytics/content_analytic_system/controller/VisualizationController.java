@@ -7,8 +7,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+
 @RestController
 @Slf4j
 @RequestMapping("/api/v1/visualizations")
@@ -27,11 +30,14 @@ public class VisualizationController {
         return ResponseEntity.ok(visualizationService.getPlatformComparisonChart());
     }
 
-    // To get content timeline chart data
+    // To get content timeline chart data (last N days, or the content's whole life without days)
     @GetMapping("/content-timeline/{contentId}")
-    public ResponseEntity<VisualizationDTO.ChartDataDTO> getContentTimelineChart(@PathVariable Long contentId) {
+    public ResponseEntity<VisualizationDTO.ChartDataDTO> getContentTimelineChart(
+            @PathVariable Long contentId,
+            @RequestParam(required = false) Integer days) {
         log.info("Requesting content timeline visualization for contentId: {}", contentId);
-        return ResponseEntity.ok(visualizationService.getContentTimelineChart(contentId));
+        LocalDateTime from = days != null ? LocalDateTime.now().minusDays(days) : null;
+        return ResponseEntity.ok(visualizationService.getContentTimelineChart(contentId, from, null));
     }
 
     // Platform distribution chart data
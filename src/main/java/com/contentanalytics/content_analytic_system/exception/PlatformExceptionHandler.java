@@ -20,4 +20,15 @@ public class PlatformExceptionHandler {
         );
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
+
+    // Method to handle calls rejected by our own platform rate limiter
+    @ExceptionHandler(PlatformThrottledException.class)
+    public ResponseEntity<ErrorResponse> handlePlatformThrottledException(PlatformThrottledException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
 }
@@ -0,0 +1,10 @@
+package com.contentanalytics.content_analytic_system.exception;
+
+// Thrown when a platform call can't get a rate limit permit in time
+public class PlatformThrottledException extends PlatformOperationException {
+    private static final long serialVersionUID = 1L;
+
+    public PlatformThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.contentanalytics.content_analytic_system.exception;
+
+// Thrown when a platform call is refused because its circuit is open or its bulkhead is full
+public class PlatformUnavailableException extends PlatformOperationException {
+    private static final long serialVersionUID = 1L;
+
+    public PlatformUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Fetched counters of one content row, waiting for the next batched UPDATE
+@Data
+@AllArgsConstructor
+public class ContentCounterUpdate {
+
+    private Long contentId;
+    private long views;
+    private long likes;
+    private long comments;
+    private long shares;
+    private LocalDateTime syncedAt;
+    private LocalDateTime nextSyncAt;
+    private long syncIntervalSeconds;
+
+}
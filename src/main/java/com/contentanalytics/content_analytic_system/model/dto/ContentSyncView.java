@@ -0,0 +1,24 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// The columns background jobs need from a content row, selected without description or platformMetrics
+@Data
+@AllArgsConstructor
+public class ContentSyncView {
+
+    private Long id;
+    private Platform platform;
+    private String contentIdentifier;
+    private Content.ContentStatus status;
+    private Long views;
+    private LocalDateTime lastSyncedAt;
+    private Long syncIntervalSeconds;
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,16 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One URL of a bulk import that failed or was skipped, and at which stage
+@Data
+@AllArgsConstructor
+public class ImportError {
+
+    private int line;
+    private String url;
+    private ImportJobProgress.Stage stage;
+    private String message;
+
+}
@@ -0,0 +1,72 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one bulk URL import job
+@Data
+public class ImportJobProgress {
+
+    private final String jobId;
+    private volatile JobState state = JobState.QUEUED;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();    // Duplicates within the import or already stored
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong metricsFetched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;    // Why the whole job failed, if it did
+
+    // Per-URL failures and skips, in the order they happened
+    @JsonIgnore
+    private final List<ImportError> errors = new ArrayList<>();
+
+    public void addError(int line, String url, Stage stage, String message) {
+        synchronized (errors) {
+            errors.add(new ImportError(line, url, stage, message));
+        }
+        if (stage == Stage.DEDUPE) {
+            skipped.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    public List<ImportError> getErrors(int page, int size) {
+        synchronized (errors) {
+            int from = Math.min(page * size, errors.size());
+            return new ArrayList<>(errors.subList(from, Math.min(from + size, errors.size())));
+        }
+    }
+
+    public int getErrorCount() {
+        synchronized (errors) {
+            return errors.size();
+        }
+    }
+
+    public enum JobState {
+        QUEUED,
+        PARSING,
+        INSERTING,
+        FETCHING_METRICS,
+        COMPLETED,
+        FAILED
+    }
+
+    public enum Stage {
+        READ,       // Line could not be read (bad NDJSON)
+        PARSE,      // Platform or identifier could not be determined
+        DEDUPE,     // Skipped: repeated in the import or already stored
+        INSERT,
+        METRICS     // Content was imported but its first metrics fetch failed (the sync job retries it)
+    }
+}
@@ -1,9 +1,11 @@
 package com.contentanalytics.content_analytic_system.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class MediumStatisticsDTO {
 
     private Long views;
@@ -0,0 +1,70 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one sync shard (platform + content id range) within a sync cycle
+@Data
+public class SyncShardProgress {
+
+    private String shardId;
+    private Platform platform;
+    private long fromId;
+    private long toId;
+    private volatile ShardState state = ShardState.PENDING;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();    // Already synced earlier in the run
+    private volatile long cursorId;     // Every item up to this content id is finished in the current run
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private Long checkpointId;      // Journal row of this shard
+
+    // Ids scanned in this run (ascending) and finished ids ahead of the cursor
+    @JsonIgnore
+    private long[] scannedIds = new long[0];
+    @JsonIgnore
+    private int cursorIndex;
+    @JsonIgnore
+    private final Set<Long> finishedIds = new HashSet<>();
+
+    public SyncShardProgress(Platform platform, long fromId, long toId) {
+        this.platform = platform;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.shardId = platform.name().toLowerCase() + "-" + fromId + "-" + toId;
+        this.cursorId = fromId - 1;
+    }
+
+    // Items are synced by priority, not by id, so the cursor only moves past ids that are all finished
+    public synchronized void startScan(long[] ids) {
+        scannedIds = ids;
+        cursorIndex = 0;
+        finishedIds.clear();
+    }
+
+    public synchronized void markFinished(long contentId) {
+        finishedIds.add(contentId);
+        while (cursorIndex < scannedIds.length && finishedIds.remove(scannedIds[cursorIndex])) {
+            cursorId = scannedIds[cursorIndex++];
+        }
+    }
+
+    public long getFinished() {
+        return processed.get() + failed.get() + skipped.get();
+    }
+
+    public enum ShardState {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
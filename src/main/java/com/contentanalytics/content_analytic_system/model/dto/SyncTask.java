@@ -0,0 +1,23 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One content item waiting in the sync queue
+@Data
+public class SyncTask {
+
+    private Long contentId;
+    private Platform platform;
+    private String contentIdentifier;
+    private long views;     // Views known when the task was queued (used for velocity)
+    private LocalDateTime lastSyncedAt;
+    private Long syncIntervalSeconds;
+    private LocalDateTime createdAt;    // Age of the content, for its sync interval
+    private LocalDateTime enqueuedAt;
+    private double priority;
+    private String shardId;     // Shard that (last) scheduled this task
+
+}
@@ -1,11 +1,13 @@
 package com.contentanalytics.content_analytic_system.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class WordPressMetricsDTO {
 
     private Long views;
@@ -0,0 +1,39 @@
+package com.contentanalytics.content_analytic_system.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response of the YouTube Data API videos endpoint (only the parts we request)
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class YouTubeVideoListResponse {
+
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private String id;
+        private Statistics statistics;
+        private ContentDetails contentDetails;
+    }
+
+    // YouTube sends the counters as strings; Jackson coerces them to Long
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Statistics {
+        private Long viewCount;
+        private Long likeCount;
+        private Long favoriteCount;
+        private Long commentCount;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ContentDetails {
+        private String duration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.contentanalytics.content_analytic_system.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One real-time update published by the node holding a broadcast lease, for every node to push to its own clients
+@Data
+@Entity
+@Table(name = "cluster_broadcasts", indexes = {
+        @Index(name = "idx_cluster_broadcast_created", columnList = "created_at")
+})
+public class ClusterBroadcast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "origin_node", nullable = false, length = 100)
+    private String originNode;
+
+    @Column(nullable = false, length = 200)
+    private String destination;
+
+    // JSON of the message as it is sent to the clients
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,6 +3,7 @@ package com.contentanalytics.content_analytic_system.model.entity;
 
 // Importing the enum
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;   // For JPA annotations (database mapping
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,7 +17,18 @@ import java.time.LocalDateTime;       // For date and time
 
 @Data       // Lombok annotation to generate Getters and Setters, toString(), equals(), and hashcode() methods and required constructors
 @Entity     // Marks the class as a JPA entity (will be a table in database)
-@Table(name = "content")        //specifies the db table name
+@Table(name = "content", indexes = {        //specifies the db table name
+        // One per IContentRepository filter/sort (ensured at startup by IndexManager)
+        // A content is stored once per platform-side id; concurrent imports of the same URL rely on this
+        @Index(name = "idx_content_platform_identifier", columnList = "platform, content_identifier", unique = true),
+        @Index(name = "idx_content_platform_views", columnList = "platform, views"),
+        // Sync shards: id range of one platform, read in id order (findDueViewsInRange)
+        @Index(name = "idx_content_platform_id", columnList = "platform, id"),
+        @Index(name = "idx_content_platform_created", columnList = "platform, created_at"),
+        @Index(name = "idx_content_status", columnList = "status"),
+        @Index(name = "idx_content_created_at", columnList = "created_at"),
+        @Index(name = "idx_content_last_synced_at", columnList = "last_synced_at")
+})
 
 public class Content {
 
@@ -100,6 +112,19 @@ public class Content {
     @Column(name = "last_synced_at")
     private LocalDateTime lastSyncedAt;
 
+    // When the sync job next picks this content up (null = due now)
+    @Column(name = "next_sync_at")
+    private LocalDateTime nextSyncAt;
+
+    // Current adaptive sync interval; grows while the metrics stay flat
+    @Column(name = "sync_interval_seconds")
+    private Long syncIntervalSeconds;
+
+    // Set by the bulk import chunk that inserted the row, which tells its rows apart from ones stored before
+    @JsonIgnore
+    @Column(name = "import_token", length = 36)
+    private String importToken;
+
 
     // Status enum
     public enum ContentStatus {
@@ -0,0 +1,33 @@
+package com.contentanalytics.content_analytic_system.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Time-limited ownership of one scheduled job across the cluster
+// The fencing token goes up on every change of owner, so writes of a former owner can be told apart
+@Data
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "renewed_at")
+    private LocalDateTime renewedAt;
+}
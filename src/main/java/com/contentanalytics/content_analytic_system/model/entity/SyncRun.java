@@ -0,0 +1,69 @@
+package com.contentanalytics.content_analytic_system.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One metrics sync run; a run interrupted by a restart is resumed by the next cycle
+@Data
+@Entity
+@Table(name = "sync_runs", indexes = {
+        @Index(name = "idx_sync_run_status_started", columnList = "status, started_at"),
+        @Index(name = "idx_sync_run_started", columnList = "started_at")
+})
+public class SyncRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RunStatus status = RunStatus.RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Last time the run was picked up again after a restart
+    @Column(name = "resumed_at")
+    private LocalDateTime resumedAt;
+
+    @Column(name = "resume_count", nullable = false)
+    private int resumeCount;
+
+    // Node running it and the fencing token of its lease; writes carrying an older token are ignored
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "shard_count", nullable = false)
+    private int shardCount;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long failed;
+
+    // Already synced earlier in the run (found again on resume)
+    @Column(nullable = false)
+    private long skipped;
+
+    // Still queued when the cycle deadline passed
+    @Column(name = "carried_over", nullable = false)
+    private long carriedOver;
+
+
+    public enum RunStatus {
+        RUNNING,
+        COMPLETED,  // Every item synced or failed
+        INCOMPLETE, // Deadline passed with items still queued
+        ABANDONED   // Superseded by a newer unfinished run
+    }
+}
@@ -0,0 +1,60 @@
+package com.contentanalytics.content_analytic_system.model.entity;
+
+import com.contentanalytics.content_analytic_system.model.dto.SyncShardProgress;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Saved position of one shard within a sync run
+@Data
+@Entity
+@Table(name = "sync_shard_checkpoints",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"run_id", "shard_id"}),
+        indexes = @Index(name = "idx_checkpoint_run", columnList = "run_id"))
+public class SyncShardCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "shard_id", nullable = false, length = 100)
+    private String shardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Platform platform;
+
+    @Column(name = "from_id", nullable = false)
+    private long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private long toId;
+
+    // Every item of the shard up to this content id is finished
+    @Column(name = "cursor_id", nullable = false)
+    private long cursorId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long failed;
+
+    @Column(nullable = false)
+    private long skipped;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncShardProgress.ShardState state;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
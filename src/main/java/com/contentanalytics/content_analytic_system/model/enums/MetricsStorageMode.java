@@ -0,0 +1,6 @@
+package com.contentanalytics.content_analytic_system.model.enums;
+
+public enum MetricsStorageMode {
+    SAMPLES,    // One content_metrics document per sample
+    BUCKETS     // One content_metrics_buckets document per content and day, samples appended to its arrays
+}
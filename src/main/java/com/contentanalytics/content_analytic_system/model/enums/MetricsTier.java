@@ -0,0 +1,29 @@
+package com.contentanalytics.content_analytic_system.model.enums;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+public enum MetricsTier {
+    RAW(Duration.ZERO),             // Every stored sample
+    HOURLY(Duration.ofHours(1)),    // One rollup per content and hour
+    DAILY(Duration.ofDays(1));      // One rollup per content and day
+
+    private final Duration resolution;
+
+    MetricsTier(Duration resolution) {
+        this.resolution = resolution;
+    }
+
+    // Start of the bucket a timestamp falls into
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return switch (this) {
+            case RAW -> timestamp;
+            case HOURLY -> timestamp.truncatedTo(ChronoUnit.HOURS);
+            case DAILY -> timestamp.truncatedTo(ChronoUnit.DAYS);
+        };
+    }
+}
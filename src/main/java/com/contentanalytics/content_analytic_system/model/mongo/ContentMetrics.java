@@ -1,45 +1,128 @@
 package com.contentanalytics.content_analytic_system.model.mongo;
 
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
 import org.springframework.data.annotation.Id;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Data
 @Document(collection = "content_metrics")   // Marking this as MongoDB document
+// Stored as a time-series collection where the server supports it (see MetricsCollectionMigrator)
+// Latest sample, range and delete-by-content queries (ensured at startup by IndexManager)
+@CompoundIndex(name = "contentId_timestamp", def = "{'contentId': 1, 'timestamp': -1}")
+@TimeSeries(timeField = "timestamp", metaField = "contentId", granularity = Granularity.MINUTES)
+// Read and written by MongoConversionConfig: counters as plain longs under short field names, the other maps
+// only when they hold something. Documents in the older map-based layout are still read
 public class ContentMetrics {
+
+    public static final List<String> COUNTERS = List.of("views", "likes", "comments", "shares");
+
     @Id     // Mongo document ID
     private String id;
     private long contentId; // Reference to MySQL content entity
+    @Field("p")
+    private Platform platform;  // Of the content, so platform analytics can select samples (null on older samples)
     private LocalDateTime timestamp;    // When the metrics were recorded
-    private Map<String, Long> metrics = new HashMap<>();    // Basic analytic metrics like: views, likes, etc..
-    private Map<String, Object> platformData = new HashMap<>();    // For additional metrics; platform-specific
-    @Field("Engagement_metrics")    // Engagement metrics (Ratios & Percentage)
-    private Map<String, Double> engagementMetrics = new HashMap<>();
-    private Map<String, Integer> demographicData = new HashMap<>(); // Audience demographics (age groups, gender etc.)
-    private Map<String, Integer> geographicData = new HashMap<>();  // Geographic distribution of audience
+    private LocalDateTime lastCheckedAt;    // Last fetch that found the same counters (unchanged samples aren't stored again)
+
+    // Basic analytic metrics (exposed through getMetrics in API responses)
+    @JsonIgnore @Field("v")
+    private long views;
+    @JsonIgnore @Field("l")
+    private long likes;
+    @JsonIgnore @Field("c")
+    private long comments;
+    @JsonIgnore @Field("s")
+    private long shares;
+
+    // Allocated only when set; the getters return an empty map otherwise
+    @Field("d")
+    private Map<String, Long> deltas;   // Change against the previous sample (only when metrics.store-deltas is on)
+    @Field("pd")
+    private Map<String, Object> platformData;    // For additional metrics; platform-specific
+    @Field("em")    // Engagement metrics (Ratios & Percentage)
+    private Map<String, Double> engagementMetrics;
+    @Field("dg")
+    private Map<String, Integer> demographicData; // Audience demographics (age groups, gender etc.)
+    @Field("geo")
+    private Map<String, Integer> geographicData;  // Geographic distribution of audience
+
+
+    // Counters by name, as the API has always returned them (built on each call)
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new HashMap<>(8);
+        for (String counter : COUNTERS) {
+            metrics.put(counter, getCounter(counter));
+        }
+        return metrics;
+    }
+
+    // Only the core counters are kept; other names are ignored
+    public void setMetrics(Map<String, Long> metrics) {
+        for (String counter : COUNTERS) {
+            Long value = metrics != null ? metrics.get(counter) : null;
+            setCounter(counter, value != null ? value : 0L);
+        }
+    }
+
+    public long getCounter(String name) {
+        return switch (name) {
+            case "views" -> views;
+            case "likes" -> likes;
+            case "comments" -> comments;
+            case "shares" -> shares;
+            default -> 0L;
+        };
+    }
+
+    public void setCounter(String name, long value) {
+        switch (name) {
+            case "views" -> views = value;
+            case "likes" -> likes = value;
+            case "comments" -> comments = value;
+            case "shares" -> shares = value;
+            default -> { }
+        }
+    }
+
+    public Map<String, Long> getDeltas() {
+        return deltas != null ? deltas : Collections.emptyMap();
+    }
 
+    public Map<String, Object> getPlatformData() {
+        return platformData != null ? platformData : Collections.emptyMap();
+    }
+
+    public Map<String, Double> getEngagementMetrics() {
+        return engagementMetrics != null ? engagementMetrics : Collections.emptyMap();
+    }
+
+    public Map<String, Integer> getDemographicData() {
+        return demographicData != null ? demographicData : Collections.emptyMap();
+    }
 
-    // Initializing maps in constructor
-    public ContentMetrics() {
-        this.metrics = new HashMap<>();
-        this.platformData = new HashMap<>();
-        this.engagementMetrics = new HashMap<>();
-        this.demographicData = new HashMap<>();
-        this.geographicData = new HashMap<>();
+    public Map<String, Integer> getGeographicData() {
+        return geographicData != null ? geographicData : Collections.emptyMap();
     }
 
     // HELPER method to get platform data (backward compatibility)
     public Map<String, Object> getAdditionalMetrics() {
-        return this.platformData;
+        return getPlatformData();
     }
 
-    // To set
+    // To set (empty maps aren't kept)
     public void setPlatformData(Map<String, Object> platformData) {
-        this.platformData = platformData != null? platformData : new HashMap<>();
+        this.platformData = platformData != null && !platformData.isEmpty() ? platformData : null;
     }
 
 }
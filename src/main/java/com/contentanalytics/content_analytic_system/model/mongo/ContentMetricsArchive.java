@@ -0,0 +1,41 @@
+package com.contentanalytics.content_analytic_system.model.mongo;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Document(collection = "content_metrics_archive")
+// Encoded block of a content's old samples (see MetricsArchiveService and MetricsSeriesCodec)
+// Range, latest block and delete-by-content queries (ensured at startup by IndexManager)
+@CompoundIndex(name = "contentId_from", def = "{'contentId': 1, 'from': -1}")
+public class ContentMetricsArchive {
+    @Id     // <contentId>:<epoch millis of the first sample>
+    private String id;
+    private long contentId;
+    private Platform platform;
+    private LocalDateTime from;     // First and last sample of the block
+    private LocalDateTime to;
+    private int count;
+    private byte[] data;    // Timestamps and counters
+    private List<SampleExtras> extras;  // Everything else, for the samples that carried more
+    private LocalDateTime archivedAt;
+
+
+    @Data
+    public static class SampleExtras {
+        private int index;      // Of the sample in the block
+        private LocalDateTime lastCheckedAt;    // Only when later than the sample's timestamp
+        private Map<String, Long> deltas;
+        private Map<String, Object> platformData;
+        private Map<String, Double> engagementMetrics;
+        private Map<String, Integer> demographicData;
+        private Map<String, Integer> geographicData;
+    }
+}
@@ -0,0 +1,36 @@
+package com.contentanalytics.content_analytic_system.model.mongo;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Document(collection = "content_metrics_buckets")
+// Samples of one content and day as parallel arrays (metrics.storage.mode = buckets, see MetricsBucketStore)
+// Latest bucket, range and delete-by-content queries (ensured at startup by IndexManager)
+@CompoundIndex(name = "contentId_day", def = "{'contentId': 1, 'day': -1}")
+public class ContentMetricsBucket {
+    @Id     // <contentId>:<yyyyMMdd>, so samples can be appended with an upsert by id
+    private String id;
+    private long contentId;
+    private Platform platform;      // Of the content (missing on buckets started before samples carried it)
+    private LocalDateTime day;      // Start of the day the samples fall into
+    private int count;
+    private LocalDateTime lastCheckedAt;    // Last fetch that found the same counters as the newest sample
+    private Map<String, Object> platformData = new HashMap<>();     // Of the newest sample
+
+    // Entry i of each array belongs to sample i
+    private List<LocalDateTime> timestamps = new ArrayList<>();
+    private List<Long> views = new ArrayList<>();
+    private List<Long> likes = new ArrayList<>();
+    private List<Long> comments = new ArrayList<>();
+    private List<Long> shares = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.contentanalytics.content_analytic_system.model.mongo;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+// Aggregate of the samples of one content within one bucket (see HourlyContentMetrics / DailyContentMetrics)
+public abstract class ContentMetricsRollup {
+    @Id     // <contentId>:<bucket start in epoch seconds>, so updates can upsert by id
+    private String id;
+    private long contentId;
+    private Platform platform;
+    private LocalDateTime bucketStart;
+    private LocalDateTime lastSampleAt;     // Timestamp of the newest sample in the bucket
+    private long count;     // Samples stored within the bucket
+    private Map<String, Long> last = new HashMap<>();   // Counters of the newest sample
+    private Map<String, Long> max = new HashMap<>();    // Highest value of each counter
+    private Map<String, Long> delta = new HashMap<>();  // Growth since the last sample before the bucket
+}
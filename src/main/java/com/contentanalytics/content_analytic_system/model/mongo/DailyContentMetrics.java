@@ -0,0 +1,14 @@
+package com.contentanalytics.content_analytic_system.model.mongo;
+
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(collection = "content_metrics_daily")
+// Timeline reads by content and the per-platform aggregations (ensured at startup by IndexManager)
+@CompoundIndexes({
+        @CompoundIndex(name = "contentId_bucketStart", def = "{'contentId': 1, 'bucketStart': 1}"),
+        @CompoundIndex(name = "platform_bucketStart", def = "{'platform': 1, 'bucketStart': 1}")
+})
+public class DailyContentMetrics extends ContentMetricsRollup {
+}
@@ -14,6 +14,9 @@ public interface IContentMetricsRepository extends MongoRepository<ContentMetric
 
     Optional<ContentMetrics> findTopByContentIdOrderByTimestampDesc(Long contentId);
 
+    // Two latest samples, used to estimate view velocity
+    List<ContentMetrics> findTop2ByContentIdOrderByTimestampDesc(Long contentId);
+
     // To find metrics within a date range
     List<ContentMetrics> findByContentIdAndTimestampBetween(
             Long contentId,
@@ -0,0 +1,26 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.entity.ClusterBroadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IClusterBroadcastRepository extends JpaRepository<ClusterBroadcast, Long> {
+
+    // Next broadcasts after the given id, oldest first
+    List<ClusterBroadcast> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM ClusterBroadcast b")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterBroadcast b WHERE b.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+
+}
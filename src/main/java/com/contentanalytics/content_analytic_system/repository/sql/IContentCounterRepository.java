@@ -0,0 +1,12 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.dto.ContentCounterUpdate;
+
+import java.util.List;
+
+// Custom fragment of IContentRepository for writing many counter updates at once
+public interface IContentCounterRepository {
+
+    // Returns the number of rows updated
+    int batchUpdateCounters(List<ContentCounterUpdate> updates);
+}
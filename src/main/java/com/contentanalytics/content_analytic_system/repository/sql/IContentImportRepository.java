@@ -0,0 +1,13 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+
+import java.util.List;
+
+// Custom fragment of IContentRepository for inserting many content rows at once
+public interface IContentImportRepository {
+
+    // Skips content already stored under the same platform and identifier (the caller reads the ids back);
+    // returns at most the number of rows inserted, ids are not set on the passed entities
+    int batchInsertContent(List<Content> contents);
+}
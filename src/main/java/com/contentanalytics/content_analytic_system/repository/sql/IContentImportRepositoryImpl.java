@@ -0,0 +1,58 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+// JDBC batch insert; Hibernate can't batch inserts of IDENTITY entities, the MySQL driver rewrites these into
+// multi-row INSERTs. A row whose (platform, content_identifier) is already stored is left as it is, import token
+// included
+public class IContentImportRepositoryImpl implements IContentImportRepository {
+
+    private static final String INSERT_CONTENT =
+            "INSERT INTO content (title, platform, content_identifier, content_url, description, " +
+            "views, likes, comments, shares, source_type, status, created_at, updated_at, import_token) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public IContentImportRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                        @Value("${import.insert-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Override
+    public int batchInsertContent(List<Content> contents) {
+        if (contents.isEmpty()) return 0;
+
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_CONTENT, contents, batchSize, (ps, content) -> {
+            ps.setString(1, content.getTitle());
+            ps.setString(2, content.getPlatform().name());
+            ps.setString(3, content.getContentIdentifier());
+            ps.setString(4, content.getContentUrl());
+            ps.setString(5, content.getDescription());
+            ps.setLong(6, content.getViews());
+            ps.setLong(7, content.getLikes());
+            ps.setLong(8, content.getComments());
+            ps.setLong(9, content.getShares());
+            ps.setString(10, content.getSourceType().name());
+            ps.setString(11, content.getStatus().name());
+            ps.setTimestamp(12, Timestamp.valueOf(content.getCreatedAt()));
+            ps.setTimestamp(13, Timestamp.valueOf(content.getUpdatedAt()));
+            ps.setString(14, content.getImportToken());
+        });
+
+        // Rewritten batches report SUCCESS_NO_INFO (-2) instead of a row count, so this is an upper bound
+        return Arrays.stream(results)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> count < 0 ? 1 : count)
+                .sum();
+    }
+}
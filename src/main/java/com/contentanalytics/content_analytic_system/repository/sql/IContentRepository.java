@@ -1,16 +1,28 @@
 package com.contentanalytics.content_analytic_system.repository.sql;
 
+import com.contentanalytics.content_analytic_system.model.dto.ContentSyncView;
 import com.contentanalytics.content_analytic_system.model.entity.Content;
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
-public interface IContentRepository extends JpaRepository<Content, Long> {
+public interface IContentRepository extends JpaRepository<Content, Long>, IContentCounterRepository,
+        IContentImportRepository {
+
+    // Statuses background jobs leave alone
+    List<Content.ContentStatus> UNSYNCED_STATUSES = List.of(Content.ContentStatus.ARCHIVED, Content.ContentStatus.DELETED);
+
     static Content addContent(Content content) {
         return content;
     }
@@ -67,5 +79,54 @@ public interface IContentRepository extends JpaRepository<Content, Long> {
     // To find content created within date range
     List <Content> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+    // Id range per platform, used to plan sync shards
+    @Query("SELECT c.platform, MIN(c.id), MAX(c.id), COUNT(c) " +
+           "FROM Content c GROUP BY c.platform")
+    List <Object[]> getPlatformIdRanges();
+
+    // Content by its platform-side id
+    Optional<Content> findFirstByPlatformAndContentIdentifier(Platform platform, String contentIdentifier);
+
+    // Platform-side id, content id and import token of the given identifiers that are already stored
+    @Query("SELECT c.contentIdentifier, c.id, c.importToken FROM Content c " +
+           "WHERE c.platform = :platform AND c.contentIdentifier IN :identifiers")
+    List <Object[]> findIdsByIdentifiers(@Param("platform") Platform platform,
+                                         @Param("identifiers") Collection<String> identifiers);
+
+    // Next keyset page of content ids past afterId with their platform (any status)
+    @Query("SELECT c.id, c.platform FROM Content c WHERE c.id > :afterId ORDER BY c.id ASC")
+    List <Object[]> findPlatformsAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    // Next keyset page of content past afterId, as lightweight views
+    @Query("SELECT new com.contentanalytics.content_analytic_system.model.dto.ContentSyncView(" +
+           "c.id, c.platform, c.contentIdentifier, c.status, c.views, c.lastSyncedAt, " +
+           "c.syncIntervalSeconds, c.createdAt) " +
+           "FROM Content c WHERE c.id > :afterId AND c.status NOT IN :excluded ORDER BY c.id ASC")
+    List <ContentSyncView> findViewsAfter(@Param("afterId") Long afterId,
+                                          @Param("excluded") Collection<Content.ContentStatus> excluded,
+                                          Pageable limit);
+
+    // Content of one sync shard that is due for a sync, as lightweight views
+    @Query("SELECT new com.contentanalytics.content_analytic_system.model.dto.ContentSyncView(" +
+           "c.id, c.platform, c.contentIdentifier, c.status, c.views, c.lastSyncedAt, " +
+           "c.syncIntervalSeconds, c.createdAt) " +
+           "FROM Content c WHERE c.platform = :platform AND c.id BETWEEN :fromId AND :toId " +
+           "AND c.status NOT IN :excluded AND (c.nextSyncAt IS NULL OR c.nextSyncAt <= :dueBy) " +
+           "ORDER BY c.id ASC")
+    List <ContentSyncView> findDueViewsInRange(@Param("platform") Platform platform,
+                                               @Param("fromId") Long fromId,
+                                               @Param("toId") Long toId,
+                                               @Param("excluded") Collection<Content.ContentStatus> excluded,
+                                               @Param("dueBy") LocalDateTime dueBy);
+
+    // Writing fetched counters in one UPDATE, without loading the entity first
+    @Transactional
+    @Modifying
+    @Query("UPDATE Content c SET c.views = :views, c.likes = :likes, c.comments = :comments, " +
+           "c.shares = :shares, c.lastSyncedAt = :syncedAt, c.updatedAt = :syncedAt WHERE c.id = :id")
+    int updateCounters(@Param("id") Long id, @Param("views") long views, @Param("likes") long likes,
+                       @Param("comments") long comments, @Param("shares") long shares,
+                       @Param("syncedAt") LocalDateTime syncedAt);
+
 
 }
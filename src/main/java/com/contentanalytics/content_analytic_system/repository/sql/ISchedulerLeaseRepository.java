@@ -0,0 +1,39 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Each statement is a single conditional UPDATE, so of several nodes racing for a lease exactly one gets 1 row back
+public interface ISchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Taking over a free or expired lease (or re-taking our own), with a new fencing token
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.ownerNode = :node, l.fencingToken = l.fencingToken + 1, " +
+           "l.expiresAt = :expiresAt, l.acquiredAt = :now, l.renewedAt = :now " +
+           "WHERE l.name = :name AND (l.ownerNode IS NULL OR l.ownerNode = :node OR l.expiresAt < :now)")
+    int takeOver(@Param("name") String name, @Param("node") String node,
+                 @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Extending a lease this node still holds (same token: nobody took it over meanwhile)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.expiresAt = :expiresAt, l.renewedAt = :now " +
+           "WHERE l.name = :name AND l.ownerNode = :node AND l.fencingToken = :token")
+    int renew(@Param("name") String name, @Param("node") String node, @Param("token") long token,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.ownerNode = NULL, l.expiresAt = :now " +
+           "WHERE l.name = :name AND l.ownerNode = :node AND l.fencingToken = :token")
+    int release(@Param("name") String name, @Param("node") String node, @Param("token") long token,
+                @Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,33 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.entity.SyncRun;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ISyncRunRepository extends JpaRepository<SyncRun, Long> {
+
+    // Unfinished runs, newest first
+    List<SyncRun> findByStatusOrderByStartedAtDesc(SyncRun.RunStatus status);
+
+    Page<SyncRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    // Closing a run, unless a newer lease holder has taken it over
+    @Transactional
+    @Modifying
+    @Query("UPDATE SyncRun r SET r.status = :status, r.finishedAt = :finishedAt, r.processed = :processed, " +
+           "r.failed = :failed, r.skipped = :skipped, r.carriedOver = :carriedOver " +
+           "WHERE r.id = :id AND r.fencingToken = :fencingToken")
+    int finish(@Param("id") Long id, @Param("fencingToken") long fencingToken,
+               @Param("status") SyncRun.RunStatus status, @Param("finishedAt") LocalDateTime finishedAt,
+               @Param("processed") long processed, @Param("failed") long failed,
+               @Param("skipped") long skipped, @Param("carriedOver") long carriedOver);
+
+}
@@ -0,0 +1,31 @@
+package com.contentanalytics.content_analytic_system.repository.sql;
+
+import com.contentanalytics.content_analytic_system.model.dto.SyncShardProgress;
+import com.contentanalytics.content_analytic_system.model.entity.SyncShardCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ISyncShardCheckpointRepository extends JpaRepository<SyncShardCheckpoint, Long> {
+
+    List<SyncShardCheckpoint> findByRunIdOrderByIdAsc(Long runId);
+
+    // Saving a shard's position in one UPDATE, only while the run still belongs to the given fencing token
+    @Transactional
+    @Modifying
+    @Query("UPDATE SyncShardCheckpoint c SET c.cursorId = :cursorId, c.total = :total, c.processed = :processed, " +
+           "c.failed = :failed, c.skipped = :skipped, c.state = :state, c.updatedAt = :updatedAt " +
+           "WHERE c.id = :id AND EXISTS (SELECT r.id FROM SyncRun r " +
+           "WHERE r.id = c.runId AND r.fencingToken = :fencingToken)")
+    int updateProgress(@Param("id") Long id, @Param("fencingToken") long fencingToken,
+                       @Param("cursorId") long cursorId, @Param("total") long total,
+                       @Param("processed") long processed, @Param("failed") long failed,
+                       @Param("skipped") long skipped, @Param("state") SyncShardProgress.ShardState state,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+}
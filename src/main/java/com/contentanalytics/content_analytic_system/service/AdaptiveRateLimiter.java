@@ -0,0 +1,222 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformThrottledException;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+// Token bucket (request rate) plus an AIMD concurrency window (calls in flight) for one platform
+public class AdaptiveRateLimiter {
+
+    public enum Outcome {
+        SUCCESS,
+        THROTTLED,      // 429 from the platform
+        ERROR           // 5xx or I/O failure
+    }
+
+    private final Platform platform;
+    private final double requestsPerSecond;
+    private final double burst;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
+    private final long latencyThresholdMs;
+    private final double decreaseFactor;
+    private final long decreaseCooldownMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    // Guarded by lock
+    private double tokens;
+    private long lastRefillNanos;
+    private double concurrencyLimit;
+    private int inFlight;
+    private long lastDecreaseMillis;
+    private LocalDateTime lastDecreaseAt;
+    private double avgLatencyMs;
+    private long acquired;
+    private long rejected;
+    private long throttled;
+    private long errors;
+    private long slowCalls;
+
+    public AdaptiveRateLimiter(Platform platform, double requestsPerSecond, int burst,
+                               int minConcurrency, int initialConcurrency, int maxConcurrency,
+                               long acquireTimeoutMs, long latencyThresholdMs,
+                               double decreaseFactor, long decreaseCooldownMs) {
+        this.platform = platform;
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = Math.max(burst, 1);
+        this.minConcurrency = Math.max(minConcurrency, 1);
+        this.maxConcurrency = Math.max(maxConcurrency, this.minConcurrency);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.decreaseFactor = decreaseFactor;
+        this.decreaseCooldownMs = decreaseCooldownMs;
+
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.concurrencyLimit = Math.min(Math.max(initialConcurrency, this.minConcurrency), this.maxConcurrency);
+    }
+
+    // Waits for a token and a free slot in the window; throws once the acquire timeout passes
+    public void acquire() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+
+        lock.lock();
+        try {
+            while (true) {
+                refill();
+                boolean slotFree = inFlight < (int) concurrencyLimit;
+                if (slotFree && tokens >= 1) {
+                    tokens -= 1;
+                    inFlight++;
+                    acquired++;
+                    return;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    rejected++;
+                    throw new PlatformThrottledException("Rate limit reached for " + platform.getDisplayName()
+                            + " (" + inFlight + " calls in flight, limit " + (int) concurrencyLimit + ")");
+                }
+
+                // Without a slot only a release can help; without a token wait until the next one is due
+                long wait = slotFree
+                        ? (long) ((1 - tokens) / requestsPerSecond * 1_000_000_000L)
+                        : remaining;
+                released.awaitNanos(Math.max(Math.min(wait, remaining), 1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlatformThrottledException("Interrupted waiting for " + platform.getDisplayName() + " rate limit");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Non-blocking variant for reactive callers; false when no token or slot is free right now
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (inFlight < (int) concurrencyLimit && tokens >= 1) {
+                tokens -= 1;
+                inFlight++;
+                acquired++;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Counts a reactive caller that gave up waiting
+    public void recordRejected() {
+        lock.lock();
+        try {
+            rejected++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAcquireTimeoutMs() {
+        return acquireTimeoutMs;
+    }
+
+    public Platform getPlatform() {
+        return platform;
+    }
+
+    // Frees the slot and adapts the window: +1 per window of successes, multiplicative cut on congestion
+    public void release(Outcome outcome, long latencyMs) {
+        lock.lock();
+        try {
+            inFlight = Math.max(inFlight - 1, 0);
+            avgLatencyMs = avgLatencyMs == 0 ? latencyMs : avgLatencyMs * 0.8 + latencyMs * 0.2;
+
+            switch (outcome) {
+                case THROTTLED -> {
+                    throttled++;
+                    // Pausing new calls until the bucket refills
+                    tokens = Math.min(tokens, 0);
+                    decrease("429 response");
+                }
+                case ERROR -> {
+                    errors++;
+                    decrease("server error");
+                }
+                case SUCCESS -> {
+                    if (latencyThresholdMs > 0 && latencyMs > latencyThresholdMs) {
+                        slowCalls++;
+                        decrease("latency " + latencyMs + "ms");
+                    } else {
+                        concurrencyLimit = Math.min(concurrencyLimit + 1.0 / concurrencyLimit, maxConcurrency);
+                    }
+                }
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        lock.lock();
+        try {
+            refill();
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("platform", platform.name());
+            status.put("requestsPerSecond", requestsPerSecond);
+            status.put("availableTokens", Math.floor(tokens));
+            status.put("concurrencyLimit", (int) concurrencyLimit);
+            status.put("minConcurrency", minConcurrency);
+            status.put("maxConcurrency", maxConcurrency);
+            status.put("inFlight", inFlight);
+            status.put("acquired", acquired);
+            status.put("rejected", rejected);
+            status.put("throttledResponses", throttled);
+            status.put("errors", errors);
+            status.put("slowCalls", slowCalls);
+            status.put("avgLatencyMs", Math.round(avgLatencyMs));
+            status.put("lastDecreaseAt", lastDecreaseAt);
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    // HELPER methods
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        tokens = Math.min(tokens + elapsedSeconds * requestsPerSecond, burst);
+        lastRefillNanos = now;
+    }
+
+    // One cut per cooldown so a burst of failures from the same window doesn't collapse the limit
+    private void decrease(String reason) {
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseMillis < decreaseCooldownMs) return;
+
+        double previous = concurrencyLimit;
+        concurrencyLimit = Math.max(concurrencyLimit * decreaseFactor, minConcurrency);
+        lastDecreaseMillis = now;
+        lastDecreaseAt = LocalDateTime.now();
+        log.warn("Reduced {} concurrency limit from {} to {} ({})",
+                platform, (int) previous, (int) concurrencyLimit, reason);
+    }
+}
@@ -1,19 +1,25 @@
 package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.enums.MetricsTier;
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
-import com.contentanalytics.content_analytic_system.repository.mongo.IContentMetricsRepository;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsBucket;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
-import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,26 +30,40 @@ import java.util.Objects;
 public class AdvancedAnalyticsService {
 
     private final MongoTemplate mongoTemplate;
-    private final IContentMetricsRepository metricsRepository;
+    private final ContentMetricsService metricsService;
     private final ContentService contentService;
+    private final MetricsRollupService rollupService;
+    private final MetricsBucketStore bucketStore;
 
     public AdvancedAnalyticsService(MongoTemplate mongoTemplate,
-                                    IContentMetricsRepository metricsRepository,
-                                    ContentService contentService) {
+                                    ContentMetricsService metricsService,
+                                    ContentService contentService,
+                                    MetricsRollupService rollupService,
+                                    MetricsBucketStore bucketStore) {
         this.mongoTemplate = mongoTemplate;
-        this.metricsRepository = metricsRepository;
+        this.metricsService = metricsService;
         this.contentService = contentService;
+        this.rollupService = rollupService;
+        this.bucketStore = bucketStore;
     }
 
 
     //To get hourly engagement patterns
     public Map<String, Object> getHourlyEngagementPattern(Platform platform) {
-        TypedAggregation<ContentMetrics> aggregation = Aggregation.newAggregation(
-                ContentMetrics.class,
-                Aggregation.match(Criteria.where("platform").is(platform)),
+        return getHourlyEngagementPattern(platform, 30);
+    }
+
+    // Over the last N days; hourly rollups at the coarsest, since the pattern is per hour of the day
+    public Map<String, Object> getHourlyEngagementPattern(Platform platform, int days) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(days);
+        TierSource source = source(rollupService.selectTier(from, to, MetricsTier.HOURLY), platform);
+
+        Aggregation aggregation = pipeline(source,
+                Aggregation.match(Criteria.where(source.timeField()).gte(from).lte(to)),
                 Aggregation.project()
-                    .andExpression("hour(timestamp)").as("hour")
-                    .and("metrics.view").as("views"),
+                    .andExpression("hour(" + source.timeField() + ")").as("hour")
+                    .and(source.viewsField()).as("views"),
                 Aggregation.group("hour")
                         .avg("views").as("averageViews"),
                 Aggregation.sort(Sort.Direction.ASC, "hour")
@@ -51,7 +71,7 @@ public class AdvancedAnalyticsService {
 
         AggregationResults<Document> results = mongoTemplate.aggregate(
                 aggregation,
-                "content_metrics",
+                source.collection(),
                 Document.class
         );
 
@@ -62,8 +82,8 @@ public class AdvancedAnalyticsService {
     //Getting content performance prediction
     public Map<String, Object> predictContentPerformance(Long contentId) {
         Content content = contentService.getContent(contentId);
-        List<ContentMetrics> historicalMetrics = metricsRepository
-                .findByContentIdOrderByTimestampDesc(contentId);
+        List<ContentMetrics> historicalMetrics = new ArrayList<>(metricsService.getMetrics(contentId));
+        historicalMetrics.sort(Comparator.comparing(ContentMetrics::getTimestamp).reversed());
 
 
         // Calculate growth rates
@@ -83,14 +103,16 @@ public class AdvancedAnalyticsService {
     }
 
 
-    // Calculating audience retention
+    // Calculating audience retention (first against latest views over the whole history, daily rollups if complete)
     public Map<String, Object> calculateAudienceRetention(Platform platform) {
-        TypedAggregation<ContentMetrics> aggregation = Aggregation.newAggregation(
-                ContentMetrics.class,
-                Aggregation.match(Criteria.where("platform").is(platform)),
+        TierSource source = source(rollupService.selectTier(null, LocalDateTime.now()), platform);
+
+        Aggregation aggregation = pipeline(source,
+                Aggregation.sort(Sort.Direction.ASC, source.timeField()),
                 Aggregation.group("contentId")
-                        .first("metrics.views").as("initialViews")
-                        .last("metrics.views").as("currentViews"),
+                        .first(source.viewsField()).as("initialViews")
+                        .last(source.viewsField()).as("currentViews"),
+                Aggregation.match(Criteria.where("initialViews").gt(0)),
                 Aggregation.project()
                         .andExpression("(currentViews / initialViews) * 100")
                         .as("retentionRate")
@@ -98,7 +120,7 @@ public class AdvancedAnalyticsService {
 
         AggregationResults<Document> results = mongoTemplate.aggregate(
                  aggregation,
-                "content_metrics",
+                source.collection(),
                 Document.class
         );
 
@@ -106,6 +128,38 @@ public class AdvancedAnalyticsService {
     }
 
     // HELPER METHODS
+
+    // Where a tier's data lives and the stages selecting a platform's entries from it (bucketed samples are
+    // unwound into one entry per sample). Raw samples and buckets stored before they carried their platform get
+    // it from MetricsPlatformBackfill
+    private TierSource source(MetricsTier tier, Platform platform) {
+        if (tier != MetricsTier.RAW) {
+            return new TierSource(mongoTemplate.getCollectionName(rollupService.documentType(tier)), "bucketStart",
+                    "last.views", List.of(Aggregation.match(Criteria.where("platform").is(platform.name()))));
+        }
+
+        if (bucketStore.isActive()) {
+            AggregationOperation platformContent = Aggregation.match(Criteria.where("platform").is(platform.name()));
+            return new TierSource(mongoTemplate.getCollectionName(ContentMetricsBucket.class), "timestamp", "views",
+                    List.of(platformContent,
+                            Aggregation.unwind("timestamps", "sample"),
+                            Aggregation.project("contentId")
+                                    .and("timestamps").as("timestamp")
+                                    .and(ArrayOperators.ArrayElemAt.arrayOf("views").elementAt("sample")).as("views")));
+        }
+        // Samples keep their views under "v"; ones stored in the older map-based layout under "metrics.views"
+        return new TierSource(mongoTemplate.getCollectionName(ContentMetrics.class), "timestamp", "views",
+                List.of(Aggregation.match(Criteria.where("p").is(platform.name())),
+                        Aggregation.project("contentId", "timestamp")
+                                .and(ConditionalOperators.ifNull("v").thenValueOf("metrics.views")).as("views")));
+    }
+
+    private Aggregation pipeline(TierSource source, AggregationOperation... operations) {
+        List<AggregationOperation> stages = new ArrayList<>(source.stages());
+        stages.addAll(List.of(operations));
+        return Aggregation.newAggregation(stages);
+    }
+
     private double calculateGrowthRate(List<ContentMetrics> metrics, String metricName) {
         // Should implement the growth rate
         if (metrics == null || metrics.size() < 2) {
@@ -141,4 +195,9 @@ public class AdvancedAnalyticsService {
         retention.put("averageRetention", averageRetention);
         return retention;
     }
+
+
+    private record TierSource(String collection, String timeField, String viewsField,
+                              List<AggregationOperation> stages) {
+    }
 }
@@ -0,0 +1,400 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.ContentNotFoundException;
+import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
+import com.contentanalytics.content_analytic_system.model.dto.ContentCounterUpdate;
+import com.contentanalytics.content_analytic_system.model.dto.ContentIdentifierDTO;
+import com.contentanalytics.content_analytic_system.model.dto.ImportJobProgress;
+import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+// Bulk URL import, run in the background as a staged pipeline: parse and classify URLs in parallel, drop
+// duplicates, insert the new content in JDBC batches, then fetch first metrics per platform in batch calls
+public class BulkImportService {
+
+    private static final int MAX_URL_LENGTH = 255;     // content.content_url column
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;  // Identifiers per IN (...) lookup
+
+    private final UrlParserService urlParser;
+    private final IContentRepository contentRepository;
+    private final PlatformIntegrationManager platformManager;
+    private final ContentMetricsService metricsService;
+    private final SyncIntervalPolicy intervalPolicy;
+    private final ThreadPoolTaskExecutor importExecutor;
+    private final ObjectMapper objectMapper;
+    private final int insertChunkSize;
+    private final int fetchChunkSize;
+    private final int maxUrls;
+    private final int jobsRetained;
+
+    // Recent jobs by id (oldest evicted past jobs-retained)
+    private final Map<String, ImportJobProgress> jobs;
+
+    public BulkImportService(UrlParserService urlParser,
+                             IContentRepository contentRepository,
+                             PlatformIntegrationManager platformManager,
+                             ContentMetricsService metricsService,
+                             SyncIntervalPolicy intervalPolicy,
+                             @Qualifier("bulkImportExecutor") ThreadPoolTaskExecutor importExecutor,
+                             ObjectMapper objectMapper,
+                             @Value("${import.insert-batch-size:1000}") int insertChunkSize,
+                             @Value("${import.fetch-chunk-size:500}") int fetchChunkSize,
+                             @Value("${import.max-urls:100000}") int maxUrls,
+                             @Value("${import.jobs-retained:50}") int jobsRetained) {
+
+        this.urlParser = urlParser;
+        this.contentRepository = contentRepository;
+        this.platformManager = platformManager;
+        this.metricsService = metricsService;
+        this.intervalPolicy = intervalPolicy;
+        this.importExecutor = importExecutor;
+        this.objectMapper = objectMapper;
+        this.insertChunkSize = Math.max(insertChunkSize, 1);
+        this.fetchChunkSize = Math.max(fetchChunkSize, 1);
+        this.maxUrls = maxUrls;
+        this.jobsRetained = Math.max(jobsRetained, 1);
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportJobProgress> eldest) {
+                return size() > BulkImportService.this.jobsRetained;
+            }
+        });
+    }
+
+    // Reads the URLs (one per line, or NDJSON {"url": ..., "title": ...} lines) and starts the job
+    public ImportJobProgress submit(InputStream input) {
+        ImportJobProgress job = new ImportJobProgress(UUID.randomUUID().toString());
+        List<ImportLine> lines = readLines(input, job);
+        if (lines.isEmpty() && job.getErrorCount() == 0) {
+            throw new PlatformOperationException("Import contains no URLs");
+        }
+
+        job.getTotal().set(lines.size() + job.getErrorCount());
+        jobs.put(job.getJobId(), job);
+        try {
+            importExecutor.execute(() -> run(job, lines));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getJobId());
+            throw new PlatformOperationException("Too many imports in progress, try again later");
+        }
+        log.info("Queued bulk import {} with {} URLs", job.getJobId(), job.getTotal().get());
+        return job;
+    }
+
+    public ImportJobProgress getJob(String jobId) {
+        ImportJobProgress job = jobs.get(jobId);
+        if (job == null) {
+            throw new ContentNotFoundException("Import job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+
+    // PIPELINE
+
+    private void run(ImportJobProgress job, List<ImportLine> lines) {
+        job.setStartedAt(LocalDateTime.now());
+        try {
+            job.setState(ImportJobProgress.JobState.PARSING);
+            List<ParsedUrl> parsed = parse(job, lines);
+            List<ParsedUrl> fresh = dedupe(job, parsed);
+
+            job.setState(ImportJobProgress.JobState.INSERTING);
+            List<ParsedUrl> inserted = insert(job, fresh);
+
+            job.setState(ImportJobProgress.JobState.FETCHING_METRICS);
+            fetchMetrics(job, inserted);
+
+            job.setState(ImportJobProgress.JobState.COMPLETED);
+            log.info("Bulk import {} done: {} inserted, {} skipped, {} failed", job.getJobId(),
+                    job.getInserted().get(), job.getSkipped().get(), job.getFailed().get());
+        } catch (Exception e) {
+            log.error("Bulk import {} failed: {}", job.getJobId(), e.getMessage(), e);
+            job.setMessage(e.getMessage());
+            job.setState(ImportJobProgress.JobState.FAILED);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    // Stage 1: platform and identifier of every URL (CPU only, so spread over the common pool)
+    private List<ParsedUrl> parse(ImportJobProgress job, List<ImportLine> lines) {
+        return lines.parallelStream()
+                .map(line -> {
+                    if (line.url().length() > MAX_URL_LENGTH) {
+                        job.addError(line.number(), line.url(), ImportJobProgress.Stage.PARSE,
+                                "URL longer than " + MAX_URL_LENGTH + " characters");
+                        return null;
+                    }
+                    try {
+                        ContentIdentifierDTO identifier = urlParser.parseUrl(line.url());
+                        job.getParsed().incrementAndGet();
+                        return new ParsedUrl(line, identifier);
+                    } catch (Exception e) {
+                        job.addError(line.number(), line.url(), ImportJobProgress.Stage.PARSE, e.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Stage 2: first occurrence of each (platform, identifier) that isn't stored yet. Only saves work: content
+    // stored by a concurrent import meanwhile is caught by the unique index in stage 3
+    private List<ParsedUrl> dedupe(ImportJobProgress job, List<ParsedUrl> parsed) {
+        Map<String, ParsedUrl> unique = new LinkedHashMap<>();
+        for (ParsedUrl url : parsed) {
+            ParsedUrl first = unique.putIfAbsent(url.key(), url);
+            if (first != null) {
+                job.addError(url.line().number(), url.line().url(), ImportJobProgress.Stage.DEDUPE,
+                        "Same content as line " + first.line().number());
+            }
+        }
+
+        List<ParsedUrl> fresh = new ArrayList<>();
+        for (Map.Entry<Platform, List<ParsedUrl>> group : groupByPlatform(unique.values()).entrySet()) {
+            Map<String, StoredContent> stored = lookupIds(group.getKey(), group.getValue());
+            for (ParsedUrl url : group.getValue()) {
+                StoredContent existing = stored.get(url.identifier().getContentIdentifier());
+                if (existing != null) {
+                    job.addError(url.line().number(), url.line().url(), ImportJobProgress.Stage.DEDUPE,
+                            "Already stored as content " + existing.id());
+                } else {
+                    fresh.add(url);
+                }
+            }
+        }
+        return fresh;
+    }
+
+    // Stage 3: batched inserts that skip content already stored, then one lookup per chunk for the ids. Rows of
+    // this chunk carry its own import token, which tells them apart from rows another import stored first
+    private List<ParsedUrl> insert(ImportJobProgress job, List<ParsedUrl> fresh) {
+        List<ParsedUrl> inserted = new ArrayList<>();
+        for (List<ParsedUrl> chunk : chunks(fresh, insertChunkSize)) {
+            String importToken = UUID.randomUUID().toString();
+            LocalDateTime insertedAt = LocalDateTime.now();
+            try {
+                contentRepository.batchInsertContent(chunk.stream()
+                        .map(url -> toContent(url, insertedAt, importToken)).toList());
+
+                for (Map.Entry<Platform, List<ParsedUrl>> group : groupByPlatform(chunk).entrySet()) {
+                    Map<String, StoredContent> stored = lookupIds(group.getKey(), group.getValue());
+                    for (ParsedUrl url : group.getValue()) {
+                        StoredContent row = stored.get(url.identifier().getContentIdentifier());
+                        if (row == null) {
+                            job.addError(url.line().number(), url.line().url(), ImportJobProgress.Stage.INSERT,
+                                    "Row not found after insert");
+                        } else if (!importToken.equals(row.importToken())) {
+                            job.addError(url.line().number(), url.line().url(), ImportJobProgress.Stage.DEDUPE,
+                                    "Already stored as content " + row.id());
+                        } else {
+                            url.setContentId(row.id());
+                            inserted.add(url);
+                            job.getInserted().incrementAndGet();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Bulk import {}: insert of {} rows failed: {}", job.getJobId(), chunk.size(), e.getMessage());
+                chunk.forEach(url -> job.addError(url.line().number(), url.line().url(),
+                        ImportJobProgress.Stage.INSERT, e.getMessage()));
+            }
+        }
+        return inserted;
+    }
+
+    // Stage 4: first metrics per platform in batch calls; samples go to MongoDB, counters in one batched UPDATE
+    private void fetchMetrics(ImportJobProgress job, List<ParsedUrl> inserted) {
+        for (Map.Entry<Platform, List<ParsedUrl>> group : groupByPlatform(inserted).entrySet()) {
+            Platform platform = group.getKey();
+
+            for (List<ParsedUrl> chunk : chunks(group.getValue(), fetchChunkSize)) {
+                Map<String, PlatformMetricsDTO> fetched;
+                try {
+                    fetched = platformManager.getContentMetricsBatch(platform, chunk.stream()
+                            .map(url -> url.identifier().getContentIdentifier())
+                            .toList());
+                } catch (Exception e) {
+                    fetched = Map.of();
+                    log.warn("Bulk import {}: metrics batch for {} failed: {}", job.getJobId(), platform, e.getMessage());
+                }
+
+                List<ContentCounterUpdate> counters = new ArrayList<>();
+                for (ParsedUrl url : chunk) {
+                    PlatformMetricsDTO metrics = fetched.get(url.identifier().getContentIdentifier());
+                    if (metrics == null || url.getContentId() == null) {
+                        job.addError(url.line().number(), url.line().url(), ImportJobProgress.Stage.METRICS,
+                                "No metrics returned; the next sync cycle will retry");
+                        continue;
+                    }
+                    try {
+                        metricsService.recordSample(url.getContentId(), metrics);
+                        counters.add(toCounters(url, metrics));
+                        job.getMetricsFetched().incrementAndGet();
+                    } catch (Exception e) {
+                        job.addError(url.line().number(), url.line().url(), ImportJobProgress.Stage.METRICS, e.getMessage());
+                    }
+                }
+                contentRepository.batchUpdateCounters(counters);
+            }
+        }
+    }
+
+
+    // HELPER methods
+
+    private List<ImportLine> readLines(InputStream input, ImportJobProgress job) {
+        List<ImportLine> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String text;
+            int number = 0;
+            while ((text = reader.readLine()) != null) {
+                number++;
+                text = text.strip();
+                if (text.isEmpty() || text.startsWith("#")) continue;
+
+                if (lines.size() + job.getErrorCount() >= maxUrls) {
+                    throw new PlatformOperationException("Import is limited to " + maxUrls + " URLs");
+                }
+                if (!text.startsWith("{")) {
+                    lines.add(new ImportLine(number, text, null));
+                    continue;
+                }
+
+                // NDJSON line
+                try {
+                    JsonNode node = objectMapper.readTree(text);
+                    String url = node.path("url").asText("").strip();
+                    if (url.isEmpty()) {
+                        job.addError(number, text, ImportJobProgress.Stage.READ, "Missing \"url\"");
+                    } else {
+                        lines.add(new ImportLine(number, url, node.hasNonNull("title") ? node.get("title").asText() : null));
+                    }
+                } catch (IOException e) {
+                    job.addError(number, text, ImportJobProgress.Stage.READ, "Invalid JSON: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new PlatformOperationException("Could not read import: " + e.getMessage());
+        }
+        return lines;
+    }
+
+    private Content toContent(ParsedUrl url, LocalDateTime insertedAt, String importToken) {
+        Platform platform = url.identifier().getPlatform();
+        String title = url.line().title() != null && !url.line().title().isBlank()
+                ? url.line().title()
+                : "Content from " + platform;
+
+        Content content = new Content();
+        content.setTitle(title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title);
+        content.setPlatform(platform);
+        content.setContentIdentifier(url.identifier().getContentIdentifier());
+        content.setContentUrl(url.identifier().getContentUrl());
+        content.setSourceType(Content.SourceType.URL_IMPORT);
+        content.setCreatedAt(insertedAt);
+        content.setUpdatedAt(insertedAt);
+        content.setImportToken(importToken);
+        return content;
+    }
+
+    // First sync just happened, so the next one is due after the platform's floor interval
+    private ContentCounterUpdate toCounters(ParsedUrl url, PlatformMetricsDTO metrics) {
+        LocalDateTime now = LocalDateTime.now();
+        long interval = intervalPolicy.nextIntervalSeconds(url.identifier().getPlatform(), null, true, now);
+        return new ContentCounterUpdate(url.getContentId(),
+                valueOrZero(metrics.getViews()), valueOrZero(metrics.getLikes()),
+                valueOrZero(metrics.getComments()), valueOrZero(metrics.getShares()),
+                now, now.plusSeconds(interval), interval);
+    }
+
+    // Stored content by platform-side identifier (one row each, the identifier is unique per platform)
+    private Map<String, StoredContent> lookupIds(Platform platform, List<ParsedUrl> urls) {
+        Map<String, StoredContent> ids = new HashMap<>();
+        for (List<ParsedUrl> chunk : chunks(urls, LOOKUP_CHUNK_SIZE)) {
+            List<String> identifiers = chunk.stream().map(url -> url.identifier().getContentIdentifier()).toList();
+            for (Object[] row : contentRepository.findIdsByIdentifiers(platform, identifiers)) {
+                ids.put((String) row[0], new StoredContent((Long) row[1], (String) row[2]));
+            }
+        }
+        return ids;
+    }
+
+    private Map<Platform, List<ParsedUrl>> groupByPlatform(Collection<ParsedUrl> urls) {
+        return urls.stream().collect(Collectors.groupingBy(
+                url -> url.identifier().getPlatform(), () -> new EnumMap<>(Platform.class), Collectors.toList()));
+    }
+
+    private <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+
+    private long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private record ImportLine(int number, String url, String title) {
+    }
+
+    private record StoredContent(Long id, String importToken) {
+    }
+
+    // A parsed URL moving through the pipeline; the content id is known once inserted
+    private static class ParsedUrl {
+        private final ImportLine line;
+        private final ContentIdentifierDTO identifier;
+        private Long contentId;
+
+        ParsedUrl(ImportLine line, ContentIdentifierDTO identifier) {
+            this.line = line;
+            this.identifier = identifier;
+        }
+
+        ImportLine line() {
+            return line;
+        }
+
+        ContentIdentifierDTO identifier() {
+            return identifier;
+        }
+
+        String key() {
+            return identifier.getPlatform() + ":" + identifier.getContentIdentifier();
+        }
+
+        Long getContentId() {
+            return contentId;
+        }
+
+        void setContentId(Long contentId) {
+            this.contentId = contentId;
+        }
+    }
+}
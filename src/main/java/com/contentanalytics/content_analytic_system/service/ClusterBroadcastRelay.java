@@ -0,0 +1,136 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.entity.ClusterBroadcast;
+import com.contentanalytics.content_analytic_system.repository.sql.IClusterBroadcastRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+@Slf4j
+@Service
+// Real-time updates are computed on the node holding their lease, but clients are connected to every node.
+// The holder sends an update to its own clients and stores it in cluster_broadcasts; every other node polls
+// the table and sends it on to its clients, so the simple broker of each node sees every update
+public class ClusterBroadcastRelay {
+
+    private final IClusterBroadcastRepository broadcastRepository;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClusterLeaseService leaseService;
+    private final long retentionMinutes;
+    private final long gapGraceMs;
+
+    // Every id up to the cursor has been relayed (or given up on); relayed ids past it wait in relayedAhead
+    private long cursor = -1;
+    private final TreeSet<Long> relayedAhead = new TreeSet<>();
+    private long gapSince;
+
+    public ClusterBroadcastRelay(IClusterBroadcastRepository broadcastRepository,
+                                 SimpMessageSendingOperations messagingTemplate,
+                                 ObjectMapper objectMapper,
+                                 ClusterLeaseService leaseService,
+                                 @Value("${cluster.broadcast.retention-minutes:5}") long retentionMinutes,
+                                 @Value("${cluster.broadcast.gap-grace-ms:5000}") long gapGraceMs) {
+        this.broadcastRepository = broadcastRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.leaseService = leaseService;
+        this.retentionMinutes = retentionMinutes;
+        this.gapGraceMs = gapGraceMs;
+    }
+
+    // Sends to this node's clients right away and stores the updates for the other nodes
+    public void publish(List<Broadcast> broadcasts) {
+        if (broadcasts.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ClusterBroadcast> rows = new ArrayList<>(broadcasts.size());
+        for (Broadcast broadcast : broadcasts) {
+            messagingTemplate.convertAndSend(broadcast.destination(), broadcast.payload());
+            try {
+                ClusterBroadcast row = new ClusterBroadcast();
+                row.setOriginNode(leaseService.getNodeId());
+                row.setDestination(broadcast.destination());
+                row.setPayload(objectMapper.writeValueAsString(broadcast.payload()));
+                row.setCreatedAt(now);
+                rows.add(row);
+            } catch (Exception e) {
+                log.warn("Failed to serialize broadcast to {}: {}", broadcast.destination(), e.getMessage());
+            }
+        }
+
+        try {
+            broadcastRepository.saveAll(rows);
+        } catch (Exception e) {
+            // Other nodes' clients miss this round; the next change is sent again
+            log.warn("Failed to relay {} broadcasts to the other nodes: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    // Sends the updates stored by other nodes to this node's clients, in id order
+    @Scheduled(fixedDelayString = "${cluster.broadcast.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        try {
+            if (cursor < 0) {
+                // Starting from what gets published from now on
+                cursor = broadcastRepository.findMaxId();
+                return;
+            }
+
+            for (ClusterBroadcast row : broadcastRepository.findTop500ByIdGreaterThanOrderByIdAsc(cursor)) {
+                if (!relayedAhead.add(row.getId())) continue;
+                if (!leaseService.getNodeId().equals(row.getOriginNode())) {
+                    messagingTemplate.convertAndSend(row.getDestination(),
+                            objectMapper.readValue(row.getPayload(), Object.class));
+                }
+            }
+            advanceCursor();
+        } catch (Exception e) {
+            log.warn("Failed to relay broadcasts of other nodes: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.broadcast.purge-interval-ms:60000}")
+    public void purge() {
+        try {
+            broadcastRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes));
+        } catch (Exception e) {
+            log.warn("Failed to purge relayed broadcasts: {}", e.getMessage());
+        }
+    }
+
+
+    // HELPER methods
+
+    // Ids are assigned on insert but may commit out of order, so a missing id below a relayed one is waited for.
+    // After the grace period it is given up on (a rolled back insert leaves such a gap for good)
+    private void advanceCursor() {
+        while (!relayedAhead.isEmpty()) {
+            if (relayedAhead.first() == cursor + 1) {
+                cursor = relayedAhead.pollFirst();
+                gapSince = 0;
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            if (gapSince == 0) {
+                gapSince = now;
+                return;
+            }
+            if (now - gapSince < gapGraceMs) return;
+            cursor = relayedAhead.first() - 1;
+            gapSince = 0;
+        }
+    }
+
+    // One message for a STOMP destination
+    public record Broadcast(String destination, Object payload) {
+    }
+}
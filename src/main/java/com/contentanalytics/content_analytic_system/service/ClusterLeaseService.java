@@ -0,0 +1,186 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.entity.SchedulerLease;
+import com.contentanalytics.content_analytic_system.repository.sql.ISchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+// MySQL-backed leases so each scheduled job runs on exactly one node of the cluster
+// A node keeps a lease it holds by renewing it, so the same node stays in charge between runs
+public class ClusterLeaseService {
+
+    public static final String METRICS_SYNC = "metrics-sync";
+    public static final String PLATFORM_ANALYTICS_UPDATES = "platform-analytics-updates";
+    public static final String CONTENT_ANALYTICS_UPDATES = "content-analytics-updates";
+
+    private final ISchedulerLeaseRepository leaseRepository;
+    private final String nodeId;
+    private final long ttlMs;
+
+    private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+    // Local deadline of each held lease; counted from before the renewing statement, so it never outlives the row
+    private final Map<String, Long> validUntil = new ConcurrentHashMap<>();
+    private final Set<String> knownLeases = ConcurrentHashMap.newKeySet();
+
+    public ClusterLeaseService(ISchedulerLeaseRepository leaseRepository,
+                               @Value("${app.node-id:}") String nodeId,
+                               @Value("${cluster.lease.ttl-ms:30000}") long ttlMs) {
+        this.leaseRepository = leaseRepository;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.ttlMs = ttlMs;
+        log.info("Cluster node id: {}", this.nodeId);
+    }
+
+    // Renews the lease if this node holds it, otherwise tries to take it over; empty if another node holds it
+    public Optional<Lease> tryAcquire(String name) {
+        Lease held = heldLeases.get(name);
+        if (held != null) {
+            if (renew(held)) {
+                return Optional.of(held);
+            }
+            drop(held);
+        }
+
+        ensureLeaseRow(name);
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.takeOver(name, nodeId, now, now.plus(Duration.ofMillis(ttlMs))) != 1) {
+            return Optional.empty();
+        }
+
+        long token = leaseRepository.findById(name)
+                .map(SchedulerLease::getFencingToken)
+                .orElseThrow();
+        Lease lease = new Lease(name, nodeId, token);
+        heldLeases.put(name, lease);
+        validUntil.put(name, started + ttlMs);
+        log.info("Node {} acquired lease {} (fencing token {})", nodeId, name, token);
+        return Optional.of(lease);
+    }
+
+    // False once the lease was lost or could not be renewed in time; long-running jobs check this as they go
+    public boolean isHeld(Lease lease) {
+        return lease.equals(heldLeases.get(lease.name()))
+                && System.currentTimeMillis() < validUntil.getOrDefault(lease.name(), 0L);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.lease.renew-interval-ms:10000}",
+            initialDelayString = "${cluster.lease.renew-interval-ms:10000}")
+    public void renewHeldLeases() {
+        for (Lease lease : new ArrayList<>(heldLeases.values())) {
+            if (!renew(lease) && !isHeld(lease)) {
+                drop(lease);
+            }
+        }
+    }
+
+    // Every lease with its owner
+    public List<Map<String, Object>> getStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (SchedulerLease lease : leaseRepository.findAll()) {
+            Map<String, Object> leaseStatus = new LinkedHashMap<>();
+            leaseStatus.put("name", lease.getName());
+            leaseStatus.put("ownerNode", lease.getOwnerNode());
+            leaseStatus.put("fencingToken", lease.getFencingToken());
+            leaseStatus.put("expiresAt", lease.getExpiresAt());
+            leaseStatus.put("renewedAt", lease.getRenewedAt());
+            leaseStatus.put("heldByThisNode", heldLeases.containsKey(lease.getName()));
+            status.add(leaseStatus);
+        }
+        return status;
+    }
+
+    // Handing the leases back on shutdown so another node can take over on its next run
+    @PreDestroy
+    public void releaseAll() {
+        for (Lease lease : new ArrayList<>(heldLeases.values())) {
+            try {
+                leaseRepository.release(lease.name(), nodeId, lease.fencingToken(), LocalDateTime.now());
+                log.info("Node {} released lease {}", nodeId, lease.name());
+            } catch (Exception e) {
+                log.warn("Failed to release lease {}: {}", lease.name(), e.getMessage());
+            }
+            drop(lease);
+        }
+    }
+
+
+    // HELPER methods
+
+    private boolean renew(Lease lease) {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (leaseRepository.renew(lease.name(), nodeId, lease.fencingToken(),
+                    now, now.plus(Duration.ofMillis(ttlMs))) == 1) {
+                validUntil.put(lease.name(), started + ttlMs);
+                return true;
+            }
+            // Someone else holds it now
+            drop(lease);
+            return false;
+        } catch (Exception e) {
+            // The lease stays usable until its local deadline; the next renewal may still get through
+            log.warn("Failed to renew lease {}: {}", lease.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void drop(Lease lease) {
+        if (heldLeases.remove(lease.name(), lease)) {
+            validUntil.remove(lease.name());
+            log.warn("Node {} no longer holds lease {}", nodeId, lease.name());
+        }
+    }
+
+    private void ensureLeaseRow(String name) {
+        if (knownLeases.contains(name)) return;
+
+        if (!leaseRepository.existsById(name)) {
+            SchedulerLease lease = new SchedulerLease();
+            lease.setName(name);
+            lease.setExpiresAt(LocalDateTime.now());
+            try {
+                leaseRepository.save(lease);
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+        knownLeases.add(name);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    // A lease as held by this node
+    public record Lease(String name, String nodeId, long fencingToken) {
+    }
+}
@@ -3,28 +3,96 @@ package com.contentanalytics.content_analytic_system.service;
 import com.contentanalytics.content_analytic_system.exception.ContentNotFoundException;
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
 import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsBucket;
+import com.contentanalytics.content_analytic_system.model.mongo.HourlyContentMetrics;
 import com.contentanalytics.content_analytic_system.repository.mongo.IContentMetricsRepository;
 import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class ContentMetricsService {
 
+    // Sample fields a history page can return besides timestamp, with the stored fields they're read from
+    // (short names first, then the older map-based layout)
+    private static final Map<String, List<String>> HISTORY_FIELDS = historyFields();
+    private static final List<String> DEFAULT_HISTORY_FIELDS = ContentMetrics.COUNTERS;
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final IContentRepository contentRepository;
     private final IContentMetricsRepository metricsRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MetricsWriteBuffer writeBuffer;
+    private final MetricsCollectionMigrator collectionMigrator;
+    private final MetricsRollupService rollupService;
+    private final MetricsBucketStore bucketStore;
+    private final MetricsArchiveService archiveService;
+    private final boolean storeDeltas;
+    private final int writeCacheSize;
+
+    // Counters of the last stored sample per content (bounded, least recently used entries evicted)
+    private final Map<Long, PersistedCounters> lastPersisted;
 
     public ContentMetricsService(IContentMetricsRepository metricsRepository,
-                                 IContentRepository contentRepository) {
+                                 IContentRepository contentRepository,
+                                 MongoTemplate mongoTemplate,
+                                 MetricsWriteBuffer writeBuffer,
+                                 MetricsCollectionMigrator collectionMigrator,
+                                 MetricsRollupService rollupService,
+                                 MetricsBucketStore bucketStore,
+                                 MetricsArchiveService archiveService,
+                                 @Value("${metrics.store-deltas:false}") boolean storeDeltas,
+                                 @Value("${metrics.write-cache-size:100000}") int writeCacheSize) {
 
         this.metricsRepository = metricsRepository;
         this.contentRepository = contentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.writeBuffer = writeBuffer;
+        this.collectionMigrator = collectionMigrator;
+        this.rollupService = rollupService;
+        this.bucketStore = bucketStore;
+        this.archiveService = archiveService;
+        this.storeDeltas = storeDeltas;
+        this.writeCacheSize = writeCacheSize;
+        this.lastPersisted = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PersistedCounters> eldest) {
+                return size() > ContentMetricsService.this.writeCacheSize;
+            }
+        });
 
     }
 
@@ -33,15 +101,8 @@ public class ContentMetricsService {
     public ContentMetrics saveMetrics(Long contentId, PlatformMetricsDTO metricsDTO) {
         log.info("Saving metrics for content {}", contentId);
         try {
-            // Creating MongoDB document
-            ContentMetrics metrics = new ContentMetrics();
-            metrics.setContentId(contentId);
-            metrics.setMetrics(createMetricsMap(metricsDTO));
-            metrics.setPlatformData(metricsDTO.getAdditionalMetrics());
-            metrics.setTimestamp(LocalDateTime.now());
-
-            // Saving to MongoDB
-            ContentMetrics savedMetrics = metricsRepository.save(metrics);
+            // Saving to MongoDB (unchanged counters only touch the last sample)
+            ContentMetrics savedMetrics = writeSample(contentId, metricsDTO);
 
             // Update basic MySQL metrics
             updateMySQLMetrics(contentId, metricsDTO);
@@ -53,24 +114,23 @@ public class ContentMetricsService {
         }
     }
 
+    // Storing the sample in MongoDB only, for callers that save the content row themselves
+    public ContentMetrics recordSample(Long contentId, PlatformMetricsDTO metricsDTO) {
+        try {
+            return writeSample(contentId, metricsDTO);
+        } catch (Exception e) {
+            log.error("Error recording metrics for content {}", contentId, e);
+            throw new PlatformOperationException("Failed to record metrics");
+        }
+    }
+
     // Update metrics
     public ContentMetrics updateMetrics(Long contentId, PlatformMetricsDTO metricsDTO) {
 
         log.info("Updating metrics for content {}", contentId);
         try{
-            // To find existing metrics
-            ContentMetrics existingMetrics = metricsRepository
-                    .findTopByContentIdOrderByTimestampDesc(contentId)
-                    .orElse(new ContentMetrics());
-
-            // Updating..
-            existingMetrics.setContentId(contentId);
-            existingMetrics.setMetrics(createMetricsMap(metricsDTO));
-            existingMetrics.setPlatformData(metricsDTO.getAdditionalMetrics());
-            existingMetrics.setTimestamp(LocalDateTime.now());
-
-            //Saving.. MongoDB
-            ContentMetrics updatedMetrics = metricsRepository.save(existingMetrics);
+            // Storing a new sample only if the counters moved
+            ContentMetrics updatedMetrics = writeSample(contentId, metricsDTO);
 
             //Updating.. MySQL
             updateMySQLMetrics(contentId, metricsDTO);
@@ -89,21 +149,33 @@ public class ContentMetricsService {
         log.info("Updating metrics for content {} using Map", contentId);
 
         try{
+            // The content's platform goes on the sample and its rollups
+            Optional<Content> content = contentRepository.findById(contentId);
+            Platform platform = content.map(Content::getPlatform).orElse(null);
+
             // finding existing metrics
-            ContentMetrics existingMetrics = metricsRepository
-                    .findTopByContentIdOrderByTimestampDesc(contentId)
-                    .orElse(new ContentMetrics());
+            ContentMetrics existingMetrics = findLatestMetrics(contentId).orElse(new ContentMetrics());
+
+            Map<String, Long> previousCounters = existingMetrics.getId() != null ? existingMetrics.getMetrics() : null;
 
-            // Updating..
+            // Updating.. (time-series samples and bucketed ones can't be replaced, so that becomes a new sample)
+            if (collectionMigrator.isTimeSeries() || bucketStore.isActive()) {
+                existingMetrics.setId(null);
+            }
             existingMetrics.setContentId(contentId);
+            existingMetrics.setPlatform(platform);
             existingMetrics.setMetrics(metricsMap);
             existingMetrics.setTimestamp(LocalDateTime.now());
 
             //Saving.. MongoDB
-            ContentMetrics updatedMetrics = metricsRepository.save(existingMetrics);
+            ContentMetrics updatedMetrics = bucketStore.isActive()
+                    ? bucketStore.append(existingMetrics)
+                    : metricsRepository.save(existingMetrics);
+            lastPersisted.put(contentId, new PersistedCounters(updatedMetrics.getId(), new HashMap<>(metricsMap)));
+            rollupService.record(updatedMetrics, platform, previousCounters);
 
             //updating mysql content entity
-            updateContentEntity(contentId, metricsMap);
+            content.ifPresent(stored -> updateContentEntity(stored, metricsMap));
 
             return updatedMetrics;
 
@@ -116,18 +188,207 @@ public class ContentMetricsService {
 
     // HELPER methods
 
+    // Inserts a sample when the counters changed since the last stored one; otherwise only bumps its lastCheckedAt
+    // (time-series samples can't be updated in place; there the check is only recorded in MySQL's last_synced_at)
+    private ContentMetrics writeSample(Long contentId, PlatformMetricsDTO metricsDTO) {
+        Map<String, Long> counters = createMetricsMap(metricsDTO);
+        LocalDateTime now = LocalDateTime.now();
+        PersistedCounters previous = lastPersistedCounters(contentId);
+
+        if (previous != null && previous.counters().equals(counters)) {
+            // Still waiting in the write buffer: touching it there
+            ContentMetrics buffered = writeBuffer.touchPending(previous.documentId(), now);
+            if (buffered != null) {
+                return buffered;
+            }
+
+            if (bucketStore.isActive()) {
+                ContentMetrics touched = bucketStore.touchLatest(contentId, now);
+                if (touched != null) {
+                    return touched;
+                }
+            } else if (collectionMigrator.isTimeSeries()) {
+                Optional<ContentMetrics> latest = latestStored(contentId);
+                if (latest.isPresent()) {
+                    return latest.get();
+                }
+            } else {
+                ContentMetrics touched = mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(previous.documentId())),
+                        new Update().set("lastCheckedAt", now),
+                        FindAndModifyOptions.options().returnNew(true),
+                        ContentMetrics.class);
+                if (touched != null) {
+                    log.debug("Metrics unchanged for content {}, touched sample {}", contentId, previous.documentId());
+                    return touched;
+                }
+            }
+            // The sample is gone (metrics deleted meanwhile), storing a fresh one
+        }
+
+        ContentMetrics metrics = new ContentMetrics();
+        metrics.setContentId(contentId);
+        metrics.setPlatform(metricsDTO.getPlatform());
+        metrics.setMetrics(counters);
+        metrics.setPlatformData(metricsDTO.getAdditionalMetrics());
+        metrics.setTimestamp(now);
+        metrics.setLastCheckedAt(now);
+        if (storeDeltas && previous != null) {
+            metrics.setDeltas(deltasOf(previous.counters(), counters));
+        }
+
+        // Inserted with the next bulk write (the id is assigned right away)
+        ContentMetrics savedMetrics = writeBuffer.add(metrics);
+        lastPersisted.put(contentId, new PersistedCounters(savedMetrics.getId(), new HashMap<>(counters)));
+        rollupService.record(savedMetrics, metricsDTO.getPlatform(), previous != null ? previous.counters() : null);
+        return savedMetrics;
+    }
+
+    // From the cache, or the latest stored sample on a miss
+    private PersistedCounters lastPersistedCounters(Long contentId) {
+        PersistedCounters cached = lastPersisted.get(contentId);
+        if (cached != null) return cached;
+
+        return findLatestMetrics(contentId)
+                .map(latest -> {
+                    PersistedCounters persisted = new PersistedCounters(latest.getId(), new HashMap<>(latest.getMetrics()));
+                    lastPersisted.put(contentId, persisted);
+                    return persisted;
+                })
+                .orElse(null);
+    }
+
+    // Latest sample of the samples collection (or of the legacy one, while the time-series copy is running)
+    private Optional<ContentMetrics> latestStored(Long contentId) {
+        Optional<ContentMetrics> latest = metricsRepository.findTopByContentIdOrderByTimestampDesc(contentId);
+        if (!collectionMigrator.isCopyPending()) return latest;
+
+        ContentMetrics legacy = mongoTemplate.findOne(Query.query(Criteria.where("contentId").is(contentId))
+                        .with(Sort.by(Sort.Direction.DESC, "timestamp")),
+                ContentMetrics.class, collectionMigrator.getLegacyCollectionName());
+        if (legacy == null || latest.isPresent() && !legacy.getTimestamp().isAfter(latest.get().getTimestamp())) {
+            return latest;
+        }
+        return Optional.of(legacy);
+    }
+
+    // While the time-series copy is running, samples not copied yet are only in the legacy collection. Copied ones
+    // keep their _id, so the results of the query on both are merged by id, in timestamp order
+    private List<ContentMetrics> withLegacy(List<ContentMetrics> stored, Query query) {
+        if (!collectionMigrator.isCopyPending()) return stored;
+
+        Set<String> ids = new HashSet<>();
+        stored.forEach(sample -> ids.add(sample.getId()));
+        List<ContentMetrics> merged = new ArrayList<>(stored);
+        for (ContentMetrics sample : mongoTemplate.find(query, ContentMetrics.class,
+                collectionMigrator.getLegacyCollectionName())) {
+            if (ids.add(sample.getId())) {
+                merged.add(sample);
+            }
+        }
+        merged.sort(Comparator.comparing(ContentMetrics::getTimestamp));
+        return merged;
+    }
+
+    // Stored samples not already archived (time-series samples can outlive their archiving for a while)
+    private List<ContentMetrics> afterArchive(Long contentId, List<ContentMetrics> archived, List<ContentMetrics> stored) {
+        if (stored.isEmpty()) return stored;
+        Optional<LocalDateTime> archivedUntil = archived.isEmpty()
+                ? archiveService.archivedUntil(contentId)
+                : Optional.of(archived.get(archived.size() - 1).getTimestamp());
+        if (archivedUntil.isEmpty()) return stored;
+        return stored.stream().filter(sample -> sample.getTimestamp().isAfter(archivedUntil.get())).toList();
+    }
+
+    private long longOf(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private Date earliest(Date a, Date b) {
+        return a.before(b) ? a : b;
+    }
+
+    private Date latest(Date a, Date b) {
+        return a.after(b) ? a : b;
+    }
+
+    private Map<String, Object> historyRow(ContentMetrics sample, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("timestamp", sample.getTimestamp());
+        for (String field : fields) {
+            switch (field) {
+                case "lastCheckedAt" -> row.put(field, sample.getLastCheckedAt());
+                case "platformData" -> row.put(field, sample.getPlatformData());
+                default -> row.put(field, sample.getCounter(field));
+            }
+        }
+        return row;
+    }
+
+    // <epoch millis>:<ids returned at that millisecond, comma separated>; a bare timestamp (as handed out before
+    // the ids were added) still means everything up to and including that millisecond was returned
+    private PageCursor parseCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        try {
+            long millis = Long.parseLong(separator < 0 ? cursor : cursor.substring(0, separator));
+            Set<String> returnedIds = new LinkedHashSet<>();
+            if (separator >= 0) {
+                for (String id : cursor.substring(separator + 1).split(",")) {
+                    if (!id.isEmpty()) returnedIds.add(id);
+                }
+                if (returnedIds.isEmpty()) throw new NumberFormatException();
+            }
+            return new PageCursor(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()),
+                    returnedIds);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + cursor + "'");
+        }
+    }
+
+    // Ids of the page's samples at its last timestamp, plus those of earlier pages when they ended on the same one
+    private String nextCursor(List<ContentMetrics> page, PageCursor position) {
+        LocalDateTime last = page.get(page.size() - 1).getTimestamp();
+        Set<String> returnedIds = new LinkedHashSet<>();
+        if (last.equals(position.timestamp())) {
+            returnedIds.addAll(position.returnedIds());
+        }
+        page.stream().filter(sample -> sample.getTimestamp().equals(last))
+                .forEach(sample -> returnedIds.add(sample.getId()));
+        return last.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + ":" + String.join(",", returnedIds);
+    }
+
+    private static Map<String, List<String>> historyFields() {
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        fields.put("views", List.of("v", "metrics.views"));
+        fields.put("likes", List.of("l", "metrics.likes"));
+        fields.put("comments", List.of("c", "metrics.comments"));
+        fields.put("shares", List.of("s", "metrics.shares"));
+        fields.put("lastCheckedAt", List.of("lastCheckedAt"));
+        fields.put("platformData", List.of("pd", "platformData"));
+        return Collections.unmodifiableMap(fields);
+    }
+
+    private Map<String, Long> deltasOf(Map<String, Long> previous, Map<String, Long> current) {
+        Map<String, Long> deltas = new HashMap<>();
+        current.forEach((key, value) -> deltas.put(key, valueOrZero(value) - valueOrZero(previous.get(key))));
+        return deltas;
+    }
+
+    private long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
 
     // Update content entity from a map
-    private void updateContentEntity (Long contentId, Map<String, Long> metrics) {
-
-        contentRepository.findById(contentId).ifPresent(content -> {
-            if(metrics.containsKey("views")) content.setViews(metrics.get("views"));
-            if(metrics.containsKey("likes")) content.setLikes(metrics.get("likes"));
-            if(metrics.containsKey("comments")) content.setComments(metrics.get("comments"));
-            if(metrics.containsKey("shares")) content.setShares(metrics.get("shares"));
-            content.setLastSyncedAt(LocalDateTime.now());
-            contentRepository.save(content);
-        });
+    private void updateContentEntity (Content content, Map<String, Long> metrics) {
+
+        if(metrics.containsKey("views")) content.setViews(metrics.get("views"));
+        if(metrics.containsKey("likes")) content.setLikes(metrics.get("likes"));
+        if(metrics.containsKey("comments")) content.setComments(metrics.get("comments"));
+        if(metrics.containsKey("shares")) content.setShares(metrics.get("shares"));
+        content.setLastSyncedAt(LocalDateTime.now());
+        contentRepository.save(content);
     }
 
     //To create metrics map
@@ -140,32 +401,211 @@ public class ContentMetricsService {
         return metrics;
     }
 
-    // To update MySQL metrics
+    // To update MySQL metrics (single UPDATE, no read first)
     private void updateMySQLMetrics(Long contentId, PlatformMetricsDTO metricsDTO) {
-        contentRepository.findById(contentId).ifPresent(content -> {
-            content.setViews(metricsDTO.getViews());
-            content.setLikes(metricsDTO.getLikes());
-            content.setComments(metricsDTO.getComments());
-            content.setShares(metricsDTO.getShares());
-            content.setLastSyncedAt(LocalDateTime.now());
-            contentRepository.save(content);
-        });
+        contentRepository.updateCounters(contentId, metricsDTO.getViews(), metricsDTO.getLikes(),
+                metricsDTO.getComments(), metricsDTO.getShares(), LocalDateTime.now());
     }
 
     //to get latest metrics
     public ContentMetrics getLatestMetrics(Long contentId) {
-        return metricsRepository
-                .findTopByContentIdOrderByTimestampDesc(contentId)
+        return findLatestMetrics(contentId)
                 .orElseThrow(() -> new ContentNotFoundException("No metrics found for content: " + contentId));
     }
 
+    // In bucket mode, samples stored before the switch stay readable from the samples collection; content
+    // without recent samples falls back to its archived history
+    public Optional<ContentMetrics> findLatestMetrics(Long contentId) {
+        if (bucketStore.isActive()) {
+            Optional<ContentMetrics> latest = bucketStore.findLatest(contentId);
+            if (latest.isPresent()) return latest;
+        }
+        Optional<ContentMetrics> latest = latestStored(contentId);
+        return latest.isPresent() ? latest : archiveService.findLatest(contentId);
+    }
+
+    // Newest samples first, at most limit of them
+    public List<ContentMetrics> getLatestMetrics(Long contentId, int limit) {
+        List<ContentMetrics> latest = new ArrayList<>();
+        if (bucketStore.isActive()) {
+            latest.addAll(bucketStore.findLatest(contentId, limit));
+        }
+        if (latest.size() < limit) {
+            Query query = Query.query(Criteria.where("contentId").is(contentId))
+                    .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                    .limit(limit - latest.size());
+            List<ContentMetrics> stored = new ArrayList<>(withLegacy(mongoTemplate.find(query, ContentMetrics.class), query));
+            stored.sort(Comparator.comparing(ContentMetrics::getTimestamp).reversed());
+            latest.addAll(stored.subList(0, Math.min(stored.size(), query.getLimit())));
+        }
+        return latest;
+    }
+
     // Delete metrics
     public void deleteMetrics(Long contentId) {
         metricsRepository.deleteByContentId(contentId);
+        if (collectionMigrator.isCopyPending()) {
+            // Or the copy brings them back
+            mongoTemplate.remove(Query.query(Criteria.where("contentId").is(contentId)),
+                    collectionMigrator.getLegacyCollectionName());
+        }
+        bucketStore.delete(contentId);
+        archiveService.delete(contentId);
+        lastPersisted.remove(contentId);
+        rollupService.deleteRollups(contentId);
     }
 
+    // Archived history first, then the stored samples after it
     public List<ContentMetrics> getMetrics(Long contentId) {
-        return metricsRepository.findByContentId(contentId);
+        List<ContentMetrics> metrics = new ArrayList<>(archiveService.find(contentId));
+        List<ContentMetrics> stored = new ArrayList<>(withLegacy(metricsRepository.findByContentId(contentId),
+                Query.query(Criteria.where("contentId").is(contentId))));
+        if (bucketStore.isActive()) {
+            stored.addAll(bucketStore.find(contentId));
+        }
+        metrics.addAll(afterArchive(contentId, metrics, stored));
+        return metrics;
+    }
+
+    public List<ContentMetrics> getMetrics(Long contentId, LocalDateTime from, LocalDateTime to) {
+        List<ContentMetrics> metrics = new ArrayList<>(archiveService.find(contentId, from, to));
+        List<ContentMetrics> stored = new ArrayList<>(withLegacy(
+                metricsRepository.findByContentIdAndTimestampBetween(contentId, from, to),
+                Query.query(Criteria.where("contentId").is(contentId).and("timestamp").gt(from).lt(to))));
+        if (bucketStore.isActive()) {
+            stored.addAll(bucketStore.find(contentId, from, to));
+        }
+        metrics.addAll(afterArchive(contentId, metrics, stored));
+        return metrics;
+    }
+
+
+    // Views per hour of every content with samples in the window, in one aggregation: views gained per the hourly
+    // rollups when they're on, else between the first and last sample of the window
+    public Map<Long, Double> getViewVelocities(Duration window) {
+        LocalDateTime since = LocalDateTime.now().minus(window);
+        Map<Long, Double> velocities = new HashMap<>();
+        if (rollupService.isEnabled()) {
+            double hours = window.toMillis() / 3_600_000.0;
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("bucketStart").gte(since)),
+                    Aggregation.group("contentId").sum("delta.views").as("views"));
+            mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(HourlyContentMetrics.class), Document.class)
+                    .forEach(result -> {
+                        long views = ((Number) result.get("views")).longValue();
+                        if (views > 0) velocities.put(((Number) result.get("_id")).longValue(), views / hours);
+                    });
+            return velocities;
+        }
+
+        GroupOperation range = Aggregation.group("contentId")
+                .min("timestamp").as("first").max("timestamp").as("last")
+                .min("views").as("minViews").max("views").as("maxViews");
+        List<Document> ranges = new ArrayList<>(mongoTemplate.aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(since)),
+                Aggregation.project("contentId", "timestamp")
+                        .and(ConditionalOperators.ifNull("v").thenValueOf("metrics.views")).as("views"),
+                range), mongoTemplate.getCollectionName(ContentMetrics.class), Document.class).getMappedResults());
+        if (bucketStore.isActive()) {
+            ranges.addAll(mongoTemplate.aggregate(Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("day").gte(since.truncatedTo(ChronoUnit.DAYS))),
+                    Aggregation.unwind("timestamps", "sample"),
+                    Aggregation.project("contentId")
+                            .and("timestamps").as("timestamp")
+                            .and(ArrayOperators.ArrayElemAt.arrayOf("views").elementAt("sample")).as("views"),
+                    Aggregation.match(Criteria.where("timestamp").gte(since)),
+                    range), mongoTemplate.getCollectionName(ContentMetricsBucket.class), Document.class).getMappedResults());
+        }
+
+        // A content can have samples in both collections around a switch of storage mode
+        Map<Long, Document> merged = new HashMap<>();
+        for (Document result : ranges) {
+            merged.merge(((Number) result.get("_id")).longValue(), result, (a, b) -> new Document()
+                    .append("first", earliest(a.getDate("first"), b.getDate("first")))
+                    .append("last", latest(a.getDate("last"), b.getDate("last")))
+                    .append("minViews", Math.min(longOf(a, "minViews"), longOf(b, "minViews")))
+                    .append("maxViews", Math.max(longOf(a, "maxViews"), longOf(b, "maxViews"))));
+        }
+        merged.forEach((contentId, result) -> {
+            double hours = (result.getDate("last").getTime() - result.getDate("first").getTime()) / 3_600_000.0;
+            long views = longOf(result, "maxViews") - longOf(result, "minViews");
+            if (hours > 0 && views > 0) velocities.put(contentId, views / hours);
+        });
+        return velocities;
+    }
+
+    // A page of a content's samples in timestamp order, each with timestamp and the requested fields only. Keyset
+    // pagination: the cursor is the timestamp (epoch millis) of the last sample of the previous page with the ids
+    // returned at it. Several samples can share a millisecond, so that millisecond is read again minus those ids
+    public MetricsPage getMetricsPage(Long contentId, LocalDateTime from, LocalDateTime to, List<String> fields,
+                                      String cursor, int limit) {
+        List<String> selected = fields == null || fields.isEmpty() ? DEFAULT_HISTORY_FIELDS
+                : fields.stream().map(String::trim).filter(field -> !field.isEmpty()).distinct().toList();
+        for (String field : selected) {
+            if (!HISTORY_FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "', expected one of "
+                        + HISTORY_FIELDS.keySet());
+            }
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        PageCursor position = cursor != null ? parseCursor(cursor)
+                : new PageCursor((from != null ? from : HISTORY_START).minusNanos(1), Set.of());
+        // Exclusive lower bound; stored timestamps have millisecond precision, so a nanosecond before a timestamp
+        // keeps the samples at it
+        LocalDateTime after = position.returnedIds().isEmpty() ? position.timestamp()
+                : position.timestamp().minusNanos(1);
+        // The samples already returned are read again, on top of the page and the one telling whether more follow
+        int fetch = limit + 1 + position.returnedIds().size();
+
+        // Up to the content's last archived sample the archive is the only source
+        List<ContentMetrics> samples = new ArrayList<>(fetch);
+        Optional<LocalDateTime> archivedUntil = archiveService.archivedUntil(contentId);
+        LocalDateTime storedAfter = after;
+        if (archivedUntil.isPresent() && archivedUntil.get().isAfter(after)) {
+            samples.addAll(archiveService.findAfter(contentId, after, end, fetch));
+            samples.removeIf(sample -> position.returnedIds().contains(sample.getId()));
+            storedAfter = archivedUntil.get();
+        }
+
+        if (samples.size() <= limit) {
+            // Served by the {contentId, timestamp} index, returning only the requested fields
+            Query query = Query.query(Criteria.where("contentId").is(contentId)
+                            .and("timestamp").gt(storedAfter).lte(end))
+                    .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+                    .limit(fetch - samples.size());
+            query.fields().include("contentId", "timestamp");
+            selected.forEach(field -> HISTORY_FIELDS.get(field).forEach(stored -> query.fields().include(stored)));
+            samples.addAll(withLegacy(mongoTemplate.find(query, ContentMetrics.class), query));
+
+            if (bucketStore.isActive()) {
+                samples.addAll(bucketStore.findAfter(contentId, storedAfter, end, fetch, selected));
+                samples.sort(Comparator.comparing(ContentMetrics::getTimestamp));
+            }
+            samples.removeIf(sample -> position.returnedIds().contains(sample.getId()));
+        }
+
+        boolean hasMore = samples.size() > limit;
+        List<ContentMetrics> page = hasMore ? samples.subList(0, limit) : samples;
+        List<Map<String, Object>> rows = new ArrayList<>(page.size());
+        for (ContentMetrics sample : page) {
+            rows.add(historyRow(sample, selected));
+        }
+        String nextCursor = hasMore ? nextCursor(page, position) : null;
+        return new MetricsPage(contentId, selected, rows, nextCursor);
+    }
+
+    // Keyset position of a metrics page: every sample before timestamp was returned, and at it those in returnedIds
+    // (none for the first page, whose timestamp is just before the range)
+    private record PageCursor(LocalDateTime timestamp, Set<String> returnedIds) {
+    }
+
+    // Id and counters of the last sample stored for a content
+    private record PersistedCounters(String documentId, Map<String, Long> counters) {
+    }
+
+    // nextCursor is null on the last page
+    public record MetricsPage(Long contentId, List<String> fields, List<Map<String, Object>> samples,
+                              String nextCursor) {
     }
 
 }
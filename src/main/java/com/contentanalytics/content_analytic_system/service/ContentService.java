@@ -2,19 +2,25 @@ package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.exception.ContentNotFoundException;
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
+import com.contentanalytics.content_analytic_system.model.dto.ContentSyncView;
 import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
 import com.contentanalytics.content_analytic_system.model.entity.Content;
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
 import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service    // Marks this as a service class for Spring
 @Slf4j      // To add logging capability
@@ -24,33 +30,53 @@ public class ContentService {
     private final IContentRepository contentRepository;
     private final ContentMetricsService metricsService;
     private final PlatformMetricsService platformMetricsService;
+    private final int iterationPageSize;
 
     // Constructor injection
     public ContentService(IContentRepository contentRepository,
                           ContentMetricsService metricsService,
-                          PlatformMetricsService platformMetricsService) {
+                          PlatformMetricsService platformMetricsService,
+                          @Value("${content.iteration.page-size:1000}") int iterationPageSize) {
         this.contentRepository = contentRepository;
         this.metricsService = metricsService;
         this.platformMetricsService = platformMetricsService;
+        this.iterationPageSize = Math.max(iterationPageSize, 1);
     }
 
     // CRUD OPERATIONS
 
     // Adding new contents to the system -- CREATE
     public Content addContent(Content content) {
+        return (Content) addContentWithMetrics(content).get("content");
+    }
+
+    // Adding new content and returning it together with the metrics fetched for it
+    public Map<String, Object> addContentWithMetrics(Content content) {
         // Checking if content is valid
         validateContent(content);
         log.info("Creating new content: {}", content.getTitle());
 
         try {
+            // Fetching the metrics first so the insert already carries the counters
+            PlatformMetricsDTO metrics = platformMetricsService.updatePlatformMetrics(content);
+
             // Saving content to MySQL
             Content savedContent = contentRepository.save(content);
 
             // Initializing metrics in MongoDB
-            platformMetricsService.updatePlatformMetrics(savedContent);
-
-            return savedContent;
-
+            metricsService.recordSample(savedContent.getId(), metrics);
+
+            Map<String, Object> created = new HashMap<>();
+            created.put("content", savedContent);
+            created.put("metrics", metrics);
+            return created;
+
+        } catch (PlatformUnavailableException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            // Unique per platform and identifier
+            throw new PlatformOperationException("Content " + content.getContentIdentifier() + " on "
+                    + content.getPlatform() + " is already stored");
         } catch (Exception e) {
             // Log error and throw custom exception
             log.error("Error creating content: ", e);
@@ -70,6 +96,27 @@ public class ContentService {
         return contentRepository.findAll();
     }
 
+    // Walking all active content for background jobs, one keyset page at a time so memory stays flat
+    // Archived and deleted content is filtered out by the query; each page is its own short read
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long forEachActiveContent(Consumer<ContentSyncView> action) {
+        long visited = 0;
+        long afterId = 0;
+        List<ContentSyncView> page;
+        do {
+            page = contentRepository.findViewsAfter(afterId, IContentRepository.UNSYNCED_STATUSES,
+                    PageRequest.of(0, iterationPageSize));
+            for (ContentSyncView view : page) {
+                action.accept(view);
+            }
+            visited += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == iterationPageSize);
+        return visited;
+    }
+
     // Getting all content for a specific platform -- READ
     public List<Content> getContentByPlatform(Platform platform) {
         return contentRepository.findByPlatform(platform);
@@ -137,15 +184,16 @@ public class ContentService {
         // First find the content
         Content content = getContent(id);
         try {
-            // Update metrics based on platform type
+            // Update metrics based on platform type (sets the counters and last sync time)
             PlatformMetricsDTO updateMetrics = platformMetricsService.updatePlatformMetrics(content);
-            content.setViews(updateMetrics.getViews());
-            content.setLikes(updateMetrics.getLikes());
-            content.setShares(updateMetrics.getShares());
-            content.setComments(updateMetrics.getComments());
-            // Update last sync time and save
-            content.setLastSyncedAt(LocalDateTime.now());
-            return contentRepository.save(content);
+
+            // One MySQL update and one MongoDB sample per refresh
+            Content savedContent = contentRepository.save(content);
+            metricsService.recordSample(id, updateMetrics);
+            return savedContent;
+        } catch (PlatformUnavailableException e) {
+            // The platform wasn't reached: no sync is recorded and the next scheduled one stays due
+            throw e;
         } catch (Exception e) {
             log.error("Error updating metrics for content {}: {}", id, e.getMessage());
             throw new PlatformOperationException("Failed to update metrics: " + e.getMessage());
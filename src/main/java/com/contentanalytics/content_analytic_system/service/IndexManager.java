@@ -0,0 +1,352 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.config.SqlCaptureInspector;
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.entity.SyncRun;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsArchive;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsBucket;
+import com.contentanalytics.content_analytic_system.model.mongo.DailyContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.HourlyContentMetrics;
+import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
+import com.contentanalytics.content_analytic_system.repository.sql.ISyncRunRepository;
+import com.contentanalytics.content_analytic_system.repository.sql.ISyncShardCheckpointRepository;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Sorts.ascending;
+import static com.mongodb.client.model.Sorts.descending;
+
+@Slf4j
+@Service
+// Creates the indexes declared on the entities (@Table indexes in MySQL, @CompoundIndex/@Indexed in MongoDB)
+// at startup, whatever hbm2ddl does, and explains the repository queries to flag the ones no index can serve
+public class IndexManager {
+
+    // Access paths that read a whole table / collection
+    private static final Set<String> FULL_SCAN_TYPES = Set.of("ALL");
+    // Last column named before a bound value in Hibernate's SQL (alias.column)
+    private static final Pattern COLUMN = Pattern.compile("\\w+\\.(\\w+)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IContentRepository contentRepository;
+    private final ISyncRunRepository syncRunRepository;
+    private final ISyncShardCheckpointRepository checkpointRepository;
+    private final boolean ensureOnStartup;
+
+    public IndexManager(JdbcTemplate jdbcTemplate,
+                        MongoTemplate mongoTemplate,
+                        EntityManagerFactory entityManagerFactory,
+                        IContentRepository contentRepository,
+                        ISyncRunRepository syncRunRepository,
+                        ISyncShardCheckpointRepository checkpointRepository,
+                        @Value("${db.indexes.ensure-on-startup:true}") boolean ensureOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.contentRepository = contentRepository;
+        this.syncRunRepository = syncRunRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.ensureOnStartup = ensureOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesOnStartup() {
+        if (!ensureOnStartup) return;
+        ensureSqlIndexes();
+        for (MongoPersistentEntity<?> entity : mongoTemplate.getConverter().getMappingContext().getPersistentEntities()) {
+            if (entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                ensureMongoIndexes(entity.getType());
+            }
+        }
+    }
+
+    // Creates the @Table indexes of every entity that are missing from the database; an index declared unique
+    // that exists as a plain one is rebuilt (this fails, and is logged, while the table still has duplicates)
+    public void ensureSqlIndexes() {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null || table.indexes().length == 0) continue;
+
+            // Index name -> whether it is unique
+            Map<String, Boolean> existing = new HashMap<>();
+            jdbcTemplate.query("SELECT DISTINCT INDEX_NAME, NON_UNIQUE FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = ?",
+                    row -> {
+                        existing.put(row.getString(1), row.getInt(2) == 0);
+                    }, table.name());
+
+            for (Index index : table.indexes()) {
+                Boolean unique = existing.get(index.name());
+                if (unique != null && (unique || !index.unique())) continue;
+                if (unique != null) {
+                    try {
+                        jdbcTemplate.execute("ALTER TABLE " + table.name() + " DROP INDEX " + index.name()
+                                + ", ADD UNIQUE INDEX " + index.name() + " (" + index.columnList() + ")");
+                        log.info("Made index {} on {} ({}) unique", index.name(), table.name(), index.columnList());
+                    } catch (Exception e) {
+                        log.error("Failed to make index {} on {} unique: {}", index.name(), table.name(), e.getMessage());
+                    }
+                    continue;
+                }
+                try {
+                    jdbcTemplate.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX " + index.name()
+                            + " ON " + table.name() + " (" + index.columnList() + ")");
+                    log.info("Created index {} on {} ({})", index.name(), table.name(), index.columnList());
+                } catch (Exception e) {
+                    log.error("Failed to create index {} on {}: {}", index.name(), table.name(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Creates the indexes declared on a MongoDB document class (no-op for existing ones)
+    public void ensureMongoIndexes(Class<?> documentType) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (IndexDefinition index : resolver.resolveIndexFor(documentType)) {
+            try {
+                mongoTemplate.indexOps(documentType).ensureIndex(index);
+            } catch (Exception e) {
+                log.error("Failed to create index {} on {}: {}", index.getIndexKeys(),
+                        mongoTemplate.getCollectionName(documentType), e.getMessage());
+            }
+        }
+    }
+
+    // EXPLAIN of every known query; indexBacked is false when the plan reads the whole table or collection.
+    // The MySQL side explains the SQL Hibernate generates for the repository methods themselves
+    public Map<String, Object> getIndexReport() {
+        List<Map<String, Object>> mysql = new ArrayList<>();
+        Map<String, String> samples = columnSamples();
+        repositoryCalls().forEach((name, call) -> mysql.add(explainRepositoryCall(name, call, samples)));
+
+        String metricsCollection = mongoTemplate.getCollectionName(ContentMetrics.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> mongo = new ArrayList<>();
+        mongo.add(explainMongo("IContentMetricsRepository.findTopByContentIdOrderByTimestampDesc",
+                metricsCollection, eq("contentId", 0L), descending("timestamp")));
+        mongo.add(explainMongo("IContentMetricsRepository.findByContentIdAndTimestampBetween",
+                metricsCollection, and(eq("contentId", 0L), gte("timestamp", now.minusDays(30)), lte("timestamp", now)),
+                null));
+        mongo.add(explainMongo("IContentMetricsRepository.deleteByContentId / findByContentId",
+                metricsCollection, eq("contentId", 0L), null));
+        mongo.add(explainMongo("ContentMetricsService.getMetricsPage", metricsCollection,
+                and(eq("contentId", 0L), gt("timestamp", now.minusDays(30)), lte("timestamp", now)),
+                ascending("timestamp")));
+        String bucketCollection = mongoTemplate.getCollectionName(ContentMetricsBucket.class);
+        mongo.add(explainMongo("MetricsBucketStore.findLatest", bucketCollection, eq("contentId", 0L), descending("day")));
+        mongo.add(explainMongo("MetricsBucketStore.find (range)", bucketCollection,
+                and(eq("contentId", 0L), gte("day", now.minusDays(30)), lte("day", now)), null));
+        String archiveCollection = mongoTemplate.getCollectionName(ContentMetricsArchive.class);
+        mongo.add(explainMongo("MetricsArchiveService.find (range)", archiveCollection,
+                and(eq("contentId", 0L), lte("from", now), gte("to", now.minusDays(30))), null));
+        mongo.add(explainMongo("MetricsArchiveService.archivedUntil", archiveCollection,
+                eq("contentId", 0L), descending("from")));
+        for (Class<?> rollupType : List.of(HourlyContentMetrics.class, DailyContentMetrics.class)) {
+            String rollupCollection = mongoTemplate.getCollectionName(rollupType);
+            mongo.add(explainMongo("MetricsRollupService.getRollups (" + rollupCollection + ")", rollupCollection,
+                    and(eq("contentId", 0L), gte("bucketStart", now.minusDays(30)), lte("bucketStart", now)), null));
+            mongo.add(explainMongo("AdvancedAnalyticsService platform pipelines (" + rollupCollection + ")",
+                    rollupCollection, and(eq("platform", "YOUTUBE"), gte("bucketStart", now.minusDays(30))), null));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mysql", mysql);
+        report.put("mongodb", mongo);
+        report.put("notIndexBacked", concat(mysql, mongo).stream()
+                .filter(query -> Boolean.FALSE.equals(query.get("indexBacked")))
+                .map(query -> query.get("query"))
+                .toList());
+        return report;
+    }
+
+
+    // HELPER methods
+
+    // The repository methods the report covers, called with sample arguments (the EXPLAIN gets its own values)
+    private Map<String, Runnable> repositoryCalls() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("IContentRepository.findByPlatform", () -> contentRepository.findByPlatform(Platform.YOUTUBE));
+        calls.put("IContentRepository.findByStatus",
+                () -> contentRepository.findByStatus(Content.ContentStatus.ACTIVE));
+        calls.put("IContentRepository.findViralContent",
+                () -> contentRepository.findViralContent(Platform.YOUTUBE, 100000L));
+        calls.put("IContentRepository.getPlatformPerformanceMetrics", contentRepository::getPlatformPerformanceMetrics);
+        calls.put("IContentRepository.findBestPostingHours",
+                () -> contentRepository.findBestPostingHours(Platform.YOUTUBE));
+        calls.put("IContentRepository.getContentGrowthOverTime",
+                () -> contentRepository.getContentGrowthOverTime(now.minusDays(30)));
+        calls.put("IContentRepository.findTrendingContent",
+                () -> contentRepository.findTrendingContent(now.minusDays(7)));
+        calls.put("IContentRepository.findContentNeedingAttention",
+                () -> contentRepository.findContentNeedingAttention(now.minusDays(1)));
+        calls.put("IContentRepository.findByTitleContainingIgnoreCase",
+                () -> contentRepository.findByTitleContainingIgnoreCase("java"));
+        calls.put("IContentRepository.findByCreatedAtBetween",
+                () -> contentRepository.findByCreatedAtBetween(now.minusDays(7), now));
+        calls.put("IContentRepository.getPlatformIdRanges", contentRepository::getPlatformIdRanges);
+        calls.put("IContentRepository.findFirstByPlatformAndContentIdentifier",
+                () -> contentRepository.findFirstByPlatformAndContentIdentifier(Platform.YOUTUBE, "abc"));
+        calls.put("IContentRepository.findIdsByIdentifiers",
+                () -> contentRepository.findIdsByIdentifiers(Platform.YOUTUBE, List.of("a", "b")));
+        calls.put("IContentRepository.findPlatformsAfter",
+                () -> contentRepository.findPlatformsAfter(0L, PageRequest.of(0, 1000)));
+        calls.put("IContentRepository.findViewsAfter", () -> contentRepository.findViewsAfter(0L,
+                IContentRepository.UNSYNCED_STATUSES, PageRequest.of(0, 1000)));
+        calls.put("IContentRepository.findDueViewsInRange", () -> contentRepository.findDueViewsInRange(
+                Platform.YOUTUBE, 1L, 5000L, IContentRepository.UNSYNCED_STATUSES, now));
+        calls.put("ISyncRunRepository.findByStatusOrderByStartedAtDesc",
+                () -> syncRunRepository.findByStatusOrderByStartedAtDesc(SyncRun.RunStatus.RUNNING));
+        calls.put("ISyncShardCheckpointRepository.findByRunIdOrderByIdAsc",
+                () -> checkpointRepository.findByRunIdOrderByIdAsc(1L));
+        return calls;
+    }
+
+    private Map<String, Object> explainRepositoryCall(String name, Runnable call, Map<String, String> samples) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", name);
+        try {
+            List<String> statements = SqlCaptureInspector.capture(call);
+            List<Map<String, Object>> plan = new ArrayList<>();
+            for (String sql : statements) {
+                plan.addAll(jdbcTemplate.queryForList("EXPLAIN " + withSampleValues(sql, samples)));
+            }
+            result.put("sql", statements);
+            // A full table scan is flagged whether or not some index was considered
+            boolean fullScan = plan.stream().anyMatch(row -> FULL_SCAN_TYPES.contains(String.valueOf(row.get("type"))));
+            result.put("indexBacked", !fullScan);
+            result.put("plan", plan.stream().map(row -> {
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("table", row.get("table"));
+                step.put("type", row.get("type"));
+                step.put("possibleKeys", row.get("possible_keys"));
+                step.put("key", row.get("key"));
+                step.put("rows", row.get("rows"));
+                step.put("extra", row.get("Extra"));
+                return step;
+            }).toList());
+        } catch (Exception e) {
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    // Hibernate's SQL binds every value as ?; EXPLAIN needs literals, so each gets a sample for the column it is
+    // compared with. A number after "between ? and" is the upper bound of a sync shard wide range (5000 ids), as
+    // the optimizer picks the index by the width of the range; limits and offsets get a page size and 0
+    private String withSampleValues(String sql, Map<String, String> samples) {
+        StringBuilder bound = new StringBuilder(sql.length() + 64);
+        String column = null;
+        int segmentStart = 0;
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (ch == '\'') quoted = !quoted;
+            if (ch != '?' || quoted) {
+                bound.append(ch);
+                continue;
+            }
+
+            String before = sql.substring(segmentStart, i).toLowerCase(Locale.ROOT);
+            segmentStart = i + 1;
+            Matcher named = COLUMN.matcher(before);
+            while (named.find()) {
+                column = named.group(1);
+            }
+            String trimmed = before.strip();
+            if (trimmed.endsWith("limit")) {
+                bound.append("1000");
+            } else if (trimmed.endsWith("offset")) {
+                bound.append("0");
+            } else {
+                String sample = column != null ? samples.getOrDefault(column, "'x'") : "'x'";
+                bound.append(trimmed.equals("and") && sample.equals("1") ? "5000" : sample);
+            }
+        }
+        return bound.toString();
+    }
+
+    // Sample literal per mapped column: the first constant of an enum, NOW() for times, 1 for numbers
+    private Map<String, String> columnSamples() {
+        Map<String, String> samples = new HashMap<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            for (Field field : entity.getJavaType().getDeclaredFields()) {
+                Column column = field.getAnnotation(Column.class);
+                String name = column != null && !column.name().isEmpty() ? column.name() : field.getName();
+                Class<?> type = field.getType();
+                String sample;
+                if (type.isEnum()) {
+                    sample = "'" + ((Enum<?>) type.getEnumConstants()[0]).name() + "'";
+                } else if (type == LocalDateTime.class) {
+                    sample = "NOW()";
+                } else if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+                    sample = "1";
+                } else {
+                    sample = "'x'";
+                }
+                samples.put(name.toLowerCase(Locale.ROOT), sample);
+            }
+        }
+        return samples;
+    }
+
+    private Map<String, Object> explainMongo(String name, String collection, Bson filter, Bson sort) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", name);
+        try {
+            var find = mongoTemplate.getCollection(collection).find(filter);
+            if (sort != null) {
+                find = find.sort(sort);
+            }
+            String plan = find.explain().toJson();
+            // Time-series collections report the scan of their internal buckets collection
+            boolean collectionScan = plan.contains("COLLSCAN") && !plan.contains("IXSCAN");
+            result.put("indexBacked", !collectionScan);
+            result.put("stages", plan.contains("IXSCAN") ? "IXSCAN" : collectionScan ? "COLLSCAN" : "other");
+            result.put("indexes", mongoTemplate.getCollection(collection).listIndexes()
+                    .map(index -> index.get("key", Document.class).toJson())
+                    .into(new ArrayList<>()));
+        } catch (Exception e) {
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    private List<Map<String, Object>> concat(List<Map<String, Object>> first, List<Map<String, Object>> second) {
+        List<Map<String, Object>> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
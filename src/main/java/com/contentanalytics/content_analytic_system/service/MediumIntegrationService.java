@@ -2,12 +2,18 @@ package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
 import com.contentanalytics.content_analytic_system.model.dto.MediumStatisticsDTO;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.net.http.HttpHeaders;
+import java.time.LocalDateTime;
 
 @Service
 @Slf4j
@@ -15,25 +21,78 @@ import java.net.http.HttpHeaders;
 public class MediumIntegrationService {
 
     private final RestTemplate restTemplate;
+    private final PlatformCallGuard platformGuard;
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final String accessToken;
+    private final boolean stubData;
 
-    public MediumIntegrationService() {
-        this.restTemplate = new RestTemplate();
+    public MediumIntegrationService(RestTemplate restTemplate,
+                                    PlatformCallGuard platformGuard,
+                                    WebClient platformWebClient,
+                                    @Value("${medium.api.base-url:}") String baseUrl,
+                                    @Value("${medium.access.token:}") String accessToken,
+                                    @Value("${medium.api.stub-data:true}") boolean stubData) {
+        this.restTemplate = restTemplate;
+        this.platformGuard = platformGuard;
+        this.webClient = platformWebClient;
+        this.baseUrl = baseUrl;
+        this.accessToken = accessToken;
+        this.stubData = stubData;
     }
 
 
     // Fetching metrics
     public MediumStatisticsDTO getPostStats(String postId) {
         try {
+            return platformGuard.call(Platform.MEDIUM, () -> requestPostStats(postId).block());
+
+        } catch (PlatformOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error fetching Medium stats: ", e);
+            throw new PlatformOperationException("Failed to fetch Medium stats");
+        }
+    }
+
+    // Fetching metrics without blocking a thread
+    public Mono<MediumStatisticsDTO> fetchPostStats(String postId) {
+        return platformGuard.callReactive(Platform.MEDIUM, () -> requestPostStats(postId));
+    }
+
+
+    // HELPER methods
+
+    // GET {base-url}/posts/{postId}/stats, or the dummy data while medium.api.stub-data is on
+    private Mono<MediumStatisticsDTO> requestPostStats(String postId) {
+        if (!stubData) {
+            URI url = UriComponentsBuilder.fromUriString(baseUrl)
+                    .path("/posts/{postId}/stats")
+                    .buildAndExpand(postId)
+                    .encode()
+                    .toUri();
+
+            return webClient.get()
+                    .uri(url)
+                    .headers(headers -> {
+                        if (!accessToken.isBlank()) headers.setBearerAuth(accessToken);
+                    })
+                    .retrieve()
+                    .bodyToMono(MediumStatisticsDTO.class)
+                    .map(stats -> {
+                        stats.setPostId(postId);
+                        stats.setFetchedAt(LocalDateTime.now());
+                        return stats;
+                    });
+        }
+
+        return Mono.fromSupplier(() -> {
             // For now, return dummy data
             MediumStatisticsDTO stats = new MediumStatisticsDTO();
             stats.setViews(500L);
             stats.setReads(200L);
             stats.setClaps(75L);
             return stats;
-
-        } catch (Exception e) {
-            log.error("Error fetching Medium stats: ", e);
-            throw new PlatformOperationException("Failed to fetch Medium stats");
-        }
+        });
     }
 }
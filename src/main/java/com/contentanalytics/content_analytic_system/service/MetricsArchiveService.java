@@ -0,0 +1,295 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsArchive;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+// Cold history: samples older than after-days are packed per content into blocks of block-size samples
+// (MetricsSeriesCodec) in content_metrics_archive, then removed from the samples and bucket collections.
+// The codec packs timestamps and counters; the rest of a sample (deltas, platform data and the other maps) is
+// kept beside them for the samples that had any. Reads merge archived samples back in: everything up to the
+// content's last archived timestamp comes from the archive, so samples a time-series collection can't delete yet
+// aren't doubled. Off by default (metrics.archive.enabled), as it replaces the rollups' raw-retention-days
+public class MetricsArchiveService {
+
+    private static final String ARCHIVE_LEASE = "metrics-archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterLeaseService leaseService;
+    private final MetricsCollectionMigrator collectionMigrator;
+    private final MetricsRollupService rollupService;
+    private final MetricsBucketStore bucketStore;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int blockSize;
+
+    private final AtomicLong archivedSamples = new AtomicLong();
+    private final AtomicLong archivedBytes = new AtomicLong();
+    private volatile boolean timeSeriesDeletes = true;
+    private volatile LocalDateTime lastRunAt;
+
+    public MetricsArchiveService(MongoTemplate mongoTemplate,
+                                 ClusterLeaseService leaseService,
+                                 MetricsCollectionMigrator collectionMigrator,
+                                 MetricsRollupService rollupService,
+                                 MetricsBucketStore bucketStore,
+                                 @Value("${metrics.archive.enabled:false}") boolean enabled,
+                                 @Value("${metrics.archive.after-days:90}") int afterDays,
+                                 @Value("${metrics.archive.block-size:1000}") int blockSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseService = leaseService;
+        this.collectionMigrator = collectionMigrator;
+        this.rollupService = rollupService;
+        this.bucketStore = bucketStore;
+        this.enabled = enabled;
+        this.afterDays = Math.max(afterDays, 1);
+        this.blockSize = Math.max(blockSize, 1);
+    }
+
+    // Archives one content at a time while this node holds the lease
+    @Scheduled(fixedDelayString = "${metrics.archive.interval-ms:3600000}", initialDelay = 120000)
+    public void archive() {
+        // Samples still to be copied or rolled up would be missed
+        if (!enabled || collectionMigrator.isCopyPending() || rollupService.isBackfillPending()) return;
+        try {
+            Optional<ClusterLeaseService.Lease> lease = leaseService.tryAcquire(ARCHIVE_LEASE);
+            if (lease.isEmpty()) return;
+
+            // Day-aligned, so whole buckets fall before it
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays).truncatedTo(ChronoUnit.DAYS);
+            TreeSet<Long> contentIds = new TreeSet<>(mongoTemplate.findDistinct(
+                    Query.query(Criteria.where("timestamp").lt(cutoff)), "contentId", ContentMetrics.class, Long.class));
+            contentIds.addAll(mongoTemplate.findDistinct(
+                    Query.query(Criteria.where("day").lt(cutoff)), "contentId", ContentMetricsBucket.class, Long.class));
+
+            for (Long contentId : contentIds) {
+                if (!leaseService.isHeld(lease.get())) return;
+                archiveContent(contentId, cutoff);
+            }
+            lastRunAt = LocalDateTime.now();
+        } catch (Exception e) {
+            log.error("Archiving metric samples failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Archived samples of a content, oldest first
+    public List<ContentMetrics> find(Long contentId) {
+        return decode(mongoTemplate.find(Query.query(Criteria.where("contentId").is(contentId))
+                .with(Sort.by(Sort.Direction.ASC, "from")), ContentMetricsArchive.class));
+    }
+
+    public List<ContentMetrics> find(Long contentId, LocalDateTime from, LocalDateTime to) {
+        List<ContentMetricsArchive> blocks = mongoTemplate.find(Query.query(Criteria.where("contentId").is(contentId)
+                        .and("from").lte(to).and("to").gte(from))
+                .with(Sort.by(Sort.Direction.ASC, "from")), ContentMetricsArchive.class);
+        return decode(blocks).stream()
+                .filter(sample -> !sample.getTimestamp().isBefore(from) && !sample.getTimestamp().isAfter(to))
+                .toList();
+    }
+
+    // Archived samples after the given timestamp up to to, oldest first and at most limit of them (blocks are
+    // decoded only as far as needed)
+    public List<ContentMetrics> findAfter(Long contentId, LocalDateTime after, LocalDateTime to, int limit) {
+        Query query = Query.query(Criteria.where("contentId").is(contentId).and("from").lte(to).and("to").gt(after))
+                .with(Sort.by(Sort.Direction.ASC, "from"));
+        List<ContentMetrics> page = new ArrayList<>();
+        try (Stream<ContentMetricsArchive> blocks = mongoTemplate.stream(query, ContentMetricsArchive.class)) {
+            for (ContentMetricsArchive block : (Iterable<ContentMetricsArchive>) blocks::iterator) {
+                for (ContentMetrics sample : samplesOf(block)) {
+                    if (page.size() >= limit) return page;
+                    if (sample.getTimestamp().isAfter(after) && !sample.getTimestamp().isAfter(to)) {
+                        page.add(sample);
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    // Timestamp of the content's newest archived sample; samples up to it are read from the archive only
+    public Optional<LocalDateTime> archivedUntil(Long contentId) {
+        return Optional.ofNullable(latestBlock(contentId)).map(ContentMetricsArchive::getTo);
+    }
+
+    public Optional<ContentMetrics> findLatest(Long contentId) {
+        ContentMetricsArchive block = latestBlock(contentId);
+        if (block == null) return Optional.empty();
+        List<ContentMetrics> samples = samplesOf(block);
+        return samples.isEmpty() ? Optional.empty() : Optional.of(samples.get(samples.size() - 1));
+    }
+
+    public void delete(Long contentId) {
+        mongoTemplate.remove(Query.query(Criteria.where("contentId").is(contentId)), ContentMetricsArchive.class);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("afterDays", afterDays);
+        status.put("blockSize", blockSize);
+        status.put("archivedByThisNode", archivedSamples.get());
+        status.put("bytesPerSample", archivedSamples.get() > 0
+                ? (double) archivedBytes.get() / archivedSamples.get() : null);
+        status.put("blocks", mongoTemplate.getCollection(mongoTemplate.getCollectionName(ContentMetricsArchive.class))
+                .estimatedDocumentCount());
+        status.put("lastRunAt", lastRunAt);
+        return status;
+    }
+
+
+    // HELPER methods
+
+    // Blocks are inserted oldest first and only after the last archived sample, so a crash part way through
+    // leaves a consistent archive: the rest is picked up on the next run
+    private void archiveContent(Long contentId, LocalDateTime cutoff) {
+        LocalDateTime after = archivedUntil(contentId).orElse(null);
+
+        Criteria range = Criteria.where("contentId").is(contentId).and("timestamp").lt(cutoff);
+        if (after != null) range = range.gt(after);
+        List<ContentMetrics> samples = new ArrayList<>(mongoTemplate.find(Query.query(range)
+                .with(Sort.by(Sort.Direction.ASC, "timestamp")), ContentMetrics.class));
+        samples.addAll(bucketStore.find(contentId, after != null ? after : LocalDateTime.of(1970, 1, 1, 0, 0),
+                cutoff.minusNanos(1)));
+        samples.removeIf(sample -> after != null && !sample.getTimestamp().isAfter(after));
+        samples.sort(Comparator.comparing(ContentMetrics::getTimestamp));
+
+        if (!samples.isEmpty()) {
+            List<ContentMetricsArchive> blocks = new ArrayList<>();
+            for (int start = 0; start < samples.size(); start += blockSize) {
+                blocks.add(block(contentId, samples.subList(start, Math.min(start + blockSize, samples.size()))));
+            }
+            mongoTemplate.insertAll(blocks);
+            long bytes = blocks.stream().mapToLong(block -> block.getData().length).sum();
+            archivedSamples.addAndGet(samples.size());
+            archivedBytes.addAndGet(bytes);
+            log.debug("Archived {} samples of content {} into {} blocks ({} bytes)",
+                    samples.size(), contentId, blocks.size(), bytes);
+        }
+        removeArchived(contentId, cutoff);
+    }
+
+    private ContentMetricsArchive block(Long contentId, List<ContentMetrics> samples) {
+        ContentMetrics first = samples.get(0);
+        ContentMetricsArchive block = new ContentMetricsArchive();
+        block.setId(contentId + ":" + first.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        block.setContentId(contentId);
+        block.setFrom(first.getTimestamp());
+        block.setTo(samples.get(samples.size() - 1).getTimestamp());
+        block.setCount(samples.size());
+        block.setData(MetricsSeriesCodec.encode(samples));
+
+        List<ContentMetricsArchive.SampleExtras> extras = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            ContentMetrics sample = samples.get(i);
+            if (sample.getPlatform() != null) {
+                block.setPlatform(sample.getPlatform());
+            }
+            ContentMetricsArchive.SampleExtras sampleExtras = extrasOf(sample);
+            if (sampleExtras != null) {
+                sampleExtras.setIndex(i);
+                extras.add(sampleExtras);
+            }
+        }
+        block.setExtras(extras.isEmpty() ? null : extras);
+        block.setArchivedAt(LocalDateTime.now());
+        return block;
+    }
+
+    // Null when the sample carries nothing beyond its timestamp and counters
+    private ContentMetricsArchive.SampleExtras extrasOf(ContentMetrics sample) {
+        boolean checkedLater = sample.getLastCheckedAt() != null && sample.getLastCheckedAt().isAfter(sample.getTimestamp());
+        if (!checkedLater && sample.getDeltas().isEmpty() && sample.getPlatformData().isEmpty()
+                && sample.getEngagementMetrics().isEmpty() && sample.getDemographicData().isEmpty()
+                && sample.getGeographicData().isEmpty()) {
+            return null;
+        }
+        ContentMetricsArchive.SampleExtras extras = new ContentMetricsArchive.SampleExtras();
+        extras.setLastCheckedAt(checkedLater ? sample.getLastCheckedAt() : null);
+        extras.setDeltas(nullIfEmpty(sample.getDeltas()));
+        extras.setPlatformData(nullIfEmpty(sample.getPlatformData()));
+        extras.setEngagementMetrics(nullIfEmpty(sample.getEngagementMetrics()));
+        extras.setDemographicData(nullIfEmpty(sample.getDemographicData()));
+        extras.setGeographicData(nullIfEmpty(sample.getGeographicData()));
+        return extras;
+    }
+
+    private <T> Map<String, T> nullIfEmpty(Map<String, T> values) {
+        return values.isEmpty() ? null : values;
+    }
+
+    // Everything before the cutoff is archived by now
+    private void removeArchived(Long contentId, LocalDateTime cutoff) {
+        bucketStore.deleteBefore(contentId, cutoff);
+        if (collectionMigrator.isTimeSeries() && !timeSeriesDeletes) return;
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("contentId").is(contentId).and("timestamp").lt(cutoff)),
+                    ContentMetrics.class);
+        } catch (Exception e) {
+            if (!collectionMigrator.isTimeSeries()) throw e;
+            // Deleting time-series samples by timestamp needs MongoDB 7.0; they expire with the collection's TTL
+            timeSeriesDeletes = false;
+            log.info("Archived time-series samples are left to expire: {}", e.getMessage());
+        }
+    }
+
+    private ContentMetricsArchive latestBlock(Long contentId) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("contentId").is(contentId))
+                .with(Sort.by(Sort.Direction.DESC, "from")), ContentMetricsArchive.class);
+    }
+
+    private List<ContentMetrics> decode(List<ContentMetricsArchive> blocks) {
+        List<ContentMetrics> samples = new ArrayList<>();
+        for (ContentMetricsArchive block : blocks) {
+            samples.addAll(samplesOf(block));
+        }
+        return samples;
+    }
+
+    // Decoded counters with the block's platform and each sample's extras put back
+    private List<ContentMetrics> samplesOf(ContentMetricsArchive block) {
+        List<ContentMetrics> samples = MetricsSeriesCodec.decode(block.getData(), block.getContentId(), block.getId());
+        samples.forEach(sample -> sample.setPlatform(block.getPlatform()));
+        if (block.getExtras() == null) return samples;
+
+        for (ContentMetricsArchive.SampleExtras extras : block.getExtras()) {
+            if (extras.getIndex() < 0 || extras.getIndex() >= samples.size()) continue;
+            ContentMetrics sample = samples.get(extras.getIndex());
+            if (extras.getLastCheckedAt() != null) {
+                sample.setLastCheckedAt(extras.getLastCheckedAt());
+            }
+            sample.setDeltas(extras.getDeltas());
+            sample.setPlatformData(extras.getPlatformData());
+            sample.setEngagementMetrics(extras.getEngagementMetrics());
+            sample.setDemographicData(extras.getDemographicData());
+            sample.setGeographicData(extras.getGeographicData());
+        }
+        return samples;
+    }
+}
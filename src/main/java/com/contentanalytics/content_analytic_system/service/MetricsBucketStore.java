@@ -0,0 +1,246 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.enums.MetricsStorageMode;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsBucket;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+// Bucketed storage of the metric samples: one document per (contentId, day) with parallel arrays of timestamps
+// and counters, appended with $push upserts. Used by ContentMetricsService and MetricsWriteBuffer when
+// metrics.storage.mode is buckets; reads hand the samples back as ContentMetrics (id <bucket id>:<index>).
+// Only the four counters are kept per sample, and platform data only for the newest one of the day
+public class MetricsBucketStore {
+
+    public static final List<String> COUNTERS = List.of("views", "likes", "comments", "shares");
+
+    private final MongoTemplate mongoTemplate;
+    private final MetricsStorageMode mode;
+
+    public MetricsBucketStore(MongoTemplate mongoTemplate,
+                              @Value("${metrics.storage.mode:samples}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = MetricsStorageMode.valueOf(mode.trim().toUpperCase());
+        log.info("Metric samples stored as {}", this.mode);
+    }
+
+    public boolean isActive() {
+        return mode == MetricsStorageMode.BUCKETS;
+    }
+
+    // Appends one sample to its day's bucket
+    public ContentMetrics append(ContentMetrics sample) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(bucketId(sample))),
+                appendUpdate(List.of(sample)), ContentMetricsBucket.class);
+        return sample;
+    }
+
+    // One upsert per bucket, pushing that bucket's samples in their order; returns the number of samples not stored
+    public int append(List<ContentMetrics> samples) {
+        Map<String, List<ContentMetrics>> byBucket = new LinkedHashMap<>();
+        samples.forEach(sample -> byBucket.computeIfAbsent(bucketId(sample), id -> new ArrayList<>()).add(sample));
+        List<List<ContentMetrics>> groups = new ArrayList<>(byBucket.values());
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ContentMetricsBucket.class);
+        byBucket.forEach((id, group) -> bulk.upsert(Query.query(Criteria.where("_id").is(id)), appendUpdate(group)));
+        try {
+            bulk.execute();
+            return 0;
+        } catch (BulkOperationException e) {
+            int failed = 0;
+            for (BulkWriteError error : e.getErrors()) {
+                failed += groups.get(error.getIndex()).size();
+            }
+            log.error("{} of {} metric samples failed to append to their buckets: {}",
+                    failed, samples.size(), e.getMessage());
+            return failed;
+        }
+    }
+
+    // Records an unchanged fetch on the content's latest bucket; its newest sample, or null without buckets
+    public ContentMetrics touchLatest(Long contentId, LocalDateTime checkedAt) {
+        ContentMetricsBucket bucket = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("contentId").is(contentId)).with(Sort.by(Sort.Direction.DESC, "day")),
+                new Update().set("lastCheckedAt", checkedAt),
+                FindAndModifyOptions.options().returnNew(true),
+                ContentMetricsBucket.class);
+        if (bucket == null || bucket.getTimestamps().isEmpty()) return null;
+        List<ContentMetrics> samples = samplesOf(bucket);
+        return samples.get(samples.size() - 1);
+    }
+
+    // Newest samples first, at most limit of them
+    public List<ContentMetrics> findLatest(Long contentId, int limit) {
+        List<ContentMetrics> latest = new ArrayList<>();
+        // A sample per bucket at the least, so limit buckets always hold enough
+        List<ContentMetricsBucket> buckets = mongoTemplate.find(
+                Query.query(Criteria.where("contentId").is(contentId))
+                        .with(Sort.by(Sort.Direction.DESC, "day")).limit(limit),
+                ContentMetricsBucket.class);
+        for (ContentMetricsBucket bucket : buckets) {
+            List<ContentMetrics> samples = samplesOf(bucket);
+            for (int i = samples.size() - 1; i >= 0 && latest.size() < limit; i--) {
+                latest.add(samples.get(i));
+            }
+            if (latest.size() >= limit) break;
+        }
+        return latest;
+    }
+
+    public Optional<ContentMetrics> findLatest(Long contentId) {
+        return findLatest(contentId, 1).stream().findFirst();
+    }
+
+    public List<ContentMetrics> find(Long contentId) {
+        return flatten(mongoTemplate.find(Query.query(Criteria.where("contentId").is(contentId))
+                .with(Sort.by(Sort.Direction.ASC, "day")), ContentMetricsBucket.class));
+    }
+
+    public List<ContentMetrics> find(Long contentId, LocalDateTime from, LocalDateTime to) {
+        List<ContentMetricsBucket> buckets = mongoTemplate.find(Query.query(Criteria.where("contentId").is(contentId)
+                        .and("day").gte(from.truncatedTo(ChronoUnit.DAYS)).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "day")), ContentMetricsBucket.class);
+        return flatten(buckets).stream()
+                .filter(sample -> !sample.getTimestamp().isBefore(from) && !sample.getTimestamp().isAfter(to))
+                .toList();
+    }
+
+    // Samples after the given timestamp up to to, oldest first and at most limit of them; fields are the sample
+    // fields to read (counters, lastCheckedAt, platformData), the others come back empty
+    public List<ContentMetrics> findAfter(Long contentId, LocalDateTime after, LocalDateTime to, int limit,
+                                          Collection<String> fields) {
+        Query query = Query.query(Criteria.where("contentId").is(contentId)
+                        .and("day").gte(after.truncatedTo(ChronoUnit.DAYS)).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "day"));
+        query.fields().include("contentId", "day", "timestamps", "lastCheckedAt");
+        fields.forEach(field -> query.fields().include(field));
+
+        List<ContentMetrics> page = new ArrayList<>();
+        try (Stream<ContentMetricsBucket> buckets = mongoTemplate.stream(query, ContentMetricsBucket.class)) {
+            for (ContentMetricsBucket bucket : (Iterable<ContentMetricsBucket>) buckets::iterator) {
+                for (ContentMetrics sample : samplesOf(bucket)) {
+                    if (page.size() >= limit) return page;
+                    if (sample.getTimestamp().isAfter(after) && !sample.getTimestamp().isAfter(to)) {
+                        page.add(sample);
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    public void delete(Long contentId) {
+        mongoTemplate.remove(Query.query(Criteria.where("contentId").is(contentId)), ContentMetricsBucket.class);
+    }
+
+    // Drops a content's buckets of days before the given day (archived by MetricsArchiveService)
+    public void deleteBefore(Long contentId, LocalDateTime day) {
+        mongoTemplate.remove(Query.query(Criteria.where("contentId").is(contentId).and("day").lt(day)),
+                ContentMetricsBucket.class);
+    }
+
+    // Drops the buckets of days entirely before the cutoff
+    public long expire(LocalDateTime cutoff) {
+        return mongoTemplate.remove(Query.query(Criteria.where("day").lte(cutoff.minusDays(1))),
+                ContentMetricsBucket.class).getDeletedCount();
+    }
+
+
+    // HELPER methods
+
+    private Update appendUpdate(List<ContentMetrics> samples) {
+        ContentMetrics first = samples.get(0);
+        ContentMetrics newest = samples.stream().max(Comparator.comparing(ContentMetrics::getTimestamp)).orElse(first);
+
+        Update update = new Update()
+                .setOnInsert("contentId", first.getContentId())
+                .setOnInsert("day", first.getTimestamp().truncatedTo(ChronoUnit.DAYS))
+                .inc("count", samples.size())
+                .max("lastCheckedAt", newest.getLastCheckedAt() != null ? newest.getLastCheckedAt() : newest.getTimestamp())
+                .set("platformData", newest.getPlatformData());
+        if (newest.getPlatform() != null) {
+            update.set("platform", newest.getPlatform().name());
+        }
+        update.push("timestamps").each(samples.stream().map(ContentMetrics::getTimestamp).toArray());
+        for (String counter : COUNTERS) {
+            update.push(counter).each(samples.stream().map(sample -> sample.getCounter(counter)).toArray());
+        }
+        return update;
+    }
+
+    private String bucketId(ContentMetrics sample) {
+        return sample.getContentId() + ":" + sample.getTimestamp().format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private List<ContentMetrics> flatten(List<ContentMetricsBucket> buckets) {
+        List<ContentMetrics> samples = new ArrayList<>();
+        buckets.forEach(bucket -> samples.addAll(samplesOf(bucket)));
+        return samples;
+    }
+
+    // Samples of a bucket in timestamp order (buffered appends from different nodes may interleave)
+    private List<ContentMetrics> samplesOf(ContentMetricsBucket bucket) {
+        List<ContentMetrics> samples = new ArrayList<>(bucket.getTimestamps().size());
+        for (int i = 0; i < bucket.getTimestamps().size(); i++) {
+            samples.add(sampleAt(bucket, i));
+        }
+        samples.sort(Comparator.comparing(ContentMetrics::getTimestamp));
+        if (!samples.isEmpty()) {
+            ContentMetrics newest = samples.get(samples.size() - 1);
+            newest.setLastCheckedAt(bucket.getLastCheckedAt());
+            newest.setPlatformData(new HashMap<>(bucket.getPlatformData() != null ? bucket.getPlatformData() : Map.of()));
+        }
+        return samples;
+    }
+
+    private ContentMetrics sampleAt(ContentMetricsBucket bucket, int index) {
+        ContentMetrics sample = new ContentMetrics();
+        sample.setId(bucket.getId() + ":" + index);
+        sample.setContentId(bucket.getContentId());
+        sample.setPlatform(bucket.getPlatform());
+        sample.setTimestamp(bucket.getTimestamps().get(index));
+        sample.setLastCheckedAt(sample.getTimestamp());
+        for (String counter : COUNTERS) {
+            List<Long> values = valuesOf(bucket, counter);
+            if (values != null && index < values.size() && values.get(index) != null) {
+                sample.setCounter(counter, values.get(index));
+            }
+        }
+        return sample;
+    }
+
+    private List<Long> valuesOf(ContentMetricsBucket bucket, String counter) {
+        return switch (counter) {
+            case "views" -> bucket.getViews();
+            case "likes" -> bucket.getLikes();
+            case "comments" -> bucket.getComments();
+            case "shares" -> bucket.getShares();
+            default -> null;
+        };
+    }
+}
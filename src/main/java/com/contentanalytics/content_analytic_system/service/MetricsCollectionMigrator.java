@@ -0,0 +1,309 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+// Keeps the metric samples in a MongoDB time-series collection (timeField timestamp, metaField contentId).
+// The time-series collection is built under <name>_ts and renamed into place; an existing regular collection is
+// renamed to <name>_legacy first and its samples are copied over in the background, resuming from a checkpoint
+// after a restart. Until the copy is done, reads also look at the legacy collection (ContentMetricsService).
+// Needs MongoDB 5.0+; older servers keep the regular collection
+public class MetricsCollectionMigrator {
+
+    private static final String MIGRATIONS_COLLECTION = "metrics_migrations";
+    private static final String MIGRATION_ID = "content_metrics_time_series";
+    private static final String MIGRATION_LEASE = "metrics-time-series-migration";
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterLeaseService leaseService;
+    private final boolean enabled;
+    private final int copyBatchSize;
+    private final String collectionName;
+    private final String legacyCollectionName;
+    private final String stagingCollectionName;
+    private final String strayCollectionName;
+
+    private final AtomicLong copied = new AtomicLong();
+    private volatile boolean timeSeries;
+    private volatile boolean copyPending;
+    private volatile boolean supported;
+    private volatile boolean copying;
+    private volatile Thread copier;
+
+    public MetricsCollectionMigrator(MongoTemplate mongoTemplate,
+                                     ClusterLeaseService leaseService,
+                                     @Value("${metrics.time-series.enabled:true}") boolean enabled,
+                                     @Value("${metrics.time-series.copy-batch-size:1000}") int copyBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseService = leaseService;
+        this.enabled = enabled;
+        this.copyBatchSize = Math.max(copyBatchSize, 1);
+        this.collectionName = mongoTemplate.getCollectionName(ContentMetrics.class);
+        this.legacyCollectionName = collectionName + "_legacy";
+        this.stagingCollectionName = collectionName + "_ts";
+        this.strayCollectionName = collectionName + "_stray";
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+
+        supported = serverMajorVersion() >= 5;
+        if (!supported) {
+            log.warn("MongoDB before 5.0 has no time-series collections, keeping {} as a regular collection", collectionName);
+            return;
+        }
+        refresh();
+    }
+
+    // Whether samples live in a time-series collection (which rules out updating single samples in place)
+    public boolean isTimeSeries() {
+        return timeSeries;
+    }
+
+    // Converts (or picks up another node's conversion) until the collection is time-series and fully copied
+    @Scheduled(fixedDelayString = "${metrics.time-series.check-interval-ms:60000}",
+            initialDelayString = "${metrics.time-series.check-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled || !supported) return;
+        try {
+            timeSeries = "timeseries".equals(collectionType(collectionName));
+            copyPending = mongoTemplate.collectionExists(legacyCollectionName) && !migrationCompleted();
+            if (timeSeries && !copyPending && !mongoTemplate.collectionExists(strayCollectionName)) return;
+            if (copying) return;
+
+            // One node converts; the others see the result on their next check
+            Optional<ClusterLeaseService.Lease> lease = leaseService.tryAcquire(MIGRATION_LEASE);
+            if (lease.isEmpty()) return;
+
+            if (!timeSeries) {
+                convert();
+                timeSeries = true;
+            }
+            copyStraySamples();
+            copyPending = mongoTemplate.collectionExists(legacyCollectionName) && !migrationCompleted();
+            if (copyPending) {
+                startCopy(lease.get());
+            }
+        } catch (Exception e) {
+            log.error("Metrics time-series check failed: {}", e.getMessage());
+        }
+    }
+
+    // Whether samples are still waiting in the legacy collection to be copied over (as of the last check)
+    public boolean isCopyPending() {
+        return enabled && supported && copyPending;
+    }
+
+    public String getLegacyCollectionName() {
+        return legacyCollectionName;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("supported", supported);
+        status.put("collection", collectionName);
+        status.put("timeSeries", timeSeries);
+        status.put("copying", copying);
+        status.put("copiedByThisNode", copied.get());
+        Document migration = mongoTemplate.getCollection(MIGRATIONS_COLLECTION)
+                .find(Filters.eq("_id", MIGRATION_ID)).first();
+        status.put("migration", migration);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        copying = false;
+        Thread thread = copier;
+        if (thread != null) {
+            try {
+                thread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    // HELPER methods
+
+    // Builds the time-series collection and its query index under the staging name, moves the regular collection
+    // out of the way and renames the staging one into place. Writes between the two renames auto-create a regular
+    // collection again; the next check moves that one aside as <name>_stray, and its samples are copied over
+    private void convert() {
+        if (!mongoTemplate.collectionExists(stagingCollectionName)) {
+            TimeSeries mapping = ContentMetrics.class.getAnnotation(TimeSeries.class);
+            mongoTemplate.createCollection(stagingCollectionName, CollectionOptions.empty().timeSeries(
+                    CollectionOptions.TimeSeriesOptions.timeSeries(mapping.timeField())
+                            .metaField(mapping.metaField())
+                            .granularity(mapping.granularity())));
+            log.info("Created time-series collection {}", stagingCollectionName);
+        }
+        ensureIndexes(stagingCollectionName);
+
+        if (mongoTemplate.collectionExists(collectionName)) {
+            String target = mongoTemplate.collectionExists(legacyCollectionName) ? strayCollectionName : legacyCollectionName;
+            if (target.equals(strayCollectionName) && mongoTemplate.collectionExists(strayCollectionName)) {
+                // Left by an earlier attempt
+                copyAll(strayCollectionName, stagingCollectionName);
+            }
+            rename(collectionName, target);
+            log.info("Renamed regular collection {} to {} for migration", collectionName, target);
+        }
+
+        rename(stagingCollectionName, collectionName);
+        log.info("Time-series collection {} is in place", collectionName);
+    }
+
+    // Samples written to a regular collection created while converting
+    private void copyStraySamples() {
+        if (mongoTemplate.collectionExists(strayCollectionName)) {
+            copyAll(strayCollectionName, collectionName);
+        }
+    }
+
+    // Copies every sample of one collection into another, then drops the source
+    private void copyAll(String source, String target) {
+        MongoCollection<Document> from = mongoTemplate.getCollection(source);
+        MongoCollection<Document> to = mongoTemplate.getCollection(target);
+        List<Document> batch = new ArrayList<>(copyBatchSize);
+        long count = 0;
+        for (Document sample : from.find(Filters.exists("timestamp"))) {
+            batch.add(sample);
+            if (batch.size() >= copyBatchSize) {
+                to.insertMany(batch, new InsertManyOptions().ordered(false));
+                count += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            to.insertMany(batch, new InsertManyOptions().ordered(false));
+            count += batch.size();
+        }
+        from.drop();
+        log.info("Copied {} metric samples written during the conversion from {} into {}", count, source, target);
+    }
+
+    private void rename(String from, String to) {
+        mongoTemplate.getCollection(from).renameCollection(
+                new MongoNamespace(mongoTemplate.getDb().getName(), to), new RenameCollectionOptions().dropTarget(false));
+    }
+
+    // The @CompoundIndex / @Indexed indexes of ContentMetrics, on the given collection
+    private void ensureIndexes(String collection) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (IndexDefinition index : resolver.resolveIndexFor(ContentMetrics.class)) {
+            mongoTemplate.indexOps(collection).ensureIndex(index);
+        }
+    }
+
+    private void startCopy(ClusterLeaseService.Lease lease) {
+        copying = true;
+        copier = new Thread(() -> {
+            try {
+                copyLegacySamples(lease);
+            } catch (Exception e) {
+                log.error("Copying legacy metric samples failed, retrying on the next check: {}", e.getMessage());
+            } finally {
+                copying = false;
+                copier = null;
+            }
+        }, "metrics-time-series-migration");
+        copier.setDaemon(true);
+        copier.start();
+    }
+
+    // Copies legacy samples in _id order, checkpointing after each batch. A crash between a batch insert and its
+    // checkpoint copies that one batch twice (time-series collections have no unique _id index)
+    private void copyLegacySamples(ClusterLeaseService.Lease lease) {
+        MongoCollection<Document> legacy = mongoTemplate.getCollection(legacyCollectionName);
+        MongoCollection<Document> target = mongoTemplate.getCollection(collectionName);
+        MongoCollection<Document> migrations = mongoTemplate.getCollection(MIGRATIONS_COLLECTION);
+
+        Document checkpoint = migrations.find(Filters.eq("_id", MIGRATION_ID)).first();
+        Object lastId = checkpoint != null ? checkpoint.get("lastId") : null;
+        log.info("Copying metric samples from {} into {}{}", legacyCollectionName, collectionName,
+                lastId != null ? " (resuming after " + lastId + ")" : "");
+
+        while (copying && leaseService.isHeld(lease)) {
+            List<Document> batch = legacy
+                    .find(lastId == null
+                            ? Filters.exists("timestamp")
+                            : Filters.and(Filters.gt("_id", lastId), Filters.exists("timestamp")))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(copyBatchSize)
+                    .into(new ArrayList<>());
+
+            if (batch.isEmpty()) {
+                migrations.updateOne(Filters.eq("_id", MIGRATION_ID),
+                        Updates.combine(Updates.set("completedAt", new Date()), Updates.set("lastId", lastId)),
+                        new UpdateOptions().upsert(true));
+                copyPending = false;
+                log.info("Metric samples copied to time-series collection {}; {} can be dropped once verified",
+                        collectionName, legacyCollectionName);
+                return;
+            }
+
+            target.insertMany(batch, new InsertManyOptions().ordered(false));
+            lastId = batch.get(batch.size() - 1).get("_id");
+            copied.addAndGet(batch.size());
+            migrations.updateOne(Filters.eq("_id", MIGRATION_ID),
+                    Updates.combine(Updates.set("lastId", lastId), Updates.inc("copied", batch.size()),
+                            Updates.set("updatedAt", new Date())),
+                    new UpdateOptions().upsert(true));
+        }
+    }
+
+    private boolean migrationCompleted() {
+        Document migration = mongoTemplate.getCollection(MIGRATIONS_COLLECTION)
+                .find(Filters.eq("_id", MIGRATION_ID)).first();
+        return migration != null && migration.get("completedAt") != null;
+    }
+
+    private String collectionType(String name) {
+        Document info = mongoTemplate.getDb().listCollections().filter(Filters.eq("name", name)).first();
+        return info != null ? info.getString("type") : null;
+    }
+
+    private int serverMajorVersion() {
+        try {
+            String version = mongoTemplate.executeCommand(new Document("buildInfo", 1)).getString("version");
+            return Integer.parseInt(version.substring(0, version.indexOf('.')));
+        } catch (Exception e) {
+            log.warn("Could not read the MongoDB server version: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+// Single-flight for platform metric fetches: concurrent callers asking for the same (platform, identifier)
+// share one upstream call, and a result stays reusable for freshness-seconds afterwards.
+// Blocking and reactive callers share the same in-flight fetches; results are shared, so treat them as read-only
+public class MetricsFetchCoalescer {
+
+    private final long freshnessMs;
+    private final int cacheSize;
+
+    private final Map<String, CompletableFuture<PlatformMetricsDTO>> inFlight = new ConcurrentHashMap<>();
+    // Recent results (bounded, least recently used entries evicted)
+    private final Map<String, FreshResult> recentResults;
+
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong freshHits = new AtomicLong();
+
+    public MetricsFetchCoalescer(@Value("${platform.fetch.freshness-seconds:10}") long freshnessSeconds,
+                                 @Value("${platform.fetch.cache-size:10000}") int cacheSize) {
+        this.freshnessMs = Math.max(freshnessSeconds, 0) * 1000;
+        this.cacheSize = Math.max(cacheSize, 1);
+        this.recentResults = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FreshResult> eldest) {
+                return size() > MetricsFetchCoalescer.this.cacheSize;
+            }
+        });
+    }
+
+    // Blocking fetch: a fresh result, else the fetch already in flight, else the caller fetches for everyone
+    public PlatformMetricsDTO get(Platform platform, String identifier, Supplier<PlatformMetricsDTO> fetch) {
+        String key = key(platform, identifier);
+        PlatformMetricsDTO fresh = getFresh(key);
+        if (fresh != null) return fresh;
+
+        CompletableFuture<PlatformMetricsDTO> mine = new CompletableFuture<>();
+        CompletableFuture<PlatformMetricsDTO> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            joined.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CancellationException e) {
+                // The reactive caller that owned it went away; fetching on our own
+                return fetch.get();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        fetches.incrementAndGet();
+        try {
+            PlatformMetricsDTO metrics = fetch.get();
+            remember(key, metrics);
+            mine.complete(metrics);
+            return metrics;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Reactive counterpart of get; the upstream Mono is only subscribed by the first caller
+    public Mono<PlatformMetricsDTO> fetch(Platform platform, String identifier,
+                                          Supplier<Mono<PlatformMetricsDTO>> fetch) {
+        return Mono.defer(() -> {
+            String key = key(platform, identifier);
+            PlatformMetricsDTO fresh = getFresh(key);
+            if (fresh != null) return Mono.just(fresh);
+
+            CompletableFuture<PlatformMetricsDTO> mine = new CompletableFuture<>();
+            CompletableFuture<PlatformMetricsDTO> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                joined.incrementAndGet();
+                // Not cancelling the shared fetch when this subscriber goes away
+                return Mono.fromFuture(existing, true)
+                        .onErrorResume(CancellationException.class, e -> fetch.get());
+            }
+
+            fetches.incrementAndGet();
+            return fetch.get()
+                    .doOnSuccess(metrics -> {
+                        remember(key, metrics);
+                        mine.complete(metrics);
+                    })
+                    .doOnError(mine::completeExceptionally)
+                    .doFinally(signal -> {
+                        inFlight.remove(key, mine);
+                        mine.cancel(false);
+                    });
+        });
+    }
+
+    // Fresh result without fetching, or null
+    public PlatformMetricsDTO getFresh(Platform platform, String identifier) {
+        return getFresh(key(platform, identifier));
+    }
+
+    // Results fetched outside this class (e.g. multi-id batches) become reusable too
+    public void remember(Platform platform, String identifier, PlatformMetricsDTO metrics) {
+        remember(key(platform, identifier), metrics);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("freshnessSeconds", freshnessMs / 1000);
+        status.put("inFlight", inFlight.size());
+        status.put("cached", recentResults.size());
+        status.put("fetches", fetches.get());
+        status.put("joinedInFlight", joined.get());
+        status.put("freshHits", freshHits.get());
+        return status;
+    }
+
+
+    // HELPER methods
+
+    private PlatformMetricsDTO getFresh(String key) {
+        if (freshnessMs == 0) return null;
+
+        FreshResult result = recentResults.get(key);
+        if (result == null) return null;
+        if (System.currentTimeMillis() - result.storedAtMs() > freshnessMs) {
+            recentResults.remove(key, result);
+            return null;
+        }
+        freshHits.incrementAndGet();
+        return result.metrics();
+    }
+
+    private void remember(String key, PlatformMetricsDTO metrics) {
+        if (freshnessMs == 0 || metrics == null) return;
+        recentResults.put(key, new FreshResult(metrics, System.currentTimeMillis()));
+    }
+
+    private String key(Platform platform, String identifier) {
+        return platform.name() + ":" + identifier;
+    }
+
+    private record FreshResult(PlatformMetricsDTO metrics, long storedAtMs) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsBucket;
+import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+// Stamps the content's platform on metric samples ("p") and buckets ("platform") stored before they carried it,
+// so platform analytics can select samples by that field alone. Walks the content in keyset pages and updates
+// the samples of each page per platform, checkpointing after every page; runs once the time-series copy is done.
+// Updating time-series samples by a non-meta field needs MongoDB 7.0; on older servers those samples are left
+// without a platform and drop out of platform analytics as they expire
+public class MetricsPlatformBackfill {
+
+    private static final String MIGRATIONS_COLLECTION = "metrics_migrations";
+    private static final String BACKFILL_ID = "content_metrics_platform";
+    private static final String BACKFILL_LEASE = "metrics-platform-backfill";
+
+    private final MongoTemplate mongoTemplate;
+    private final IContentRepository contentRepository;
+    private final ClusterLeaseService leaseService;
+    private final MetricsCollectionMigrator collectionMigrator;
+    private final int pageSize;
+
+    private final AtomicLong stamped = new AtomicLong();
+    private volatile boolean completed;
+    private volatile boolean running;
+    private volatile boolean timeSeriesUpdates = true;
+    private volatile Thread runner;
+
+    public MetricsPlatformBackfill(MongoTemplate mongoTemplate,
+                                   IContentRepository contentRepository,
+                                   ClusterLeaseService leaseService,
+                                   MetricsCollectionMigrator collectionMigrator,
+                                   @Value("${content.iteration.page-size:1000}") int pageSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.contentRepository = contentRepository;
+        this.leaseService = leaseService;
+        this.collectionMigrator = collectionMigrator;
+        this.pageSize = Math.max(pageSize, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.time-series.check-interval-ms:60000}", initialDelay = 90000)
+    public void check() {
+        // Samples still waiting in the legacy collection would be copied over without a platform
+        if (completed || running || collectionMigrator.isCopyPending()) return;
+        try {
+            Document state = state();
+            completed = state != null && state.get("completedAt") != null;
+            if (completed) return;
+
+            Optional<ClusterLeaseService.Lease> lease = leaseService.tryAcquire(BACKFILL_LEASE);
+            if (lease.isEmpty()) return;
+            start(lease.get(), state != null ? state.getLong("lastContentId") : null);
+        } catch (Exception e) {
+            log.error("Metric sample platform backfill check failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running);
+        status.put("stampedByThisNode", stamped.get());
+        status.put("timeSeriesUpdates", timeSeriesUpdates);
+        status.put("backfill", state());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = runner;
+        if (thread != null) {
+            try {
+                thread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    // HELPER methods
+
+    private void start(ClusterLeaseService.Lease lease, Long lastContentId) {
+        running = true;
+        runner = new Thread(() -> {
+            try {
+                backfill(lease, lastContentId);
+            } catch (Exception e) {
+                log.error("Metric sample platform backfill failed, retrying on the next check: {}", e.getMessage());
+            } finally {
+                running = false;
+                runner = null;
+            }
+        }, "metrics-platform-backfill");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    // A crash between a page's updates and its checkpoint redoes that page, which only finds nothing left to stamp
+    private void backfill(ClusterLeaseService.Lease lease, Long lastContentId) {
+        MongoCollection<Document> samples = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ContentMetrics.class));
+        MongoCollection<Document> buckets = mongoTemplate.getCollection(
+                mongoTemplate.getCollectionName(ContentMetricsBucket.class));
+        MongoCollection<Document> migrations = mongoTemplate.getCollection(MIGRATIONS_COLLECTION);
+        log.info("Stamping the platform on stored metric samples{}",
+                lastContentId != null ? " (resuming after content " + lastContentId + ")" : "");
+
+        long afterId = lastContentId != null ? lastContentId : 0L;
+        while (running && leaseService.isHeld(lease)) {
+            List<Object[]> page = contentRepository.findPlatformsAfter(afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                migrations.updateOne(Filters.eq("_id", BACKFILL_ID), Updates.set("completedAt", new Date()),
+                        new UpdateOptions().upsert(true));
+                completed = true;
+                log.info("Metric sample platform backfill completed");
+                return;
+            }
+
+            Map<Platform, List<Long>> idsByPlatform = new EnumMap<>(Platform.class);
+            for (Object[] row : page) {
+                idsByPlatform.computeIfAbsent((Platform) row[1], platform -> new ArrayList<>()).add((Long) row[0]);
+            }
+            long pageStamped = 0;
+            for (Map.Entry<Platform, List<Long>> entry : idsByPlatform.entrySet()) {
+                pageStamped += stampSamples(samples, entry.getValue(), entry.getKey());
+                pageStamped += buckets.updateMany(
+                        Filters.and(Filters.in("contentId", entry.getValue()), Filters.exists("platform", false)),
+                        Updates.set("platform", entry.getKey().name())).getModifiedCount();
+            }
+            stamped.addAndGet(pageStamped);
+
+            afterId = (Long) page.get(page.size() - 1)[0];
+            migrations.updateOne(Filters.eq("_id", BACKFILL_ID),
+                    Updates.combine(Updates.set("lastContentId", afterId), Updates.inc("stamped", pageStamped),
+                            Updates.set("updatedAt", new Date())),
+                    new UpdateOptions().upsert(true));
+        }
+    }
+
+    private long stampSamples(MongoCollection<Document> samples, List<Long> contentIds, Platform platform) {
+        if (collectionMigrator.isTimeSeries() && !timeSeriesUpdates) return 0;
+        try {
+            return samples.updateMany(Filters.and(Filters.in("contentId", contentIds), Filters.exists("p", false)),
+                    Updates.set("p", platform.name())).getModifiedCount();
+        } catch (Exception e) {
+            if (!collectionMigrator.isTimeSeries()) throw e;
+            timeSeriesUpdates = false;
+            log.info("Time-series samples without a platform are left to expire: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private Document state() {
+        return mongoTemplate.getCollection(MIGRATIONS_COLLECTION).find(Filters.eq("_id", BACKFILL_ID)).first();
+    }
+}
@@ -0,0 +1,507 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.enums.MetricsTier;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetricsRollup;
+import com.contentanalytics.content_analytic_system.model.mongo.DailyContentMetrics;
+import com.contentanalytics.content_analytic_system.model.mongo.HourlyContentMetrics;
+import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.DeleteResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+// Hourly and daily rollups of the metric samples: last value, max, delta and sample count per counter.
+// New samples are folded in as they are written and upserted in bulk every flush-interval-ms; samples stored
+// before the rollups existed are backfilled once in the background. Compaction then drops raw samples after
+// raw-retention-days and hourly rollups after hourly-retention-months; daily rollups are kept. With
+// metrics.archive.enabled raw samples are moved to the archive after its after-days instead (see
+// MetricsArchiveService), and a time-series collection expires them after-days plus a grace week
+public class MetricsRollupService {
+
+    private static final String MIGRATIONS_COLLECTION = "metrics_migrations";
+    private static final String BACKFILL_ID = "content_metrics_rollups";
+    private static final String COMPACTION_LEASE = "metrics-rollup-compaction";
+    private static final List<MetricsTier> ROLLUP_TIERS = List.of(MetricsTier.HOURLY, MetricsTier.DAILY);
+    // Time to archive a sample before a time-series collection expires it
+    private static final int ARCHIVE_GRACE_DAYS = 7;
+
+    private final MongoTemplate mongoTemplate;
+    private final IContentRepository contentRepository;
+    private final ClusterLeaseService leaseService;
+    private final MetricsCollectionMigrator collectionMigrator;
+    private final MetricsBucketStore bucketStore;
+    private final boolean enabled;
+    private final int rawRetentionDays;
+    private final int hourlyRetentionMonths;
+    private final int minPoints;
+    private final boolean archiveEnabled;
+    private final int archiveAfterDays;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    // Increments not upserted yet, by tier and rollup id
+    private final Map<String, PendingRollup> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong upserted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong backfilled = new AtomicLong();
+    private volatile boolean backfillCompleted;
+    private volatile boolean backfilling;
+    private volatile Thread backfiller;
+    private volatile LocalDateTime lastCompactionAt;
+
+    public MetricsRollupService(MongoTemplate mongoTemplate,
+                                IContentRepository contentRepository,
+                                ClusterLeaseService leaseService,
+                                MetricsCollectionMigrator collectionMigrator,
+                                MetricsBucketStore bucketStore,
+                                @Value("${metrics.rollups.enabled:true}") boolean enabled,
+                                @Value("${metrics.rollups.raw-retention-days:30}") int rawRetentionDays,
+                                @Value("${metrics.rollups.hourly-retention-months:6}") int hourlyRetentionMonths,
+                                @Value("${metrics.rollups.min-points:48}") int minPoints,
+                                @Value("${metrics.archive.enabled:false}") boolean archiveEnabled,
+                                @Value("${metrics.archive.after-days:90}") int archiveAfterDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.contentRepository = contentRepository;
+        this.leaseService = leaseService;
+        this.collectionMigrator = collectionMigrator;
+        this.bucketStore = bucketStore;
+        this.enabled = enabled;
+        this.rawRetentionDays = rawRetentionDays;
+        this.hourlyRetentionMonths = hourlyRetentionMonths;
+        this.minPoints = Math.max(minPoints, 1);
+        this.archiveEnabled = archiveEnabled;
+        this.archiveAfterDays = Math.max(archiveAfterDays, 1);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+        try {
+            // Pins the point the backfill stops at (the first node to start sets it)
+            backfillCompleted = backfillState().get("completedAt") != null;
+        } catch (Exception e) {
+            log.warn("Could not read the metric rollup backfill state: {}", e.getMessage());
+        }
+    }
+
+    // Folds a newly stored sample into its hourly and daily rollups; previous are the counters stored before it
+    public void record(ContentMetrics sample, Platform platform, Map<String, Long> previous) {
+        if (!enabled) return;
+        fold(pending, sample.getContentId(), platform, sample.getTimestamp(), sample.getMetrics(), previous, false);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        List<PendingRollup> batch = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            PendingRollup rollup = pending.remove(key);
+            if (rollup != null) {
+                batch.add(rollup);
+            }
+        }
+        // Failed increments go back in for the next flush
+        for (PendingRollup rollup : upsert(batch)) {
+            pending.merge(rollup.key(), rollup, PendingRollup::merge);
+        }
+    }
+
+    // Coarsest tier that still gives min-points buckets over the range and whose retention reaches back to from
+    // (null: the whole history); when none gives that many, the finest tier still holding from
+    public MetricsTier selectTier(LocalDateTime from, LocalDateTime to) {
+        return selectTier(from, to, MetricsTier.DAILY);
+    }
+
+    // Same, for reads that need buckets no coarser than the given tier
+    public MetricsTier selectTier(LocalDateTime from, LocalDateTime to, MetricsTier coarsest) {
+        // Until the backfill is done only the raw samples hold the full history
+        if (!enabled || !backfillCompleted) return MetricsTier.RAW;
+
+        MetricsTier finestRetained = coarsest;
+        for (MetricsTier tier : List.of(MetricsTier.DAILY, MetricsTier.HOURLY, MetricsTier.RAW)) {
+            if (tier.compareTo(coarsest) > 0 || !retains(tier, from)) continue;
+            if (tier == MetricsTier.RAW || from == null
+                    || Duration.between(from, to).dividedBy(tier.getResolution()) >= minPoints) {
+                return tier;
+            }
+            finestRetained = tier;
+        }
+        return finestRetained;
+    }
+
+    // Rollups of a content whose buckets overlap the range, oldest first
+    public List<ContentMetricsRollup> getRollups(MetricsTier tier, Long contentId, LocalDateTime from, LocalDateTime to) {
+        Query query = Query.query(Criteria.where("contentId").is(contentId)
+                        .and("bucketStart").gte(tier.bucketStart(from)).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "bucketStart"));
+        return new ArrayList<>(mongoTemplate.find(query, documentType(tier)));
+    }
+
+    public Class<? extends ContentMetricsRollup> documentType(MetricsTier tier) {
+        return switch (tier) {
+            case HOURLY -> HourlyContentMetrics.class;
+            case DAILY -> DailyContentMetrics.class;
+            case RAW -> throw new IllegalArgumentException("Raw samples have no rollup collection");
+        };
+    }
+
+    public void deleteRollups(Long contentId) {
+        pending.values().removeIf(rollup -> rollup.contentId == contentId);
+        for (MetricsTier tier : ROLLUP_TIERS) {
+            mongoTemplate.remove(Query.query(Criteria.where("contentId").is(contentId)), documentType(tier));
+        }
+    }
+
+    // Backfills once, then applies the retention of the raw samples and hourly rollups (one node at a time)
+    @Scheduled(fixedDelayString = "${metrics.rollups.compaction-interval-ms:3600000}", initialDelay = 60000)
+    public void compact() {
+        if (!enabled || backfilling) return;
+        try {
+            Document state = backfillState();
+            backfillCompleted = state.get("completedAt") != null;
+
+            Optional<ClusterLeaseService.Lease> lease = leaseService.tryAcquire(COMPACTION_LEASE);
+            if (lease.isEmpty()) return;
+
+            if (!backfillCompleted) {
+                // Samples still waiting in the legacy collection would be missed
+                if (!collectionMigrator.isCopyPending()) {
+                    startBackfill(lease.get(), state);
+                }
+                return;
+            }
+
+            expireRawSamples();
+            expireHourlyRollups();
+            lastCompactionAt = LocalDateTime.now();
+        } catch (Exception e) {
+            log.error("Metrics rollup compaction failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Whether samples stored before the rollups existed still have to be rolled up
+    public boolean isBackfillPending() {
+        return enabled && !backfillCompleted;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("rawRetentionDays", rawRetentionDays);
+        status.put("hourlyRetentionMonths", hourlyRetentionMonths);
+        status.put("pending", pending.size());
+        status.put("upserted", upserted.get());
+        status.put("failed", failed.get());
+        status.put("backfilling", backfilling);
+        status.put("backfilledByThisNode", backfilled.get());
+        status.put("backfill", mongoTemplate.getCollection(MIGRATIONS_COLLECTION)
+                .find(Filters.eq("_id", BACKFILL_ID)).first());
+        status.put("lastCompactionAt", lastCompactionAt);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfilling = false;
+        Thread thread = backfiller;
+        if (thread != null) {
+            try {
+                thread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+
+    // HELPER methods
+
+    private void fold(Map<String, PendingRollup> target, long contentId, Platform platform, LocalDateTime timestamp,
+                      Map<String, Long> counters, Map<String, Long> previous, boolean backfill) {
+        for (MetricsTier tier : ROLLUP_TIERS) {
+            PendingRollup rollup = PendingRollup.of(tier, contentId, platform, tier.bucketStart(timestamp), timestamp,
+                    counters, previous, backfill);
+            target.merge(rollup.key(), rollup, PendingRollup::merge);
+        }
+    }
+
+    // One unordered bulk upsert per tier; returns the rollups that failed
+    private List<PendingRollup> upsert(List<PendingRollup> rollups) {
+        List<PendingRollup> failures = new ArrayList<>();
+        for (MetricsTier tier : ROLLUP_TIERS) {
+            List<PendingRollup> batch = rollups.stream().filter(rollup -> rollup.tier == tier).toList();
+            if (batch.isEmpty()) continue;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, documentType(tier));
+            batch.forEach(rollup -> bulk.upsert(Query.query(Criteria.where("_id").is(rollup.id)), rollup.toUpdate()));
+            try {
+                bulk.execute();
+                upserted.addAndGet(batch.size());
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    failures.add(batch.get(error.getIndex()));
+                }
+                upserted.addAndGet(batch.size() - e.getErrors().size());
+                failed.addAndGet(e.getErrors().size());
+                log.error("{} of {} {} metric rollups failed to upsert: {}",
+                        e.getErrors().size(), batch.size(), tier, e.getMessage());
+            } catch (Exception e) {
+                failures.addAll(batch);
+                failed.addAndGet(batch.size());
+                log.error("Failed to upsert {} {} metric rollups: {}", batch.size(), tier, e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    private boolean retains(MetricsTier tier, LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        return switch (tier) {
+            case RAW -> {
+                // Archived samples are only read back per content, not by the aggregations over the raw collections
+                int rawDays = archiveEnabled ? archiveAfterDays : rawRetentionDays;
+                yield rawDays <= 0 || from != null && !from.isBefore(now.minusDays(rawDays));
+            }
+            case HOURLY -> hourlyRetentionMonths <= 0
+                    || from != null && !from.isBefore(now.minusMonths(hourlyRetentionMonths));
+            case DAILY -> true;
+        };
+    }
+
+    private void expireRawSamples() {
+        if (archiveEnabled) {
+            // The archiver removes what it archived; time-series samples it can't delete expire a little later
+            if (collectionMigrator.isTimeSeries()) {
+                mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(ContentMetrics.class))
+                        .append("expireAfterSeconds", Duration.ofDays(archiveAfterDays + ARCHIVE_GRACE_DAYS).toSeconds()));
+            }
+            return;
+        }
+        if (rawRetentionDays <= 0) return;
+
+        if (bucketStore.isActive()) {
+            long buckets = bucketStore.expire(LocalDateTime.now().minusDays(rawRetentionDays));
+            if (buckets > 0) {
+                log.info("Compacted {} metric sample buckets older than {} days", buckets, rawRetentionDays);
+            }
+        }
+        String collection = mongoTemplate.getCollectionName(ContentMetrics.class);
+        if (collectionMigrator.isTimeSeries()) {
+            // Time-series collections expire old buckets themselves (deleting by timestamp needs MongoDB 7.0)
+            mongoTemplate.executeCommand(new Document("collMod", collection)
+                    .append("expireAfterSeconds", Duration.ofDays(rawRetentionDays).toSeconds()));
+            return;
+        }
+        DeleteResult result = mongoTemplate.remove(Query.query(Criteria.where("timestamp")
+                .lt(LocalDateTime.now().minusDays(rawRetentionDays))), ContentMetrics.class);
+        if (result.getDeletedCount() > 0) {
+            log.info("Compacted {} raw metric samples older than {} days", result.getDeletedCount(), rawRetentionDays);
+        }
+    }
+
+    private void expireHourlyRollups() {
+        if (hourlyRetentionMonths <= 0) return;
+
+        DeleteResult result = mongoTemplate.remove(Query.query(Criteria.where("bucketStart")
+                .lt(LocalDateTime.now().minusMonths(hourlyRetentionMonths))), HourlyContentMetrics.class);
+        if (result.getDeletedCount() > 0) {
+            log.info("Compacted {} hourly metric rollups older than {} months",
+                    result.getDeletedCount(), hourlyRetentionMonths);
+        }
+    }
+
+    // Backfill progress; the first read records "since", the point from which samples are rolled up as written
+    private Document backfillState() {
+        return mongoTemplate.getCollection(MIGRATIONS_COLLECTION).findOneAndUpdate(
+                Filters.eq("_id", BACKFILL_ID),
+                Updates.setOnInsert("since", Date.from(startedAt.atZone(ZoneId.systemDefault()).toInstant())),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+    }
+
+    private void startBackfill(ClusterLeaseService.Lease lease, Document state) {
+        backfilling = true;
+        backfiller = new Thread(() -> {
+            try {
+                backfill(lease, state);
+            } catch (Exception e) {
+                log.error("Backfilling metric rollups failed, retrying on the next check: {}", e.getMessage());
+            } finally {
+                backfilling = false;
+                backfiller = null;
+            }
+        }, "metrics-rollup-backfill");
+        backfiller.setDaemon(true);
+        backfiller.start();
+    }
+
+    // Rolls up the samples stored before "since", one content at a time in contentId order, checkpointing after
+    // each. A crash between a content's upserts and its checkpoint counts that content's samples twice
+    private void backfill(ClusterLeaseService.Lease lease, Document state) {
+        LocalDateTime since = LocalDateTime.ofInstant(state.getDate("since").toInstant(), ZoneId.systemDefault());
+        Long lastContentId = state.getLong("lastContentId");
+        log.info("Backfilling metric rollups for samples before {}{}", since,
+                lastContentId != null ? " (resuming after content " + lastContentId + ")" : "");
+
+        Criteria before = Criteria.where("timestamp").lt(since);
+        if (lastContentId != null) {
+            before = before.and("contentId").gt(lastContentId);
+        }
+        List<Long> contentIds = new ArrayList<>(mongoTemplate.findDistinct(
+                Query.query(before), "contentId", ContentMetrics.class, Long.class));
+        contentIds.sort(null);
+
+        for (Long contentId : contentIds) {
+            if (!backfilling || !leaseService.isHeld(lease)) return;
+
+            Platform platform = contentRepository.findById(contentId).map(Content::getPlatform).orElse(null);
+            Map<String, PendingRollup> rollups = new HashMap<>();
+            Map<String, Long> previous = null;
+            try (Stream<ContentMetrics> samples = mongoTemplate.stream(
+                    Query.query(Criteria.where("contentId").is(contentId).and("timestamp").lt(since))
+                            .with(Sort.by(Sort.Direction.ASC, "timestamp")), ContentMetrics.class)) {
+                for (ContentMetrics sample : (Iterable<ContentMetrics>) samples::iterator) {
+                    fold(rollups, contentId, platform, sample.getTimestamp(), sample.getMetrics(), previous, true);
+                    previous = sample.getMetrics();
+                }
+            }
+            if (!upsert(new ArrayList<>(rollups.values())).isEmpty()) {
+                throw new IllegalStateException("Rollup upserts failed for content " + contentId);
+            }
+
+            backfilled.incrementAndGet();
+            mongoTemplate.getCollection(MIGRATIONS_COLLECTION).updateOne(Filters.eq("_id", BACKFILL_ID),
+                    Updates.combine(Updates.set("lastContentId", contentId), Updates.inc("contents", 1),
+                            Updates.set("updatedAt", new Date())),
+                    new UpdateOptions().upsert(true));
+        }
+
+        mongoTemplate.getCollection(MIGRATIONS_COLLECTION).updateOne(Filters.eq("_id", BACKFILL_ID),
+                Updates.set("completedAt", new Date()), new UpdateOptions().upsert(true));
+        backfillCompleted = true;
+        log.info("Metric rollup backfill completed");
+    }
+
+
+    // Increments for one rollup document, merged in memory until the next flush
+    private static final class PendingRollup {
+        private final MetricsTier tier;
+        private final String id;
+        private final long contentId;
+        private final LocalDateTime bucketStart;
+        // Backfilled rollups never overwrite the last values of one that incremental updates created
+        private final boolean backfill;
+        private Platform platform;
+        private LocalDateTime lastSampleAt;
+        private long count;
+        private Map<String, Long> last = new HashMap<>();
+        private final Map<String, Long> max = new HashMap<>();
+        private final Map<String, Long> delta = new HashMap<>();
+
+        private PendingRollup(MetricsTier tier, long contentId, LocalDateTime bucketStart, boolean backfill) {
+            this.tier = tier;
+            this.id = contentId + ":" + bucketStart.toEpochSecond(ZoneOffset.UTC);
+            this.contentId = contentId;
+            this.bucketStart = bucketStart;
+            this.backfill = backfill;
+        }
+
+        static PendingRollup of(MetricsTier tier, long contentId, Platform platform, LocalDateTime bucketStart,
+                                LocalDateTime timestamp, Map<String, Long> counters, Map<String, Long> previous,
+                                boolean backfill) {
+            PendingRollup rollup = new PendingRollup(tier, contentId, bucketStart, backfill);
+            rollup.platform = platform;
+            rollup.lastSampleAt = timestamp;
+            rollup.count = 1;
+            counters.forEach((name, value) -> {
+                if (value == null) return;
+                Long before = previous != null ? previous.get(name) : null;
+                rollup.last.put(name, value);
+                rollup.max.put(name, value);
+                rollup.delta.put(name, before != null ? value - before : 0L);
+            });
+            return rollup;
+        }
+
+        String key() {
+            return tier + ":" + id;
+        }
+
+        PendingRollup merge(PendingRollup other) {
+            count += other.count;
+            other.max.forEach((name, value) -> max.merge(name, value, Math::max));
+            other.delta.forEach((name, value) -> delta.merge(name, value, Long::sum));
+            if (other.lastSampleAt.isAfter(lastSampleAt)) {
+                lastSampleAt = other.lastSampleAt;
+                last = other.last;
+            }
+            if (platform == null) {
+                platform = other.platform;
+            }
+            return this;
+        }
+
+        Update toUpdate() {
+            Update update = new Update()
+                    .setOnInsert("contentId", contentId)
+                    .setOnInsert("bucketStart", bucketStart)
+                    .inc("count", count)
+                    .max("lastSampleAt", lastSampleAt);
+            if (platform != null) {
+                update.set("platform", platform);
+            }
+            last.forEach((name, value) -> {
+                if (backfill) {
+                    update.setOnInsert("last." + name, value);
+                } else {
+                    update.set("last." + name, value);
+                }
+            });
+            max.forEach((name, value) -> update.max("max." + name, value));
+            delta.forEach((name, value) -> update.inc("delta." + name, value));
+            return update;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// Packs a counter series into one block: timestamps as delta-of-delta (millis) and each counter as the delta
+// from the previous sample, all zig-zag varints. Samples taken at a steady interval with slowly moving
+// counters come down to a few bytes each. Layout: version, count, timestamp column, then one column per counter
+final class MetricsSeriesCodec {
+
+    private static final int VERSION = 1;
+
+    private MetricsSeriesCodec() {
+    }
+
+    // Samples in timestamp order
+    static byte[] encode(List<ContentMetrics> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(samples.size() * 8 + 16);
+        out.write(VERSION);
+        writeVarint(out, samples.size());
+
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            long timestamp = toMillis(samples.get(i).getTimestamp());
+            if (i == 0) {
+                writeSigned(out, timestamp);
+            } else {
+                long delta = timestamp - previous;
+                writeSigned(out, delta - previousDelta);
+                previousDelta = delta;
+            }
+            previous = timestamp;
+        }
+
+        for (String counter : ContentMetrics.COUNTERS) {
+            long last = 0;
+            for (ContentMetrics sample : samples) {
+                long value = sample.getCounter(counter);
+                writeSigned(out, value - last);
+                last = value;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Samples of a block in order, ids <idPrefix>:<index>
+    static List<ContentMetrics> decode(byte[] block, long contentId, String idPrefix) {
+        Reader in = new Reader(block);
+        int version = in.next();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown metrics block version " + version);
+        }
+        int count = (int) in.readVarint();
+
+        long[] timestamps = new long[count];
+        long delta = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                timestamps[0] = in.readSigned();
+            } else {
+                delta += in.readSigned();
+                timestamps[i] = timestamps[i - 1] + delta;
+            }
+        }
+
+        List<ContentMetrics> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ContentMetrics sample = new ContentMetrics();
+            sample.setId(idPrefix + ":" + i);
+            sample.setContentId(contentId);
+            sample.setTimestamp(toLocalDateTime(timestamps[i]));
+            sample.setLastCheckedAt(sample.getTimestamp());
+            samples.add(sample);
+        }
+        for (String counter : ContentMetrics.COUNTERS) {
+            long value = 0;
+            for (ContentMetrics sample : samples) {
+                value += in.readSigned();
+                sample.setCounter(counter, value);
+            }
+        }
+        return samples;
+    }
+
+
+    // HELPER methods
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int next() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated metrics block");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint in metrics block");
+        }
+
+        long readSigned() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.dto.ContentCounterUpdate;
+import com.contentanalytics.content_analytic_system.model.dto.ContentSyncView;
+import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
+import com.contentanalytics.content_analytic_system.model.dto.SyncShardProgress;
+import com.contentanalytics.content_analytic_system.model.dto.SyncTask;
+import com.contentanalytics.content_analytic_system.model.entity.SyncRun;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+// Splits content into shards (platform + id range), queues it by priority and syncs it on a bounded worker pool
+public class MetricsSyncEngine {
+
+    private final IContentRepository contentRepository;
+    private final PlatformIntegrationManager platformManager;
+    private final ContentMetricsService metricsService;
+    private final SyncPriorityQueue syncQueue;
+    private final SyncRunJournal runJournal;
+    private final ClusterLeaseService leaseService;
+    private final SyncIntervalPolicy intervalPolicy;
+    private final ThreadPoolTaskExecutor syncExecutor;
+    private final long shardSize;
+    private final int workerThreads;
+    private final long cycleDeadlineMs;
+    private final int counterBatchSize;
+    private final int checkpointInterval;
+
+    // Counters of synced content waiting for the next batched MySQL update
+    private final Queue<ContentCounterUpdate> pendingCounters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCounterCount = new AtomicInteger();
+
+    // Per-platform limit on sync calls running at the same time
+    private final Map<Platform, Semaphore> platformPermits = new EnumMap<>(Platform.class);
+
+    private final AtomicBoolean cycleRunning = new AtomicBoolean(false);
+    private final AtomicLong carriedOver = new AtomicLong();
+    private volatile Map<String, SyncShardProgress> currentShards = Collections.emptyMap();
+    private volatile SyncRun currentRun;
+    private volatile LocalDateTime cycleStartedAt;
+    private volatile LocalDateTime cycleFinishedAt;
+
+    public MetricsSyncEngine(IContentRepository contentRepository,
+                             PlatformIntegrationManager platformManager,
+                             ContentMetricsService metricsService,
+                             SyncPriorityQueue syncQueue,
+                             SyncRunJournal runJournal,
+                             ClusterLeaseService leaseService,
+                             SyncIntervalPolicy intervalPolicy,
+                             @Qualifier("metricsSyncExecutor") ThreadPoolTaskExecutor syncExecutor,
+                             @Value("${sync.shard-size:5000}") long shardSize,
+                             @Value("${sync.worker-threads:8}") int workerThreads,
+                             @Value("${sync.cycle-deadline-ms:270000}") long cycleDeadlineMs,
+                             @Value("${sync.counter-batch-size:500}") int counterBatchSize,
+                             @Value("${sync.checkpoint-interval:100}") int checkpointInterval,
+                             Environment environment) {
+
+        this.contentRepository = contentRepository;
+        this.platformManager = platformManager;
+        this.metricsService = metricsService;
+        this.syncQueue = syncQueue;
+        this.runJournal = runJournal;
+        this.leaseService = leaseService;
+        this.intervalPolicy = intervalPolicy;
+        this.syncExecutor = syncExecutor;
+        this.shardSize = shardSize;
+        this.workerThreads = workerThreads;
+        this.cycleDeadlineMs = cycleDeadlineMs;
+        this.counterBatchSize = Math.max(counterBatchSize, 1);
+        this.checkpointInterval = Math.max(checkpointInterval, 1);
+
+        int defaultConcurrency = environment.getProperty("sync.platform-concurrency.default", Integer.class, 4);
+        for (Platform platform : Platform.values()) {
+            int permits = environment.getProperty(
+                    "sync.platform-concurrency." + platform.name().toLowerCase(), Integer.class, defaultConcurrency);
+            platformPermits.put(platform, new Semaphore(Math.max(permits, 1)));
+        }
+
+    }
+
+    // Runs one sync cycle: scan shards into the priority queue, then drain it until the deadline
+    // A run left unfinished by a restart is resumed from its checkpoints instead of starting over
+    // The caller holds the sync lease; once it's lost the cycle stops taking new work
+    public void runCycle(ClusterLeaseService.Lease lease) {
+        if (!cycleRunning.compareAndSet(false, true)) {
+            log.warn("Previous metrics sync cycle still running - skipping this one");
+            return;
+        }
+
+        try {
+            cycleStartedAt = LocalDateTime.now();
+            cycleFinishedAt = null;
+            long deadline = System.currentTimeMillis() + cycleDeadlineMs;
+
+            Optional<SyncRun> unfinished = runJournal.findUnfinishedRun();
+            List<SyncShardProgress> plannedShards;
+            SyncRun run;
+            if (unfinished.isPresent()) {
+                run = unfinished.get();
+                plannedShards = runJournal.resumeRun(run, lease);
+            } else {
+                plannedShards = planShards();
+                run = runJournal.startRun(plannedShards, lease);
+            }
+            currentRun = run;
+            syncQueue.refreshVelocities();
+            boolean resumed = unfinished.isPresent();
+
+            Map<String, SyncShardProgress> shards = new LinkedHashMap<>();
+            for (SyncShardProgress shard : plannedShards) {
+                shards.put(shard.getShardId(), shard);
+            }
+            currentShards = Collections.unmodifiableMap(shards);
+            log.info("Starting metrics sync run {} with {} shards, {} items carried over",
+                    run.getId(), shards.size(), syncQueue.depth());
+
+            // Scanning shards in parallel (finished shards of a resumed run are left alone)
+            runOnWorkers(shards.values().stream()
+                    .filter(shard -> shard.getState() != SyncShardProgress.ShardState.COMPLETED)
+                    .map(shard -> (Runnable) () -> scanShard(run, shard, resumed ? run.getStartedAt() : null))
+                    .toList());
+
+            // Draining the queue, highest priority first
+            List<Runnable> workers = new ArrayList<>();
+            for (int i = 0; i < workerThreads; i++) {
+                workers.add(() -> drainQueue(deadline, lease));
+            }
+            runOnWorkers(workers);
+            flushCounters();
+
+            long processed = shards.values().stream().mapToLong(s -> s.getProcessed().get()).sum();
+            long failed = shards.values().stream().mapToLong(s -> s.getFailed().get()).sum();
+            carriedOver.set(syncQueue.depth());
+            runJournal.finishRun(run, shards.values(), carriedOver.get());
+            log.info("Completed metrics sync run {}: {} synced, {} failed, {} carried over to next cycle",
+                    run.getId(), processed, failed, carriedOver.get());
+
+        } finally {
+            cycleFinishedAt = LocalDateTime.now();
+            cycleRunning.set(false);
+        }
+    }
+
+    // Syncs a single content item
+    public boolean syncContent(Long contentId, Platform platform) {
+        SyncTask task = new SyncTask();
+        task.setContentId(contentId);
+        task.setPlatform(platform);
+        contentRepository.findById(contentId).ifPresent(content -> {
+            task.setContentIdentifier(content.getContentIdentifier());
+            task.setViews(content.getViews());
+            task.setLastSyncedAt(content.getLastSyncedAt());
+            task.setSyncIntervalSeconds(content.getSyncIntervalSeconds());
+            task.setCreatedAt(content.getCreatedAt());
+        });
+
+        boolean synced = fetchAndStore(platform, List.of(task)).containsKey(contentId);
+        flushCounters();
+        return synced;
+    }
+
+    // Progress of the current (or last) cycle
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("running", cycleRunning.get());
+        progress.put("runId", currentRun != null ? currentRun.getId() : null);
+        progress.put("cycleStartedAt", cycleStartedAt);
+        progress.put("cycleFinishedAt", cycleFinishedAt);
+        progress.put("carriedOver", carriedOver.get());
+        progress.put("queue", syncQueue.getStatus());
+        progress.put("shards", currentShards.values());
+        return progress;
+    }
+
+
+    // HELPER methods
+
+    // Splitting every platform's id range into fixed-width shards
+    private List<SyncShardProgress> planShards() {
+        List<SyncShardProgress> shards = new ArrayList<>();
+
+        for (Object[] range : contentRepository.getPlatformIdRanges()) {
+            Platform platform = (Platform) range[0];
+            long minId = (Long) range[1];
+            long maxId = (Long) range[2];
+
+            for (long from = minId; from <= maxId; from += shardSize) {
+                shards.add(new SyncShardProgress(platform, from, Math.min(from + shardSize - 1, maxId)));
+            }
+        }
+        return shards;
+    }
+
+    private void runOnWorkers(List<Runnable> tasks) {
+        CompletableFuture<?>[] futures = tasks.stream()
+                .map(task -> CompletableFuture.runAsync(task, syncExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
+
+    // Queues every due item of the shard past its cursor; items still queued from the last cycle keep their place
+    // When resuming, items already synced since the run started are counted as skipped
+    private void scanShard(SyncRun run, SyncShardProgress shard, LocalDateTime resumedRunStartedAt) {
+        try {
+            shard.setState(SyncShardProgress.ShardState.RUNNING);
+            shard.setStartedAt(LocalDateTime.now());
+
+            // At most shard-size lightweight rows; archived, deleted and not-yet-due content never leaves the database
+            List<ContentSyncView> contents = contentRepository.findDueViewsInRange(
+                    shard.getPlatform(), Math.max(shard.getFromId(), shard.getCursorId() + 1), shard.getToId(),
+                    IContentRepository.UNSYNCED_STATUSES, LocalDateTime.now());
+            shard.startScan(contents.stream().mapToLong(ContentSyncView::getId).toArray());
+            shard.getTotal().set(shard.getFinished() + contents.size());
+
+            for (ContentSyncView content : contents) {
+                if (resumedRunStartedAt != null && content.getLastSyncedAt() != null
+                        && !content.getLastSyncedAt().isBefore(resumedRunStartedAt)) {
+                    shard.getSkipped().incrementAndGet();
+                    shard.markFinished(content.getId());
+                    continue;
+                }
+                syncQueue.offer(content, shard.getShardId());
+            }
+
+            if (shard.getFinished() >= shard.getTotal().get()) {
+                shard.setCursorId(shard.getToId());
+                shard.setState(SyncShardProgress.ShardState.COMPLETED);
+                shard.setFinishedAt(LocalDateTime.now());
+            }
+            runJournal.checkpoint(run, shard);
+        } catch (Exception e) {
+            log.error("Sync shard {} failed: {}", shard.getShardId(), e.getMessage());
+            shard.setState(SyncShardProgress.ShardState.FAILED);
+            shard.setFinishedAt(LocalDateTime.now());
+            runJournal.checkpoint(run, shard);
+        }
+    }
+
+    private void drainQueue(long deadline, ClusterLeaseService.Lease lease) {
+        while (System.currentTimeMillis() < deadline) {
+            if (!leaseService.isHeld(lease)) {
+                log.warn("Sync lease lost, leaving the rest of the queue to the next lease holder");
+                return;
+            }
+
+            SyncTask task = syncQueue.pollNext(platform -> platformPermits.get(platform).tryAcquire());
+
+            if (task == null) {
+                if (syncQueue.isEmpty()) return;
+                // Every platform with queued work is at its limit
+                if (!sleepQuietly(50)) return;
+                continue;
+            }
+
+            Platform platform = task.getPlatform();
+            try {
+                // Topping the batch up with the next items of the same platform (one permit per batch call)
+                List<SyncTask> batch = new ArrayList<>();
+                batch.add(task);
+                batch.addAll(syncQueue.pollMore(platform, platformManager.getBatchSize(platform) - 1));
+
+                Map<Long, PlatformMetricsDTO> synced = fetchAndStore(platform, batch);
+                for (SyncTask batchTask : batch) {
+                    PlatformMetricsDTO metrics = synced.get(batchTask.getContentId());
+                    if (metrics != null && metrics.getViews() != null) {
+                        syncQueue.recordSync(batchTask, metrics.getViews());
+                    }
+                    recordResult(batchTask, metrics != null);
+                }
+            } finally {
+                platformPermits.get(platform).release();
+            }
+        }
+    }
+
+    // Fetches one batch by content identifier and stores each result; returns what was stored by content id
+    private Map<Long, PlatformMetricsDTO> fetchAndStore(Platform platform, List<SyncTask> batch) {
+        Map<Long, PlatformMetricsDTO> stored = new HashMap<>();
+        try {
+            List<String> identifiers = batch.stream()
+                    .map(this::identifierOf)
+                    .toList();
+            Map<String, PlatformMetricsDTO> fetched = platformManager.getContentMetricsBatch(platform, identifiers);
+
+            for (SyncTask task : batch) {
+                PlatformMetricsDTO metrics = fetched.get(identifierOf(task));
+                if (metrics == null) {
+                    log.error("No metrics returned for content {} from {}", task.getContentId(), platform);
+                    continue;
+                }
+                try {
+                    // Sample to MongoDB now, counters to MySQL with the next batched update
+                    metricsService.recordSample(task.getContentId(), metrics);
+                    queueCounters(task, metrics);
+                    stored.put(task.getContentId(), metrics);
+                    log.debug("Synced metrics for content {}", task.getContentId());
+                } catch (Exception e) {
+                    log.error("Failed to store metrics for content {}: {}", task.getContentId(), e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to sync {} items from {}: {}", batch.size(), platform, e.getMessage());
+        }
+        return stored;
+    }
+
+    // Counters plus the next sync time: backed off while views stay flat, back to the floor once they move
+    private void queueCounters(SyncTask task, PlatformMetricsDTO metrics) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean changed = task.getLastSyncedAt() == null || valueOrZero(metrics.getViews()) != task.getViews();
+        long interval = intervalPolicy.nextIntervalSeconds(
+                task.getPlatform(), task.getSyncIntervalSeconds(), changed, task.getCreatedAt());
+
+        pendingCounters.add(new ContentCounterUpdate(task.getContentId(),
+                valueOrZero(metrics.getViews()), valueOrZero(metrics.getLikes()),
+                valueOrZero(metrics.getComments()), valueOrZero(metrics.getShares()),
+                now, now.plusSeconds(interval), interval));
+
+        if (pendingCounterCount.incrementAndGet() >= counterBatchSize) {
+            flushCounters();
+        }
+    }
+
+    // Writes the queued counters in chunks of counter-batch-size (one round trip per chunk)
+    private synchronized void flushCounters() {
+        List<ContentCounterUpdate> chunk = new ArrayList<>(counterBatchSize);
+        ContentCounterUpdate update;
+        while ((update = pendingCounters.poll()) != null) {
+            pendingCounterCount.decrementAndGet();
+            chunk.add(update);
+            if (chunk.size() >= counterBatchSize) {
+                writeCounters(chunk);
+                chunk.clear();
+            }
+        }
+        writeCounters(chunk);
+    }
+
+    private void writeCounters(List<ContentCounterUpdate> chunk) {
+        if (chunk.isEmpty()) return;
+        try {
+            int updated = contentRepository.batchUpdateCounters(chunk);
+            log.debug("Updated counters of {} content rows in one batch", updated);
+        } catch (Exception e) {
+            log.error("Failed to update counters of {} content rows: {}", chunk.size(), e.getMessage());
+        }
+    }
+
+    private long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    // Platform-side id of the content; older rows without one fall back to the content id
+    private String identifierOf(SyncTask task) {
+        return task.getContentIdentifier() != null ? task.getContentIdentifier() : task.getContentId().toString();
+    }
+
+    private void recordResult(SyncTask task, boolean success) {
+        SyncShardProgress shard = currentShards.get(task.getShardId());
+        if (shard == null) return;
+
+        long finished = success
+                ? shard.getProcessed().incrementAndGet() + shard.getFailed().get()
+                : shard.getFailed().incrementAndGet() + shard.getProcessed().get();
+        finished += shard.getSkipped().get();
+        shard.markFinished(task.getContentId());
+
+        if (finished >= shard.getTotal().get()) {
+            shard.setCursorId(shard.getToId());
+            shard.setState(SyncShardProgress.ShardState.COMPLETED);
+            shard.setFinishedAt(LocalDateTime.now());
+            runJournal.checkpoint(currentRun, shard);
+        } else if (finished % checkpointInterval == 0) {
+            runJournal.checkpoint(currentRun, shard);
+        }
+    }
+
+    private boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,32 +1,26 @@
 package com.contentanalytics.content_analytic_system.service;
 
 
-import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
-import com.contentanalytics.content_analytic_system.model.entity.Content;
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
 @EnableScheduling
 public class MetricsSynchronizationService {
 
-    private final PlatformIntegrationManager platformManager;
-    private final ContentService contentService;
-    private final ContentMetricsService metricsService;
+    private final MetricsSyncEngine syncEngine;
+    private final ClusterLeaseService leaseService;
 
-    public MetricsSynchronizationService(PlatformIntegrationManager platformManager,
-                                         ContentService contentService,
-                                         ContentMetricsService metricsService) {
+    public MetricsSynchronizationService(MetricsSyncEngine syncEngine, ClusterLeaseService leaseService) {
 
-        this.platformManager = platformManager;
-        this.contentService = contentService;
-        this.metricsService = metricsService;
+        this.syncEngine = syncEngine;
+        this.leaseService = leaseService;
 
     }
 
@@ -36,13 +30,15 @@ public class MetricsSynchronizationService {
          log.info("Starting scheduled metrics sync");
 
          try {
-             List<Content> activeContent = contentService.getAllContents();
-
-             for (Content content : activeContent) {
-                 syncContentMetrics(content.getId(), content.getPlatform());
+             // Only the node holding the sync lease runs the cycle
+             Optional<ClusterLeaseService.Lease> lease = leaseService.tryAcquire(ClusterLeaseService.METRICS_SYNC);
+             if (lease.isEmpty()) {
+                 log.info("Metrics sync is running on another node");
+                 return;
              }
 
-             log.info("Completed metrics synchronization for {} items", activeContent.size());
+             // Shards are synced in parallel by the engine
+             syncEngine.runCycle(lease.get());
          } catch (Exception e) {
              log.error("Error during metrics metrics synchronization: {}", e.getMessage());
          }
@@ -51,19 +47,7 @@ public class MetricsSynchronizationService {
 
     //Sync specific content
     public void syncContentMetrics(Long contentId, Platform platform) {
-
-        try {
-            PlatformMetricsDTO metrics = platformManager.getContentMetrics(
-                    contentId.toString(),
-                    platform
-            );
-
-            // Updating mongoDB metrics
-            metricsService.updateMetrics(contentId, metrics);
-            log.debug("Synced metrics for content {}", contentId);
-        } catch (Exception e) {
-            log.error("Failed to sync metrics for content {}: {}", contentId, e.getMessage());
-        }
+        syncEngine.syncContent(contentId, platform);
     }
 
 }
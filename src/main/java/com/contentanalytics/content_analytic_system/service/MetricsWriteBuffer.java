@@ -0,0 +1,238 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+// Write-behind buffer for new metric samples: collects them and inserts them in unordered bulk writes,
+// flushed when a batch is full or the oldest buffered sample has waited flush-interval-ms
+// (in bucket storage mode a flush appends the batch to the day buckets instead)
+public class MetricsWriteBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final MetricsBucketStore bucketStore;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+
+    private final BlockingQueue<ContentMetrics> queue;
+    // Buffered samples by id, so a sample can still be touched before it reaches Mongo
+    private final Map<String, ContentMetrics> pending = new ConcurrentHashMap<>();
+    // Held while samples taken out of pending are written, so a touch never races their write
+    private final Object writeLock = new Object();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong writtenByCaller = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public MetricsWriteBuffer(MongoTemplate mongoTemplate,
+                              MetricsBucketStore bucketStore,
+                              @Value("${metrics.write-behind.enabled:true}") boolean enabled,
+                              @Value("${metrics.write-behind.capacity:20000}") int capacity,
+                              @Value("${metrics.write-behind.batch-size:500}") int batchSize,
+                              @Value("${metrics.write-behind.flush-interval-ms:1000}") long flushIntervalMs,
+                              @Value("${metrics.write-behind.offer-timeout-ms:2000}") long offerTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketStore = bucketStore;
+        this.enabled = enabled;
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, this.batchSize));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "metrics-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Queues a sample for the next bulk insert; its id is assigned here so callers can refer to it right away.
+    // A full buffer makes the caller wait up to offer-timeout-ms, after which it writes the sample itself
+    public ContentMetrics add(ContentMetrics sample) {
+        if (sample.getId() == null) {
+            sample.setId(new ObjectId().toHexString());
+        }
+        if (!enabled || !running) {
+            return insertNow(sample);
+        }
+
+        pending.put(sample.getId(), sample);
+        try {
+            if (queue.offer(sample, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return sample;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        writtenByCaller.incrementAndGet();
+        log.warn("Metrics write buffer full, writing sample for content {} directly", sample.getContentId());
+        synchronized (writeLock) {
+            pending.remove(sample.getId());
+            return insertNow(sample);
+        }
+    }
+
+    // Updates lastCheckedAt of a sample that hasn't been written yet. Null once it has left the buffer; by then
+    // it is in Mongo (a write in progress is waited for), so the caller can update the stored document instead
+    public ContentMetrics touchPending(String sampleId, LocalDateTime checkedAt) {
+        if (sampleId == null) return null;
+        // Atomic with the removal in flush: either the write sees the new value or the touch misses
+        ContentMetrics sample = pending.computeIfPresent(sampleId, (id, buffered) -> {
+            buffered.setLastCheckedAt(checkedAt);
+            return buffered;
+        });
+        if (sample != null) return sample;
+
+        synchronized (writeLock) {
+            return null;
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("buffered", queue.size());
+        status.put("remainingCapacity", queue.remainingCapacity());
+        status.put("batchSize", batchSize);
+        status.put("flushIntervalMs", flushIntervalMs);
+        status.put("flushes", flushes.get());
+        status.put("written", written.get());
+        status.put("failed", failed.get());
+        status.put("writtenByCaller", writtenByCaller.get());
+        return status;
+    }
+
+    // Stops taking samples in the background and writes out whatever is still buffered
+    @PreDestroy
+    public void shutdown() {
+        if (!running) return;
+
+        // The flusher notices within one poll interval and writes out its current batch
+        running = false;
+        try {
+            flusher.join(2 * flushIntervalMs + 10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<ContentMetrics> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+        log.info("Metrics write buffer drained ({} samples written)", written.get());
+    }
+
+
+    // HELPER methods
+
+    private ContentMetrics insertNow(ContentMetrics sample) {
+        return bucketStore.isActive() ? bucketStore.append(sample) : mongoTemplate.insert(sample);
+    }
+
+    private void flushLoop() {
+        List<ContentMetrics> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ContentMetrics first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Filling the batch until it's full or the first sample has waited long enough
+                long flushAt = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = flushAt - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || wait <= 0) break;
+
+                    ContentMetrics next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Metrics write-behind loop error: {}", e.getMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    // One unordered bulk insert; a failing document doesn't stop the others
+    private void flush(List<ContentMetrics> batch) {
+        if (batch.isEmpty()) return;
+
+        synchronized (writeLock) {
+            // Taken out of pending before the write, so later touches wait for it and update the stored document
+            batch.forEach(sample -> pending.remove(sample.getId()));
+            write(batch);
+        }
+    }
+
+    private void write(List<ContentMetrics> batch) {
+        try {
+            if (bucketStore.isActive()) {
+                int failures = bucketStore.append(batch);
+                written.addAndGet(batch.size() - failures);
+                failed.addAndGet(failures);
+                return;
+            }
+
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ContentMetrics.class)
+                    .insert(batch)
+                    .execute();
+            written.addAndGet(batch.size());
+
+        } catch (BulkOperationException e) {
+            int failures = e.getErrors().size();
+            written.addAndGet(batch.size() - failures);
+            failed.addAndGet(failures);
+            log.error("{} of {} buffered metric samples failed to insert: {}",
+                    failures, batch.size(), e.getMessage());
+
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to insert {} buffered metric samples: {}", batch.size(), e.getMessage());
+
+        } finally {
+            flushes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
+import com.contentanalytics.content_analytic_system.exception.PlatformThrottledException;
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+// Circuit breaker -> bulkhead (own bounded pool per platform) -> rate limiter around every platform call
+public class PlatformCallGuard {
+
+    private static final long REACTIVE_ACQUIRE_POLL_MS = 20;
+
+    private final PlatformRateLimiterRegistry rateLimiters;
+    private final Map<Platform, PlatformCircuitBreaker> breakers = new EnumMap<>(Platform.class);
+    private final Map<Platform, ThreadPoolTaskExecutor> bulkheads = new EnumMap<>(Platform.class);
+    private final Map<Platform, Long> callTimeouts = new EnumMap<>(Platform.class);
+
+    public PlatformCallGuard(PlatformRateLimiterRegistry rateLimiters, Environment environment) {
+        this.rateLimiters = rateLimiters;
+
+        for (Platform platform : Platform.values()) {
+            if (platform.isBeta()) continue;
+
+            breakers.put(platform, new PlatformCircuitBreaker(
+                    platform,
+                    setting(environment, "circuit-breaker", platform, "failure-rate-threshold", Double.class, 0.5),
+                    setting(environment, "circuit-breaker", platform, "window-size", Integer.class, 20),
+                    setting(environment, "circuit-breaker", platform, "minimum-calls", Integer.class, 10),
+                    setting(environment, "circuit-breaker", platform, "open-duration-ms", Long.class, 30000L),
+                    setting(environment, "circuit-breaker", platform, "half-open-calls", Integer.class, 3)
+            ));
+
+            int threads = setting(environment, "bulkhead", platform, "threads", Integer.class, 8);
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(threads);
+            executor.setMaxPoolSize(threads);
+            executor.setQueueCapacity(setting(environment, "bulkhead", platform, "queue-capacity", Integer.class, 50));
+            executor.setThreadNamePrefix(platform.name().toLowerCase() + "-call-");
+            // A full bulkhead rejects instead of making the caller wait
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+            executor.initialize();
+            bulkheads.put(platform, executor);
+
+            callTimeouts.put(platform, setting(environment, "bulkhead", platform, "call-timeout-ms", Long.class, 10000L));
+        }
+    }
+
+    // Runs the call on the platform's own pool; the caller waits at most the call timeout
+    public <T> T call(Platform platform, Supplier<T> call) {
+        PlatformCircuitBreaker breaker = breakers.get(platform);
+        ThreadPoolTaskExecutor bulkhead = bulkheads.get(platform);
+        if (breaker == null) {
+            throw new PlatformOperationException("Unsupported platform: " + platform);
+        }
+
+        breaker.acquirePermission();
+
+        Future<T> future;
+        try {
+            future = bulkhead.submit(() -> rateLimiters.execute(platform, call));
+        } catch (TaskRejectedException e) {
+            breaker.onIgnored();
+            throw new PlatformUnavailableException(platform.getDisplayName() + " is busy (bulkhead full)");
+        }
+
+        try {
+            T result = future.get(callTimeouts.get(platform), TimeUnit.MILLISECONDS);
+            breaker.onSuccess();
+            return result;
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            breaker.onFailure();
+            throw new PlatformUnavailableException(platform.getDisplayName() + " call timed out");
+
+        } catch (ExecutionException e) {
+            RuntimeException cause = e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new PlatformOperationException(e.getCause().getMessage());
+            if (isPlatformFailure(cause)) {
+                breaker.onFailure();
+            } else {
+                breaker.onIgnored();
+            }
+            throw cause;
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            breaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new PlatformUnavailableException("Interrupted calling " + platform.getDisplayName());
+        }
+    }
+
+    // Non-blocking counterpart of call(): same breaker and rate limiter, but no pool thread is held while
+    // the request is in flight (the limiter's concurrency window bounds it instead)
+    public <T> Mono<T> callReactive(Platform platform, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            PlatformCircuitBreaker breaker = breakers.get(platform);
+            if (breaker == null) {
+                return Mono.error(new PlatformOperationException("Unsupported platform: " + platform));
+            }
+            breaker.acquirePermission();
+
+            AdaptiveRateLimiter limiter = rateLimiters.getLimiter(platform);
+            return acquireReactive(limiter)
+                    .doOnError(e -> breaker.onIgnored())
+                    .doOnCancel(breaker::onIgnored)
+                    .then(Mono.defer(() -> {
+                        long started = System.currentTimeMillis();
+                        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+                        return call.get()
+                                .timeout(Duration.ofMillis(callTimeouts.get(platform)))
+                                .doOnError(failure::set)
+                                .doFinally(signal -> {
+                                    Throwable error = failure.get();
+                                    limiter.release(error == null
+                                                    ? AdaptiveRateLimiter.Outcome.SUCCESS
+                                                    : PlatformRateLimiterRegistry.classify(error),
+                                            System.currentTimeMillis() - started);
+
+                                    if (signal == SignalType.CANCEL) {
+                                        breaker.onIgnored();
+                                    } else if (error == null) {
+                                        breaker.onSuccess();
+                                    } else if (isPlatformFailure(error)) {
+                                        breaker.onFailure();
+                                    } else {
+                                        breaker.onIgnored();
+                                    }
+                                })
+                                .onErrorMap(TimeoutException.class, e -> new PlatformUnavailableException(
+                                        platform.getDisplayName() + " call timed out"));
+                    }));
+        });
+    }
+
+    public boolean isAvailable(Platform platform) {
+        PlatformCircuitBreaker breaker = breakers.get(platform);
+        return breaker != null && breaker.getState() != PlatformCircuitBreaker.State.OPEN;
+    }
+
+    // Breaker state and bulkhead usage per platform
+    public List<Map<String, Object>> getStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        breakers.forEach((platform, breaker) -> {
+            ThreadPoolExecutor pool = bulkheads.get(platform).getThreadPoolExecutor();
+            Map<String, Object> platformStatus = new LinkedHashMap<>();
+            platformStatus.put("platform", platform.name());
+            platformStatus.put("circuitBreaker", breaker.getStatus());
+            platformStatus.put("bulkheadActive", pool.getActiveCount());
+            platformStatus.put("bulkheadThreads", pool.getMaximumPoolSize());
+            platformStatus.put("bulkheadQueued", pool.getQueue().size());
+            platformStatus.put("bulkheadQueueRemaining", pool.getQueue().remainingCapacity());
+            status.add(platformStatus);
+        });
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+
+    // HELPER methods
+
+    // platform.<group>.<platform>.<key>, falling back to platform.<group>.default.<key>
+    private <T> T setting(Environment environment, String group, Platform platform, String key,
+                          Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty("platform." + group + ".default." + key, type, defaultValue);
+        return environment.getProperty(
+                "platform." + group + "." + platform.name().toLowerCase() + "." + key, type, fallback);
+    }
+
+    // Server errors, 429s, I/O failures and timeouts count against the platform; our own throttling and 4xx don't
+    private boolean isPlatformFailure(Throwable e) {
+        if (e instanceof PlatformThrottledException) {
+            return false;
+        }
+        if (PlatformRateLimiterRegistry.classify(e) != AdaptiveRateLimiter.Outcome.SUCCESS) {
+            return true;
+        }
+        return !(e instanceof PlatformOperationException)
+                && !(e instanceof HttpStatusCodeException)
+                && !(e instanceof WebClientResponseException);
+    }
+
+    // Polls the limiter without blocking a thread until a permit frees up or the acquire timeout passes
+    private Mono<Void> acquireReactive(AdaptiveRateLimiter limiter) {
+        long deadline = System.currentTimeMillis() + limiter.getAcquireTimeoutMs();
+
+        return Mono.defer(() -> {
+                    if (limiter.tryAcquire()) {
+                        return Mono.just(true);
+                    }
+                    if (System.currentTimeMillis() >= deadline) {
+                        limiter.recordRejected();
+                        return Mono.error(new PlatformThrottledException(
+                                "Rate limit reached for " + limiter.getPlatform().getDisplayName()));
+                    }
+                    return Mono.<Boolean>empty();
+                })
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(REACTIVE_ACQUIRE_POLL_MS)))
+                .then();
+    }
+}
@@ -0,0 +1,140 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+// Count-based circuit breaker for one platform: opens when the failure rate over the last calls is too high
+public class PlatformCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Platform platform;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    // Ring of the last outcomes (true = failure), guarded by this
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private LocalDateTime openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private long rejected;
+
+    public PlatformCircuitBreaker(Platform platform, double failureRateThreshold, int windowSize,
+                                  int minimumCalls, long openDurationMs, int halfOpenCalls) {
+        this.platform = platform;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[Math.max(windowSize, 1)];
+        this.minimumCalls = Math.min(Math.max(minimumCalls, 1), window.length);
+        this.openDurationMs = openDurationMs;
+        this.halfOpenCalls = Math.max(halfOpenCalls, 1);
+    }
+
+    // Fails fast while open; after the open duration lets a few trial calls through
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAtMillis >= openDurationMs) {
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.OPEN || (state == State.HALF_OPEN && halfOpenInFlight >= halfOpenCalls)) {
+            rejected++;
+            throw new PlatformUnavailableException(platform.getDisplayName() + " is unavailable (circuit open)");
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(halfOpenInFlight - 1, 0);
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            // Any failed trial call re-opens the circuit
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCount >= minimumCalls
+                && (double) windowFailures / windowCount >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    // Call ended without saying anything about platform health (e.g. rejected by our own rate limiter)
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(halfOpenInFlight - 1, 0);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("failureRate", windowCount == 0 ? 0.0 : (double) windowFailures / windowCount);
+        status.put("bufferedCalls", windowCount);
+        status.put("rejected", rejected);
+        status.put("openedAt", openedAt);
+        return status;
+    }
+
+
+    // HELPER methods
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowPosition]) windowFailures--;
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = failure;
+        if (failure) windowFailures++;
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("{} circuit breaker {} -> {}", platform, state, newState);
+        state = newState;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+
+        if (newState == State.OPEN) {
+            openedAtMillis = System.currentTimeMillis();
+            openedAt = LocalDateTime.now();
+        }
+        if (newState == State.CLOSED) {
+            windowPosition = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+}
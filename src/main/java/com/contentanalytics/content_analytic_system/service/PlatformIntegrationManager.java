@@ -1,17 +1,30 @@
 package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
+import com.contentanalytics.content_analytic_system.exception.PlatformThrottledException;
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
 import com.contentanalytics.content_analytic_system.model.dto.MediumStatisticsDTO;
 import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
 import com.contentanalytics.content_analytic_system.model.dto.WordPressMetricsDTO;
 import com.contentanalytics.content_analytic_system.model.dto.YouTubeStatisticsDTO;
+import com.contentanalytics.content_analytic_system.model.entity.Content;
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 
 @Slf4j
@@ -22,62 +35,205 @@ public class PlatformIntegrationManager {
     private final YouTubeIntegrationService youTubeService;
     private final MediumIntegrationService mediumService;
     private final WordPressIntegrationService wordPressService;
+    private final IContentRepository contentRepository;
     private final ContentMetricsService metricsService;
+    private final MetricsFetchCoalescer fetchCoalescer;
+    private final int reactiveConcurrency;
 
     public PlatformIntegrationManager(YouTubeIntegrationService youTubeService,
                                       MediumIntegrationService mediumService,
                                       WordPressIntegrationService wordPressService,
-                                      ContentMetricsService metricsService) {
+                                      IContentRepository contentRepository,
+                                      ContentMetricsService metricsService,
+                                      MetricsFetchCoalescer fetchCoalescer,
+                                      @Value("${platform.reactive-concurrency:64}") int reactiveConcurrency) {
 
         this.youTubeService = youTubeService;
         this.mediumService = mediumService;
         this.wordPressService = wordPressService;
+        this.contentRepository = contentRepository;
         this.metricsService = metricsService;
+        this.fetchCoalescer = fetchCoalescer;
+        this.reactiveConcurrency = Math.max(reactiveConcurrency, 1);
 
     }
 
-    // Method to get content metrics based on platforms
+    // Method to get content metrics based on platforms (fetch only, storing is up to the caller)
+    // Concurrent callers for the same item share one upstream call, and a recent result is reused. While the
+    // platform is unavailable this throws PlatformUnavailableException, so callers never store a sample as fetched
     public PlatformMetricsDTO getContentMetrics(String contentId, Platform platform) {
         try {
-            PlatformMetricsDTO metrics = new PlatformMetricsDTO();
-                    metrics.setContentId(contentId);
-                    metrics.setPlatform(platform);
-                    metrics.setFetchedAt(LocalDateTime.now());
-
-
-            switch (platform) {
-                case YOUTUBE:
-                    YouTubeAnalyticService.VideoStats ytStats = youTubeService.getVideoStats(contentId);
-                    updateMetricsFromYouTube(metrics, ytStats);
-                    break;
-                case MEDIUM:
-                    MediumStatisticsDTO mediumStats = mediumService.getPostStats(contentId);
-                    updateMetricsFromMedium(metrics, mediumStats);
-                    break;
-                case WORDPRESS:
-                    WordPressMetricsDTO wpStats = wordPressService.getPostMetrics(contentId);
-                    updateMetricsFromWordPress(metrics, wpStats);
-                    break;
-                case CUSTOM_WEBSITE:
-                    // -----
-                    break;
-                default:
-                    if (platform.isBeta()) {
-                        log.warn("Platform{} is in beta, metrics not available (coming soon..)", platform);
-                        return metrics;
-                    }
-                    throw new PlatformOperationException("Unsupported platform: " + platform);
-            }
-
-            // Storing metrics in MongoDB
-            metricsService.saveMetrics(Long.parseLong(contentId), metrics);
-            return metrics;
+            return fetchCoalescer.get(platform, contentId, () -> fetchMetrics(contentId, platform));
+        } catch (PlatformUnavailableException e) {
+            log.warn("{} unavailable, metrics for {} not fetched: {}", platform, contentId, e.getMessage());
+            throw e;
+        } catch (PlatformThrottledException e) {
+            log.warn("Metrics fetch for {} from {} throttled: {}", contentId, platform, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching metrics for {} from {}: {}", contentId, platform, e.getMessage());
             throw new RuntimeException("Failed to fetch metrics: " + e.getMessage());
         }
     }
 
+    // For read-only callers: while the platform is unavailable (circuit open or bulkhead full) the last stored
+    // sample is returned instead, marked with platformData.stale; never to be passed on to a write path
+    public PlatformMetricsDTO getContentMetricsOrLastKnown(String contentId, Platform platform) {
+        try {
+            return getContentMetrics(contentId, platform);
+        } catch (PlatformUnavailableException e) {
+            log.warn("{} unavailable, serving last known metrics for {}", platform, contentId);
+            return getLastKnownMetrics(contentId, platform).orElseThrow(() -> e);
+        }
+    }
+
+    // Fetching metrics for many items of one platform without storing them (keyed by content identifier)
+    // Blocking wrapper around fetchContentMetricsBatch; identifiers that failed are missing from the result
+    public Map<String, PlatformMetricsDTO> getContentMetricsBatch(Platform platform, Collection<String> contentIdentifiers) {
+        Map<String, PlatformMetricsDTO> results = fetchContentMetricsBatch(platform, contentIdentifiers)
+                .collectMap(PlatformMetricsDTO::getContentId)
+                .block();
+        return results != null ? results : new HashMap<>();
+    }
+
+    // REACTIVE API (fetch only, nothing is stored)
+
+    // Metrics for one item; while the platform is unavailable the last stored sample is returned instead
+    public Mono<PlatformMetricsDTO> fetchContentMetrics(String contentIdentifier, Platform platform) {
+        return coalescedRequest(contentIdentifier, platform)
+                .onErrorResume(PlatformUnavailableException.class, e -> Mono
+                        .fromCallable(() -> getLastKnownMetrics(contentIdentifier, platform))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(Mono::justOrEmpty)
+                        .switchIfEmpty(Mono.error(e)));
+    }
+
+    // Metrics for many items of one platform, emitted as they arrive; YouTube items go out in multi-id
+    // requests, and items that fail are logged and left out. Items fetched within the freshness window are reused
+    public Flux<PlatformMetricsDTO> fetchContentMetricsBatch(Platform platform, Collection<String> contentIdentifiers) {
+        if (platform == Platform.YOUTUBE) {
+            List<PlatformMetricsDTO> fresh = new ArrayList<>();
+            List<String> toFetch = new ArrayList<>();
+            for (String identifier : new LinkedHashSet<>(contentIdentifiers)) {
+                PlatformMetricsDTO metrics = fetchCoalescer.getFresh(platform, identifier);
+                if (metrics != null) {
+                    fresh.add(metrics);
+                } else {
+                    toFetch.add(identifier);
+                }
+            }
+            if (toFetch.isEmpty()) return Flux.fromIterable(fresh);
+
+            return Flux.fromIterable(fresh).concatWith(youTubeService.fetchVideoStatsBatch(toFetch)
+                    .map(entry -> {
+                        PlatformMetricsDTO metrics = newMetrics(entry.getKey(), platform);
+                        updateMetricsFromYouTube(metrics, entry.getValue());
+                        fetchCoalescer.remember(platform, entry.getKey(), metrics);
+                        return metrics;
+                    }));
+        }
+
+        return Flux.fromIterable(new LinkedHashSet<>(contentIdentifiers))
+                .flatMap(identifier -> coalescedRequest(identifier, platform)
+                        .onErrorResume(e -> {
+                            log.error("Error fetching metrics for {} from {}: {}", identifier, platform, e.getMessage());
+                            return Mono.empty();
+                        }), reactiveConcurrency);
+    }
+
+    // How many items one batch fetch should carry for a platform
+    public int getBatchSize(Platform platform) {
+        return platform == Platform.YOUTUBE ? youTubeService.getBatchSize() : 1;
+    }
+
+    // Fetching from the platform only
+    private PlatformMetricsDTO fetchMetrics(String contentId, Platform platform) {
+        PlatformMetricsDTO metrics = newMetrics(contentId, platform);
+
+        switch (platform) {
+            case YOUTUBE:
+                YouTubeAnalyticService.VideoStats ytStats = youTubeService.getVideoStats(contentId);
+                updateMetricsFromYouTube(metrics, ytStats);
+                break;
+            case MEDIUM:
+                MediumStatisticsDTO mediumStats = mediumService.getPostStats(contentId);
+                updateMetricsFromMedium(metrics, mediumStats);
+                break;
+            case WORDPRESS:
+                WordPressMetricsDTO wpStats = wordPressService.getPostMetrics(contentId);
+                updateMetricsFromWordPress(metrics, wpStats);
+                break;
+            case CUSTOM_WEBSITE:
+                // -----
+                break;
+            default:
+                if (platform.isBeta()) {
+                    log.warn("Platform{} is in beta, metrics not available (coming soon..)", platform);
+                    return metrics;
+                }
+                throw new PlatformOperationException("Unsupported platform: " + platform);
+        }
+        return metrics;
+    }
+
+    private Mono<PlatformMetricsDTO> coalescedRequest(String contentId, Platform platform) {
+        return fetchCoalescer.fetch(platform, contentId, () -> requestMetrics(contentId, platform));
+    }
+
+    // Non-blocking fetch from the platform only
+    private Mono<PlatformMetricsDTO> requestMetrics(String contentId, Platform platform) {
+        return switch (platform) {
+            case YOUTUBE -> youTubeService.fetchVideoStats(contentId).map(ytStats -> {
+                PlatformMetricsDTO metrics = newMetrics(contentId, platform);
+                updateMetricsFromYouTube(metrics, ytStats);
+                return metrics;
+            });
+            case MEDIUM -> mediumService.fetchPostStats(contentId).map(mediumStats -> {
+                PlatformMetricsDTO metrics = newMetrics(contentId, platform);
+                updateMetricsFromMedium(metrics, mediumStats);
+                return metrics;
+            });
+            case WORDPRESS -> wordPressService.fetchPostMetrics(contentId).map(wpStats -> {
+                PlatformMetricsDTO metrics = newMetrics(contentId, platform);
+                updateMetricsFromWordPress(metrics, wpStats);
+                return metrics;
+            });
+            case CUSTOM_WEBSITE -> Mono.fromSupplier(() -> newMetrics(contentId, platform));
+            default -> platform.isBeta()
+                    ? Mono.fromSupplier(() -> newMetrics(contentId, platform))
+                    : Mono.error(new PlatformOperationException("Unsupported platform: " + platform));
+        };
+    }
+
+    // Latest stored sample for the content, marked as stale
+    private Optional<PlatformMetricsDTO> getLastKnownMetrics(String contentId, Platform platform) {
+        Optional<Content> content = contentRepository.findFirstByPlatformAndContentIdentifier(platform, contentId);
+        if (content.isEmpty() && contentId.matches("\\d+")) {
+            content = contentRepository.findById(Long.parseLong(contentId));
+        }
+
+        return content
+                .flatMap(c -> metricsService.findLatestMetrics(c.getId()))
+                .map(latest -> {
+                    PlatformMetricsDTO metrics = newMetrics(contentId, platform);
+                    metrics.setViews(latest.getViews());
+                    metrics.setLikes(latest.getLikes());
+                    metrics.setComments(latest.getComments());
+                    metrics.setShares(latest.getShares());
+                    metrics.setFetchedAt(latest.getTimestamp());
+                    metrics.getPlatformData().put("stale", true);
+                    return metrics;
+                });
+    }
+
+    private PlatformMetricsDTO newMetrics(String contentId, Platform platform) {
+        PlatformMetricsDTO metrics = new PlatformMetricsDTO();
+        metrics.setContentId(contentId);
+        metrics.setPlatform(platform);
+        metrics.setFetchedAt(LocalDateTime.now());
+        return metrics;
+    }
+
     // HELPER METHODS
     // YouTube
     private void updateMetricsFromYouTube(PlatformMetricsDTO metrics, YouTubeAnalyticService.VideoStats ytStats) {
@@ -1,44 +1,29 @@
 package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
 import com.contentanalytics.content_analytic_system.model.dto.PlatformMetricsDTO;
 import com.contentanalytics.content_analytic_system.model.entity.Content;
-import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
-import com.contentanalytics.content_analytic_system.repository.mongo.IContentMetricsRepository;
-import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 
 @Slf4j
 @Service
 public class PlatformMetricsService {
 
-    private final YouTubeAnalyticService youTubeAnalyticService;
-    private final IContentRepository contentRepository;
-    private final IContentMetricsRepository metricsRepository;
-    private final ContentMetricsService contentMetricsService;
     private final PlatformIntegrationManager platformIntegrationManager;
 
-    public PlatformMetricsService(YouTubeAnalyticService youTubeAnalyticService,
-                                  IContentRepository contentRepository,
-                                  IContentMetricsRepository metricsRepository,
-                                  ContentMetricsService contentMetricsService,
-                                  PlatformIntegrationManager platformIntegrationManager) {
+    public PlatformMetricsService(PlatformIntegrationManager platformIntegrationManager) {
 
-        this.youTubeAnalyticService = youTubeAnalyticService;
-        this.contentRepository = contentRepository;
-        this.metricsRepository = metricsRepository;
-        this.contentMetricsService = contentMetricsService;
         this.platformIntegrationManager = platformIntegrationManager;
 
     }
 
 
-    // Public method to update metrics based on platform
+    // Fetches the metrics once based on platform and sets the counters on the content
+    // Nothing is stored here, the caller saves the content and records the Mongo sample
     public PlatformMetricsDTO updatePlatformMetrics(Content content) {
         try {
 
@@ -51,6 +36,9 @@ public class PlatformMetricsService {
                 case MEDIUM:
                     metricsDTO = UpdateMediumMetrics(content);
                     break;
+                case WORDPRESS:
+                    metricsDTO = UpdateWordPressMetrics(content);
+                    break;
                 case CUSTOM_WEBSITE:
                     metricsDTO = UpdateWebsiteMetrics(content);
                     break;
@@ -62,14 +50,14 @@ public class PlatformMetricsService {
                     throw new PlatformOperationException("Unknown platform: " + content.getPlatform());
             }
 
-            // Updating content in repository
-            updateContentMetrics(content, metricsDTO);
-
-            //saving ton MongoDB
-            saveToMongoDB(content, metricsDTO);
+            // Applying the counters to the entity; the caller persists it in its single save
+            applyMetrics(content, metricsDTO);
 
             return metricsDTO;
 
+        } catch (PlatformUnavailableException e) {
+            // Nothing was fetched, so the content keeps its counters and last sync time
+            throw e;
         } catch (Exception e) {
             log.error("Error updating metrics for content {}: {}", content.getId(), e.getMessage());
             throw new PlatformOperationException("Failed to update metrics: " + e.getMessage());
@@ -82,30 +70,17 @@ public class PlatformMetricsService {
     // Youtube
     private PlatformMetricsDTO updateYouTubeMetrics(Content content) {
         try{
-            //Getting stats from YouTube
-            YouTubeAnalyticService.VideoStats stats =
-                    youTubeAnalyticService.getVideoStats(content.getContentIdentifier());
-
-            // Update content metrics
-           PlatformMetricsDTO metricsDTO = PlatformMetricsDTO.builder()
-                   .contentId(content.getContentIdentifier())
-                   .platform(content.getPlatform())
-                   .views(stats.getViewCount())
-                   .likes(stats.getLikeCount())
-                   .comments(stats.getCommentCount())
-                   .shares(stats.getShareCount())
-                   .fetchedAt(LocalDateTime.now())
-                   .build();
-
-            // Additional youtube metrics
-            Map<String, Object> additionalMetrics = new HashMap<>();
-            additionalMetrics.put("favoriteCount", stats.getFavoriteCount());
-            additionalMetrics.put("duration", stats.getDuration());
-            metricsDTO.setAdditionalMetrics(additionalMetrics);
+            // Getting stats from the Data API client (batched, guarded and coalesced like the sync path)
+            PlatformMetricsDTO metricsDTO = platformIntegrationManager.getContentMetrics(
+                    content.getContentIdentifier(),
+                    content.getPlatform()
+            );
 
             log.info("Updated YouTube metrics for content: {}", content.getId());
             return metricsDTO;
 
+        } catch (PlatformUnavailableException e) {
+            throw e;
         } catch (Exception e){
             log.error("Error updating {} YouTube metrics: {}", content.getId(), e.getMessage());
             throw new PlatformOperationException("Failed to update YouTube metrics: " + e.getMessage());
@@ -122,12 +97,32 @@ public class PlatformMetricsService {
 
             log.info("Updated Medium metrics for content: {}", content.getId());
             return metricsDTO;
+        } catch (PlatformUnavailableException e) {
+            throw e;
         } catch (Exception e){
             log.error("Error updating Medium {} metrics : ", content.getId(), e);
             throw new PlatformOperationException("Failed to update Medium metrics: " + e.getMessage());
         }
     }
 
+    // WordPress
+    private PlatformMetricsDTO UpdateWordPressMetrics(Content content) {
+        try{
+            PlatformMetricsDTO metricsDTO = platformIntegrationManager.getContentMetrics(
+                    content.getContentIdentifier(),
+                    content.getPlatform()
+            );
+
+            log.info("Updated WordPress metrics for content: {}", content.getId());
+            return metricsDTO;
+        } catch (PlatformUnavailableException e) {
+            throw e;
+        } catch (Exception e){
+            log.error("Error updating WordPress {} metrics : ", content.getId(), e);
+            throw new PlatformOperationException("Failed to update WordPress metrics: " + e.getMessage());
+        }
+    }
+
     // Custom Website
     private PlatformMetricsDTO UpdateWebsiteMetrics(Content content) {
         try{
@@ -149,38 +144,6 @@ public class PlatformMetricsService {
     }
 
 
-    //Saving to mangoDB
-    private void saveToMongoDB(Content content, PlatformMetricsDTO metricsDTO) {
-
-        try {
-            // Update MySQL content entity
-            content.setViews(metricsDTO.getViews());
-            content.setLikes(metricsDTO.getLikes());
-            content.setComments(metricsDTO.getComments());
-            content.setShares(metricsDTO.getShares());
-            content.setLastSyncedAt(LocalDateTime.now());
-            contentRepository.save(content);
-
-            // Saving to MongoDB using ContentMetricService
-            contentMetricsService.saveMetrics(content.getId(), metricsDTO);
-
-           /* // Engagement specific data only if available
-            Map<String, Object> engagementMetrics = new HashMap<>();
-            if (metricsDTO.getViews() > 0) {
-                double engagementRate = calculateEngagementRate(metricsDTO);
-                engagementMetrics.put("engagementRate", engagementRate);
-            }
-            metrics.setEngegementMetrics(engagementMetrics);
-            metricsRepository.save(metrics); */
-
-
-            log.debug("Saved metrics to mongoBD for content: {}", content.getId());
-        } catch (Exception e) {
-            log.error("Error saving metrics to MongoDB for content {}: {}", content.getId(), e.getMessage());
-            throw new PlatformOperationException("Error saving metrics to MongoDB: " + e.getMessage());
-        }
-    }
-
     // HELPER & CALCULATION methods
 
     // For exception platforms
@@ -196,13 +159,12 @@ public class PlatformMetricsService {
                 .build();
     }
 
-    private void updateContentMetrics(Content content, PlatformMetricsDTO metricsDTO) {
+    private void applyMetrics(Content content, PlatformMetricsDTO metricsDTO) {
         content.setViews(metricsDTO.getViews());
         content.setLikes(metricsDTO.getLikes());
         content.setComments(metricsDTO.getComments());
         content.setShares(metricsDTO.getShares());
         content.setLastSyncedAt(LocalDateTime.now());
-        contentRepository.save(content);
     }
 
     /* in the future
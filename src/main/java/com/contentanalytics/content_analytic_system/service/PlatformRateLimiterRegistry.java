@@ -0,0 +1,109 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+// One adaptive rate limiter per platform; every integration service calls its platform through here
+public class PlatformRateLimiterRegistry {
+
+    private final Map<Platform, AdaptiveRateLimiter> limiters = new EnumMap<>(Platform.class);
+
+    public PlatformRateLimiterRegistry(Environment environment) {
+        for (Platform platform : Platform.values()) {
+            limiters.put(platform, new AdaptiveRateLimiter(
+                    platform,
+                    setting(environment, platform, "requests-per-second", Double.class, 10.0),
+                    setting(environment, platform, "burst", Integer.class, 20),
+                    setting(environment, platform, "min-concurrency", Integer.class, 1),
+                    setting(environment, platform, "initial-concurrency", Integer.class, 4),
+                    setting(environment, platform, "max-concurrency", Integer.class, 16),
+                    setting(environment, platform, "acquire-timeout-ms", Long.class, 5000L),
+                    setting(environment, platform, "latency-threshold-ms", Long.class, 3000L),
+                    setting(environment, platform, "decrease-factor", Double.class, 0.5),
+                    setting(environment, platform, "decrease-cooldown-ms", Long.class, 1000L)
+            ));
+        }
+    }
+
+    // Runs one platform call under the platform's limiter and feeds the outcome back into it
+    public <T> T execute(Platform platform, Supplier<T> call) {
+        AdaptiveRateLimiter limiter = limiters.get(platform);
+        limiter.acquire();
+
+        long started = System.currentTimeMillis();
+        AdaptiveRateLimiter.Outcome outcome = AdaptiveRateLimiter.Outcome.SUCCESS;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = classify(e);
+            throw e;
+        } finally {
+            limiter.release(outcome, System.currentTimeMillis() - started);
+        }
+    }
+
+    public AdaptiveRateLimiter getLimiter(Platform platform) {
+        return limiters.get(platform);
+    }
+
+    // Limits and counters of the implemented platforms
+    public List<Map<String, Object>> getStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        limiters.forEach((platform, limiter) -> {
+            if (!platform.isBeta()) status.add(limiter.getStatus());
+        });
+        return status;
+    }
+
+
+    // HELPER methods
+
+    // platform.rate-limit.<platform>.<key>, falling back to platform.rate-limit.default.<key>
+    private <T> T setting(Environment environment, Platform platform, String key, Class<T> type, T defaultValue) {
+        T fallback = environment.getProperty("platform.rate-limit.default." + key, type, defaultValue);
+        return environment.getProperty(
+                "platform.rate-limit." + platform.name().toLowerCase() + "." + key, type, fallback);
+    }
+
+    // Only congestion signals shrink the window; client errors like 404 say nothing about load
+    static AdaptiveRateLimiter.Outcome classify(Throwable e) {
+        HttpStatusCode status = null;
+        if (e instanceof HttpStatusCodeException statusException) {
+            status = statusException.getStatusCode();
+        } else if (e instanceof WebClientResponseException responseException) {
+            status = responseException.getStatusCode();
+        }
+
+        if (status != null) {
+            if (status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                return AdaptiveRateLimiter.Outcome.THROTTLED;
+            }
+            return status.is5xxServerError()
+                    ? AdaptiveRateLimiter.Outcome.ERROR
+                    : AdaptiveRateLimiter.Outcome.SUCCESS;
+        }
+        if (e instanceof ResourceAccessException
+                || e instanceof WebClientRequestException
+                || e instanceof TimeoutException) {
+            return AdaptiveRateLimiter.Outcome.ERROR;
+        }
+        return AdaptiveRateLimiter.Outcome.SUCCESS;
+    }
+}
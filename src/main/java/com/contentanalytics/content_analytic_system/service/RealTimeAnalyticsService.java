@@ -10,6 +10,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,9 +20,13 @@ import java.util.Map;
 @EnableScheduling
 public class RealTimeAnalyticsService {
 
+    private static final int BROADCAST_CHUNK = 200;
+
     private final SimpMessagingTemplate messagingTemplate;
     private final ContentService contentService;
     private final AnalyticsService analyticsService;
+    private final ClusterLeaseService leaseService;
+    private final ClusterBroadcastRelay broadcastRelay;
 
     //To store last sent metrics to detect change
     private final Map<Long, Map<String, Object>> lastContentMetrics = new HashMap<>();
@@ -29,10 +34,14 @@ public class RealTimeAnalyticsService {
 
     public RealTimeAnalyticsService(SimpMessagingTemplate messagingTemplate,
                                     ContentService contentService,
-                                    AnalyticsService analyticsService) {
+                                    AnalyticsService analyticsService,
+                                    ClusterLeaseService leaseService,
+                                    ClusterBroadcastRelay broadcastRelay) {
         this.messagingTemplate = messagingTemplate;
         this.contentService = contentService;
         this.analyticsService = analyticsService;
+        this.leaseService = leaseService;
+        this.broadcastRelay = broadcastRelay;
     }
 
 
@@ -40,6 +49,11 @@ public class RealTimeAnalyticsService {
     @Scheduled(fixedRate = 60000)   // Every minute
     public void sendPlatformAnalyticsUpdates() {
         try {
+            // One node of the cluster computes these; the relay gets them to the clients of every node
+            if (leaseService.tryAcquire(ClusterLeaseService.PLATFORM_ANALYTICS_UPDATES).isEmpty()) return;
+
+            List<ClusterBroadcastRelay.Broadcast> broadcasts = new ArrayList<>();
+
             //Getting latest analytics
             for (Platform p : Platform.values()) {
 
@@ -56,16 +70,17 @@ public class RealTimeAnalyticsService {
                             analytics
                     );
 
-                    messagingTemplate.convertAndSend(
+                    broadcasts.add(new ClusterBroadcastRelay.Broadcast(
                             "/topic/analytics/" + p.name().toLowerCase(),
                             analytics
-                    );
+                    ));
 
                     // Updating last metrics
                     lastPlatformMetrics.put(p, new HashMap<>(analytics));
 
                 }
             }
+            broadcastRelay.publish(broadcasts);
         } catch (Exception e) {
             log.error("Error while sending analytics updates", e);
         }
@@ -75,9 +90,13 @@ public class RealTimeAnalyticsService {
     @Scheduled(fixedRate = 120000) //--Every 2 minutes
     public void sendContentAnalyticsUpdates() {
         try {
-            List<Content> allContent = contentService.getAllContents();
+            // One node of the cluster computes these; the relay gets them to the clients of every node
+            if (leaseService.tryAcquire(ClusterLeaseService.CONTENT_ANALYTICS_UPDATES).isEmpty()) return;
 
-            for (Content c : allContent) {
+            List<ClusterBroadcastRelay.Broadcast> broadcasts = new ArrayList<>();
+
+            // Streaming lightweight views instead of loading every entity
+            contentService.forEachActiveContent(c -> {
                 Map<String, Object> metrics = analyticsService.getContentPerformance(c.getId());
 
                 // Checking if metrics have changed
@@ -90,21 +109,27 @@ public class RealTimeAnalyticsService {
                     );
 
                     // Sending to content-specific topic
-                    messagingTemplate.convertAndSend(
+                    broadcasts.add(new ClusterBroadcastRelay.Broadcast(
                             "/topic/analytics/content/" + c.getId(),
                             message
-                    );
+                    ));
                     // Also to platform-wide content update topics
-                    messagingTemplate.convertAndSend(
+                    broadcasts.add(new ClusterBroadcastRelay.Broadcast(
                             "/topic/analytics/platform/" + c.getPlatform().name().toLowerCase() + "/contents",
                             message
-                    );
+                    ));
 
                     // Updating last metrics
                     lastContentMetrics.put(c.getId(), new HashMap<>(metrics));
 
+                    // Publishing in chunks rather than holding every update of the run
+                    if (broadcasts.size() >= BROADCAST_CHUNK) {
+                        broadcastRelay.publish(broadcasts);
+                        broadcasts.clear();
+                    }
                 }
-            }
+            });
+            broadcastRelay.publish(broadcasts);
 
         } catch(Exception e) {
             log.error("Error while sending content analytics updates", e);
@@ -0,0 +1,59 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+// Adaptive sync interval per content item: grows by backoff-factor while its metrics stay flat and drops back
+// to the floor as soon as they move. The floor rises with content age, bounded per platform under
+// sync.interval.<platform>.*, falling back to sync.interval.default.*
+public class SyncIntervalPolicy {
+
+    private final Map<Platform, Long> minSeconds = new EnumMap<>(Platform.class);
+    private final Map<Platform, Long> maxSeconds = new EnumMap<>(Platform.class);
+    private final double backoffFactor;
+    private final long ageStepDays;
+
+    public SyncIntervalPolicy(Environment environment,
+                              @Value("${sync.interval.backoff-factor:2.0}") double backoffFactor,
+                              @Value("${sync.interval.age-step-days:7}") long ageStepDays) {
+        this.backoffFactor = Math.max(backoffFactor, 1.0);
+        this.ageStepDays = Math.max(ageStepDays, 1);
+
+        long defaultMin = environment.getProperty("sync.interval.default.min-seconds", Long.class, 300L);
+        long defaultMax = environment.getProperty("sync.interval.default.max-seconds", Long.class, 86400L);
+        for (Platform platform : Platform.values()) {
+            String prefix = "sync.interval." + platform.name().toLowerCase();
+            long min = Math.max(environment.getProperty(prefix + ".min-seconds", Long.class, defaultMin), 1);
+            long max = environment.getProperty(prefix + ".max-seconds", Long.class, defaultMax);
+            minSeconds.put(platform, min);
+            maxSeconds.put(platform, Math.max(max, min));
+        }
+    }
+
+    // Interval until the next sync after one that did (or didn't) see the metrics change
+    // An item without an interval yet starts at its floor
+    public long nextIntervalSeconds(Platform platform, Long currentIntervalSeconds, boolean changed,
+                                    LocalDateTime publishedAt) {
+        long floor = floorSeconds(platform, publishedAt);
+        if (changed || currentIntervalSeconds == null) {
+            return floor;
+        }
+        long backedOff = (long) Math.ceil(currentIntervalSeconds * backoffFactor);
+        return Math.min(Math.max(backedOff, floor), maxSeconds.get(platform));
+    }
+
+    // min-seconds * (1 + age in days / age-step-days), capped at max-seconds
+    private long floorSeconds(Platform platform, LocalDateTime publishedAt) {
+        long min = minSeconds.get(platform);
+        long ageDays = publishedAt == null ? 0 : Math.max(Duration.between(publishedAt, LocalDateTime.now()).toDays(), 0);
+        return Math.min(min + min * ageDays / ageStepDays, maxSeconds.get(platform));
+    }
+}
@@ -0,0 +1,195 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.dto.ContentSyncView;
+import com.contentanalytics.content_analytic_system.model.dto.SyncTask;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+@Slf4j
+@Service
+// Sync work ordered by staleness weighted with view velocity; unfinished work carries over between cycles
+public class SyncPriorityQueue {
+
+    private static final Comparator<SyncTask> HIGHEST_PRIORITY_FIRST =
+            Comparator.comparingDouble(SyncTask::getPriority).reversed();
+
+    private final ContentMetricsService metricsService;
+    private final double velocityWeight;
+    private final long neverSyncedAgeMinutes;
+    private final Duration velocityWindow;
+
+    // One queue per platform so a saturated platform never blocks the others
+    private final Map<Platform, PriorityQueue<SyncTask>> platformQueues = new EnumMap<>(Platform.class);
+    private final Map<Long, SyncTask> queuedTasks = new HashMap<>();
+
+    // Recent views per hour by content id, loaded once per cycle and updated by the syncs in it
+    private volatile Map<Long, Double> velocities = new ConcurrentHashMap<>();
+
+    public SyncPriorityQueue(ContentMetricsService metricsService,
+                             @Value("${sync.priority.velocity-weight:1.0}") double velocityWeight,
+                             @Value("${sync.priority.never-synced-age-minutes:10080}") long neverSyncedAgeMinutes,
+                             @Value("${sync.priority.velocity-window-hours:24}") long velocityWindowHours) {
+
+        this.metricsService = metricsService;
+        this.velocityWeight = velocityWeight;
+        this.neverSyncedAgeMinutes = neverSyncedAgeMinutes;
+        this.velocityWindow = Duration.ofHours(Math.max(velocityWindowHours, 1));
+
+        for (Platform platform : Platform.values()) {
+            platformQueues.put(platform, new PriorityQueue<>(HIGHEST_PRIORITY_FIRST));
+        }
+
+    }
+
+    // Views per hour of all content in one aggregation, at the start of a cycle before the shards are scanned
+    public void refreshVelocities() {
+        try {
+            velocities = new ConcurrentHashMap<>(metricsService.getViewVelocities(velocityWindow));
+        } catch (Exception e) {
+            log.warn("Could not load view velocities, keeping the previous ones: {}", e.getMessage());
+        }
+    }
+
+    // Queues content for syncing; returns false if it is already queued (carried over), in which case the task
+    // takes the content's current state and is rescored
+    public boolean offer(ContentSyncView content, String shardId) {
+        synchronized (this) {
+            SyncTask existing = queuedTasks.get(content.getId());
+            if (existing != null) {
+                PriorityQueue<SyncTask> queue = platformQueues.get(existing.getPlatform());
+                queue.remove(existing);
+                existing.setViews(content.getViews());
+                existing.setLastSyncedAt(content.getLastSyncedAt());
+                existing.setSyncIntervalSeconds(content.getSyncIntervalSeconds());
+                existing.setShardId(shardId);
+                existing.setPriority(score(existing, LocalDateTime.now()));
+                queue.add(existing);
+                return false;
+            }
+        }
+
+        SyncTask task = new SyncTask();
+        task.setContentId(content.getId());
+        task.setPlatform(content.getPlatform());
+        task.setContentIdentifier(content.getContentIdentifier());
+        task.setViews(content.getViews());
+        task.setLastSyncedAt(content.getLastSyncedAt());
+        task.setSyncIntervalSeconds(content.getSyncIntervalSeconds());
+        task.setCreatedAt(content.getCreatedAt());
+        task.setEnqueuedAt(LocalDateTime.now());
+        task.setShardId(shardId);
+        task.setPriority(score(task, task.getEnqueuedAt()));
+
+        synchronized (this) {
+            if (queuedTasks.putIfAbsent(task.getContentId(), task) != null) {
+                return false;
+            }
+            platformQueues.get(task.getPlatform()).add(task);
+            return true;
+        }
+    }
+
+    // Puts a task back (e.g. the cycle deadline passed before it could run)
+    public synchronized void requeue(SyncTask task) {
+        if (queuedTasks.putIfAbsent(task.getContentId(), task) == null) {
+            platformQueues.get(task.getPlatform()).add(task);
+        }
+    }
+
+    // Takes the highest-priority task among platforms that can accept more work right now
+    public synchronized SyncTask pollNext(Predicate<Platform> tryReserve) {
+        List<PriorityQueue<SyncTask>> candidates = new ArrayList<>();
+        for (PriorityQueue<SyncTask> queue : platformQueues.values()) {
+            if (!queue.isEmpty()) {
+                candidates.add(queue);
+            }
+        }
+        candidates.sort((a, b) -> HIGHEST_PRIORITY_FIRST.compare(a.peek(), b.peek()));
+
+        for (PriorityQueue<SyncTask> queue : candidates) {
+            if (tryReserve.test(queue.peek().getPlatform())) {
+                SyncTask task = queue.poll();
+                queuedTasks.remove(task.getContentId());
+                return task;
+            }
+        }
+        return null;
+    }
+
+    // Takes up to max more tasks of one platform (caller already holds that platform's reservation)
+    public synchronized List<SyncTask> pollMore(Platform platform, int max) {
+        PriorityQueue<SyncTask> queue = platformQueues.get(platform);
+        List<SyncTask> tasks = new ArrayList<>();
+        while (tasks.size() < max && !queue.isEmpty()) {
+            SyncTask task = queue.poll();
+            queuedTasks.remove(task.getContentId());
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // Records the velocity observed by a sync so the next scoring doesn't need history
+    public void recordSync(SyncTask task, long currentViews) {
+        if (task.getLastSyncedAt() == null) return;
+
+        double hours = Duration.between(task.getLastSyncedAt(), LocalDateTime.now()).toMillis() / 3_600_000.0;
+        if (hours > 0) {
+            velocities.put(task.getContentId(), Math.max(currentViews - task.getViews(), 0) / hours);
+        }
+    }
+
+    public synchronized int depth() {
+        return queuedTasks.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return queuedTasks.isEmpty();
+    }
+
+    // Age of the stalest queued item (time since its last sync, or since queued if never synced)
+    public synchronized Duration oldestItemAge() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = null;
+        for (SyncTask task : queuedTasks.values()) {
+            LocalDateTime since = task.getLastSyncedAt() != null ? task.getLastSyncedAt() : task.getEnqueuedAt();
+            if (oldest == null || since.isBefore(oldest)) {
+                oldest = since;
+            }
+        }
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, now);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Map<String, Integer> platformDepths = new LinkedHashMap<>();
+        synchronized (this) {
+            status.put("depth", queuedTasks.size());
+            platformQueues.forEach((platform, queue) -> {
+                if (!queue.isEmpty()) platformDepths.put(platform.name(), queue.size());
+            });
+        }
+        status.put("oldestItemAgeSeconds", oldestItemAge().toSeconds());
+        status.put("platformDepths", platformDepths);
+        return status;
+    }
+
+
+    // HELPER methods
+
+    // Staleness in minutes at the given time, boosted by how fast views are moving
+    private double score(SyncTask task, LocalDateTime at) {
+        double ageMinutes = task.getLastSyncedAt() == null
+                ? neverSyncedAgeMinutes
+                : Math.max(Duration.between(task.getLastSyncedAt(), at).toMinutes(), 1);
+
+        return ageMinutes * (1 + velocityWeight * Math.log1p(velocities.getOrDefault(task.getContentId(), 0.0)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.ContentNotFoundException;
+import com.contentanalytics.content_analytic_system.model.dto.SyncShardProgress;
+import com.contentanalytics.content_analytic_system.model.entity.SyncRun;
+import com.contentanalytics.content_analytic_system.model.entity.SyncShardCheckpoint;
+import com.contentanalytics.content_analytic_system.repository.sql.ISyncRunRepository;
+import com.contentanalytics.content_analytic_system.repository.sql.ISyncShardCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+// Journal of sync runs and their per-shard checkpoints (MySQL), so a restarted node picks up where it stopped
+public class SyncRunJournal {
+
+    private final ISyncRunRepository runRepository;
+    private final ISyncShardCheckpointRepository checkpointRepository;
+
+    public SyncRunJournal(ISyncRunRepository runRepository,
+                          ISyncShardCheckpointRepository checkpointRepository) {
+        this.runRepository = runRepository;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    // The newest run that never finished; older unfinished ones are marked abandoned
+    public Optional<SyncRun> findUnfinishedRun() {
+        List<SyncRun> unfinished = runRepository.findByStatusOrderByStartedAtDesc(SyncRun.RunStatus.RUNNING);
+        if (unfinished.isEmpty()) return Optional.empty();
+
+        for (SyncRun stale : unfinished.subList(1, unfinished.size())) {
+            stale.setStatus(SyncRun.RunStatus.ABANDONED);
+            stale.setFinishedAt(LocalDateTime.now());
+            runRepository.save(stale);
+        }
+        return Optional.of(unfinished.get(0));
+    }
+
+    // Creates a run with one checkpoint per planned shard
+    public SyncRun startRun(List<SyncShardProgress> shards, ClusterLeaseService.Lease lease) {
+        SyncRun run = new SyncRun();
+        run.setStartedAt(LocalDateTime.now());
+        run.setShardCount(shards.size());
+        run.setOwnerNode(lease.nodeId());
+        run.setFencingToken(lease.fencingToken());
+        run = runRepository.save(run);
+
+        List<SyncShardCheckpoint> checkpoints = new ArrayList<>();
+        for (SyncShardProgress shard : shards) {
+            SyncShardCheckpoint checkpoint = new SyncShardCheckpoint();
+            checkpoint.setRunId(run.getId());
+            checkpoint.setShardId(shard.getShardId());
+            checkpoint.setPlatform(shard.getPlatform());
+            checkpoint.setFromId(shard.getFromId());
+            checkpoint.setToId(shard.getToId());
+            checkpoint.setCursorId(shard.getCursorId());
+            checkpoint.setState(shard.getState());
+            checkpoint.setUpdatedAt(run.getStartedAt());
+            checkpoints.add(checkpoint);
+        }
+
+        List<SyncShardCheckpoint> saved = checkpointRepository.saveAll(checkpoints);
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setCheckpointId(saved.get(i).getId());
+        }
+
+        log.info("Started sync run {} with {} shards", run.getId(), shards.size());
+        return run;
+    }
+
+    // Rebuilds the shards of an unfinished run from their checkpoints, counts and cursor included
+    // The run moves to the caller's lease, which fences off the node that was running it
+    public List<SyncShardProgress> resumeRun(SyncRun run, ClusterLeaseService.Lease lease) {
+        List<SyncShardProgress> shards = new ArrayList<>();
+        for (SyncShardCheckpoint checkpoint : checkpointRepository.findByRunIdOrderByIdAsc(run.getId())) {
+            SyncShardProgress shard = new SyncShardProgress(
+                    checkpoint.getPlatform(), checkpoint.getFromId(), checkpoint.getToId());
+            shard.setCheckpointId(checkpoint.getId());
+            shard.setCursorId(checkpoint.getCursorId());
+            shard.getTotal().set(checkpoint.getTotal());
+            shard.getProcessed().set(checkpoint.getProcessed());
+            shard.getFailed().set(checkpoint.getFailed());
+            shard.getSkipped().set(checkpoint.getSkipped());
+            shard.setState(checkpoint.getState() == SyncShardProgress.ShardState.COMPLETED
+                    ? SyncShardProgress.ShardState.COMPLETED
+                    : SyncShardProgress.ShardState.PENDING);
+            shards.add(shard);
+        }
+
+        run.setResumedAt(LocalDateTime.now());
+        run.setResumeCount(run.getResumeCount() + 1);
+        run.setOwnerNode(lease.nodeId());
+        run.setFencingToken(lease.fencingToken());
+        runRepository.save(run);
+
+        log.info("Resuming sync run {} ({} of {} shards left)", run.getId(),
+                shards.stream().filter(s -> s.getState() != SyncShardProgress.ShardState.COMPLETED).count(),
+                shards.size());
+        return shards;
+    }
+
+    public void checkpoint(SyncRun run, SyncShardProgress shard) {
+        if (shard.getCheckpointId() == null) return;
+        try {
+            int updated = checkpointRepository.updateProgress(shard.getCheckpointId(), run.getFencingToken(),
+                    shard.getCursorId(), shard.getTotal().get(), shard.getProcessed().get(),
+                    shard.getFailed().get(), shard.getSkipped().get(), shard.getState(), LocalDateTime.now());
+            if (updated == 0) {
+                log.warn("Checkpoint of shard {} rejected: run {} was taken over by another node",
+                        shard.getShardId(), run.getId());
+            }
+        } catch (Exception e) {
+            // A missed checkpoint only means more work is redone after a restart
+            log.warn("Failed to checkpoint sync shard {}: {}", shard.getShardId(), e.getMessage());
+        }
+    }
+
+    public void finishRun(SyncRun run, Collection<SyncShardProgress> shards, long carriedOver) {
+        shards.forEach(shard -> checkpoint(run, shard));
+
+        run.setProcessed(shards.stream().mapToLong(s -> s.getProcessed().get()).sum());
+        run.setFailed(shards.stream().mapToLong(s -> s.getFailed().get()).sum());
+        run.setSkipped(shards.stream().mapToLong(s -> s.getSkipped().get()).sum());
+        run.setCarriedOver(carriedOver);
+        run.setStatus(carriedOver == 0 ? SyncRun.RunStatus.COMPLETED : SyncRun.RunStatus.INCOMPLETE);
+        run.setFinishedAt(LocalDateTime.now());
+
+        int updated = runRepository.finish(run.getId(), run.getFencingToken(), run.getStatus(), run.getFinishedAt(),
+                run.getProcessed(), run.getFailed(), run.getSkipped(), run.getCarriedOver());
+        if (updated == 0) {
+            log.warn("Sync run {} was taken over by another node, leaving it open", run.getId());
+        }
+    }
+
+    // Run history, newest first
+    public Page<SyncRun> getRuns(int page, int size) {
+        return runRepository.findAllByOrderByStartedAtDesc(PageRequest.of(page, size));
+    }
+
+    public Map<String, Object> getRun(Long runId) {
+        SyncRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new ContentNotFoundException("Sync run not found with ID: " + runId));
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("run", run);
+        details.put("shards", checkpointRepository.findByRunIdOrderByIdAsc(runId));
+        return details;
+    }
+}
@@ -26,6 +26,7 @@ public class UrlParserService {
         DOMAIN_PLATFORM_MAP.put("youtube.com", Platform.YOUTUBE);
         DOMAIN_PLATFORM_MAP.put("youtu.be", Platform.YOUTUBE);
         DOMAIN_PLATFORM_MAP.put("www.youtube.com", Platform.YOUTUBE);
+        DOMAIN_PLATFORM_MAP.put("m.youtube.com", Platform.YOUTUBE);
 
         // Medium domains
         DOMAIN_PLATFORM_MAP.put("medium.com", Platform.MEDIUM);
@@ -36,11 +37,15 @@ public class UrlParserService {
     }
 
     // YouTube ID pattern
-    private static final Pattern YOUTUBE_ID_PATTERN = Pattern.compile("(?:watch\\\\?v=|/videos/|/v/|youtu\\\\.be/|/embed/)([\\\\w-]{11})");
+    private static final Pattern YOUTUBE_ID_PATTERN = Pattern.compile("(?:[?&]v=|/videos/|/v/|youtu\\.be/|/embed/|/shorts/)([\\w-]{11})");
 
 
     // Medium story ID pattern
-    private static final Pattern MEDIUM_ID_PATTERN = Pattern.compile("/([\\\\w-]+)-([a-f0-9]+)(?:\\\\?|$)");
+    private static final Pattern MEDIUM_ID_PATTERN = Pattern.compile("/([\\w-]+)-([a-f0-9]+)(?:[?#]|$)");
+
+
+    // WordPress ?p=<post id>
+    private static final Pattern WORDPRESS_POST_ID_PATTERN = Pattern.compile("(?:^|&)p=(\\d+)");
 
 
     // Parse a content URL and extract platform and identifier
@@ -121,12 +126,12 @@ public class UrlParserService {
     private String extractWordPressId(String url) {
         try {
             URI uri = new URI(url);
-            String path = uri.getPath();
+            String path = uri.getPath() != null ? uri.getPath() : "";
+            String query = uri.getQuery();
 
-            // Trying to find path id in path segments
-            if(path.contains("p=")) {
-                Pattern p = Pattern.compile("p=(\\d+)");
-                Matcher m = p.matcher(url);
+            // Trying to find the post id in the query (?p=123)
+            if (query != null) {
+                Matcher m = WORDPRESS_POST_ID_PATTERN.matcher(query);
                 if (m.find()) {
                     return m.group(1);
                 }
@@ -134,7 +139,7 @@ public class UrlParserService {
 
             // Fallback: use the slug as identifier
             String[] segments = path.split("/");
-            for (int i = segments.length; i >= 0; i--) {
+            for (int i = segments.length - 1; i >= 0; i--) {
                 if (!segments[i].isEmpty()) {
                     return "wp-" + segments[i];
                 }
@@ -2,11 +2,13 @@ package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.model.dto.VisualizationDTO;
 import com.contentanalytics.content_analytic_system.model.entity.Content;
+import com.contentanalytics.content_analytic_system.model.enums.MetricsTier;
 import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import com.contentanalytics.content_analytic_system.repository.sql.IContentRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -18,6 +20,7 @@ public class VisualizationService {
     private final IContentRepository contentRepository;
     private final AnalyticsService analyticsService;
     private final ContentMetricsService metricsService;
+    private final MetricsRollupService rollupService;
 
     private static final String[] CHART_COLORS = {
             "#36A2EB", "#FF6384", "#4BC0C0", "#FFCE56", "#9966FF",
@@ -26,11 +29,13 @@ public class VisualizationService {
 
     public VisualizationService(IContentRepository contentRepository,
                                 AnalyticsService analyticsService,
-                                ContentMetricsService metricsService) {
+                                ContentMetricsService metricsService,
+                                MetricsRollupService rollupService) {
 
         this.contentRepository = contentRepository;
         this.analyticsService = analyticsService;
         this.metricsService = metricsService;
+        this.rollupService = rollupService;
 
     }
 
@@ -119,27 +124,38 @@ public class VisualizationService {
 
     // Generating content performance timeline chart for a specific content
     public VisualizationDTO.ChartDataDTO getContentTimelineChart(Long contentId) {
+        return getContentTimelineChart(contentId, null, null);
+    }
+
+    // Over the given range (default: the content's whole life), read from the coarsest tier that covers it
+    public VisualizationDTO.ChartDataDTO getContentTimelineChart(Long contentId, LocalDateTime from, LocalDateTime to) {
         log.info("Generating timeline chart for content ID: {}", contentId);
 
         Content content = contentRepository.findById(contentId)
                 .orElseThrow(() -> new RuntimeException("Content not found"));
 
-        // Getting historical metrics
-        List<com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics>
-                metrics = metricsService.getMetrics(contentId);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : content.getCreatedAt() != null ? content.getCreatedAt() : end.minusDays(30);
+        MetricsTier tier = rollupService.selectTier(start, end);
+        log.debug("Timeline of content {} from {} to {} read from the {} tier", contentId, start, end, tier);
+
+        // Getting historical metrics (oldest first)
+        List<TimelinePoint> metrics = timelinePoints(contentId, tier, start, end);
 
         if (metrics.isEmpty()) {
             log.warn("No metrics found for content ID: {}", contentId);
             return createEmptyChart("Content Timeline - " + content.getTitle());
         }
 
-        // Sorting by timestamp (Oldest first)
-        metrics.sort(Comparator.comparing(com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics::getTimestamp));
-
         // Format dates for labels
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM dd");
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(switch (tier) {
+            case RAW -> "MM dd HH:mm";
+            case HOURLY -> "MM dd HH:00";
+            case DAILY -> "MM dd";
+        });
         List<String> dateLabels = metrics.stream()
-                .map(m -> m.getTimestamp().format(formatter))
+                .map(m -> m.timestamp().format(formatter))
                 .collect(Collectors.toList());
 
         // Preparing chart data
@@ -156,7 +172,7 @@ public class VisualizationService {
                 "View",
                 CHART_COLORS[0],
                 metrics.stream()
-                        .map(m -> m.getMetrics().getOrDefault("views", 0L))
+                        .map(TimelinePoint::views)
                         .collect(Collectors.toList())
         );
 
@@ -165,7 +181,7 @@ public class VisualizationService {
                 "Likes",
                 CHART_COLORS[1],
                 metrics.stream()
-                        .map(m -> m.getMetrics().getOrDefault("likes", 0L))
+                        .map(TimelinePoint::likes)
                         .collect(Collectors.toList())
         );
 
@@ -178,7 +194,7 @@ public class VisualizationService {
                     "Comments",
                     CHART_COLORS[2],
                     metrics.stream()
-                            .map(m -> m.getMetrics().getOrDefault("comments", 0L))
+                            .map(TimelinePoint::comments)
                             .collect(Collectors.toList())
             );
             datasets.add(commentsDataset);
@@ -189,7 +205,7 @@ public class VisualizationService {
                     "Shares",
                     CHART_COLORS[3],
                     metrics.stream()
-                            .map(m -> m.getMetrics().getOrDefault("shares", 0L))
+                            .map(TimelinePoint::shares)
                             .collect(Collectors.toList())
             );
             datasets.add(sharesDataset);
@@ -273,7 +289,7 @@ public class VisualizationService {
         dataset.setLabel(label);
         dataset.setBackgroundColor(color);
         dataset.setBorderColor(color);
-        dataset.setData(new ArrayList<>());
+        dataset.setData(new ArrayList<>(data));
         dataset.setFill(false);
         dataset.setBorderWidth(2);
 
@@ -281,6 +297,19 @@ public class VisualizationService {
 
     }
 
+    // Raw samples, or the last values of each rollup bucket
+    private List<TimelinePoint> timelinePoints(Long contentId, MetricsTier tier, LocalDateTime from, LocalDateTime to) {
+        if (tier == MetricsTier.RAW) {
+            return metricsService.getMetrics(contentId, from, to).stream()
+                    .sorted(Comparator.comparing(com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics::getTimestamp))
+                    .map(m -> new TimelinePoint(m.getTimestamp(), m.getViews(), m.getLikes(), m.getComments(), m.getShares()))
+                    .collect(Collectors.toList());
+        }
+        return rollupService.getRollups(tier, contentId, from, to).stream()
+                .map(rollup -> TimelinePoint.of(rollup.getBucketStart(), rollup.getLast()))
+                .collect(Collectors.toList());
+    }
+
     private VisualizationDTO.ChartDataDTO createEmptyChart(String title) {
         VisualizationDTO.ChartDataDTO chartData = new VisualizationDTO.ChartDataDTO();
         chartData.setTitle(title);
@@ -295,4 +324,13 @@ public class VisualizationService {
         chartData.setDatasets(Collections.singletonList(emptyDataset));
         return chartData;
     }
+
+
+    private record TimelinePoint(LocalDateTime timestamp, long views, long likes, long comments, long shares) {
+
+        static TimelinePoint of(LocalDateTime timestamp, Map<String, Long> counters) {
+            return new TimelinePoint(timestamp, counters.getOrDefault("views", 0L), counters.getOrDefault("likes", 0L),
+                    counters.getOrDefault("comments", 0L), counters.getOrDefault("shares", 0L));
+        }
+    }
 }
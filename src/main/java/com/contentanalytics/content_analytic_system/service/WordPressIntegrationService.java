@@ -2,11 +2,16 @@ package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
 import com.contentanalytics.content_analytic_system.model.dto.WordPressMetricsDTO;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,14 +21,93 @@ import java.util.Map;
 // Integrating WordPres site to get the analytics
 public class WordPressIntegrationService {
     private final RestTemplate restTemplate;
+    private final PlatformCallGuard platformGuard;
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final boolean stubData;
 
-    public WordPressIntegrationService() {
-        this.restTemplate = new RestTemplate();
+    public WordPressIntegrationService(RestTemplate restTemplate,
+                                       PlatformCallGuard platformGuard,
+                                       WebClient platformWebClient,
+                                       @Value("${wordpress.api.base-url:}") String baseUrl,
+                                       @Value("${wordpress.api.stub-data:true}") boolean stubData) {
+        this.restTemplate = restTemplate;
+        this.platformGuard = platformGuard;
+        this.webClient = platformWebClient;
+        this.baseUrl = baseUrl;
+        this.stubData = stubData;
     }
 
     // Method to fetch POST metrics from WordPress
     public WordPressMetricsDTO getPostMetrics(String postId) {
         try {
+            return platformGuard.call(Platform.WORDPRESS, () -> requestPostMetrics(postId).block());
+
+        } catch (PlatformOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error fetching WordPress metrics: ", e);
+            throw new PlatformOperationException("Failed to fetch WordPress metrics");
+        }
+    }
+
+    // Method to fetch POST metrics without blocking a thread
+    public Mono<WordPressMetricsDTO> fetchPostMetrics(String postId) {
+        return platformGuard.callReactive(Platform.WORDPRESS, () -> requestPostMetrics(postId));
+    }
+
+    // Function to get overall blog statistics
+    public Map<String, Object> getBlogStatistics(String blogUrl) {
+
+        try{
+
+            return platformGuard.call(Platform.WORDPRESS, () -> {
+                // For API implementation
+
+                //Dummy
+                Map<String, Object> statistics = new HashMap<>();
+                statistics.put("totalPosts", 35);
+                statistics.put("totalComments", 45);
+                statistics.put("totalViews", 2000);
+                statistics.put("popularCategories", new String[]{"Data", "Technology", "Analytics"});
+                statistics.put("averageEngagement", 4.2);
+                statistics.put("lastUpdated", LocalDateTime.now());
+
+                return statistics;
+            });
+
+        } catch (PlatformOperationException e) {
+            throw e;
+        } catch (Exception e){
+            log.error("Error fetching WordPress blog statistics: ", e);
+            throw new PlatformOperationException("Failed to fetch WordPress blog statistics");
+        }
+    }
+
+
+    // HELPER methods
+
+    // GET {base-url}/posts/{postId}/stats, or the dummy data while wordpress.api.stub-data is on
+    private Mono<WordPressMetricsDTO> requestPostMetrics(String postId) {
+        if (!stubData) {
+            URI url = UriComponentsBuilder.fromUriString(baseUrl)
+                    .path("/posts/{postId}/stats")
+                    .buildAndExpand(postId)
+                    .encode()
+                    .toUri();
+
+            return webClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToMono(WordPressMetricsDTO.class)
+                    .map(metrics -> {
+                        metrics.setPostId(postId);
+                        metrics.setFetchedAt(LocalDateTime.now());
+                        return metrics;
+                    });
+        }
+
+        return Mono.fromSupplier(() -> {
             // For now, return dummy data
             WordPressMetricsDTO metrics = new WordPressMetricsDTO();
             metrics.setViews(300L);
@@ -44,34 +128,6 @@ public class WordPressIntegrationService {
             metrics.setAdditionalMetrics(additionalMetrics);
 
             return metrics;
-
-        } catch (Exception e) {
-            log.error("Error fetching WordPress metrics: ", e);
-            throw new PlatformOperationException("Failed to fetch WordPress metrics");
-        }
-    }
-
-    // Function to get overall blog statistics
-    public Map<String, Object> getBlogStatistics(String blogUrl) {
-
-        try{
-
-            // For API implementation
-
-            //Dummy
-            Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalPosts", 35);
-            statistics.put("totalComments", 45);
-            statistics.put("totalViews", 2000);
-            statistics.put("popularCategories", new String[]{"Data", "Technology", "Analytics"});
-            statistics.put("averageEngagement", 4.2);
-            statistics.put("lastUpdated", LocalDateTime.now());
-
-            return statistics;
-
-        } catch (Exception e){
-            log.error("Error fetching WordPress blog statistics: ", e);
-            throw new PlatformOperationException("Failed to fetch WordPress blog statistics");
-        }
+        });
     }
 }
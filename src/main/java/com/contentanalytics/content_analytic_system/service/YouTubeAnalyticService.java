@@ -15,7 +15,7 @@ public class YouTubeAnalyticService {
 
     public YouTubeAnalyticService(YouTubeConfig youTubeConfig, RestTemplate restTemplate) {
         this.youTubeConfig = youTubeConfig;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
     }
 
     @Data
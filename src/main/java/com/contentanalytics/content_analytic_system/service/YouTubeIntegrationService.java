@@ -2,56 +2,169 @@ package com.contentanalytics.content_analytic_system.service;
 
 import com.contentanalytics.content_analytic_system.config.YouTubeConfig;
 import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
-import com.contentanalytics.content_analytic_system.model.dto.YouTubeStatisticsDTO;
+import com.contentanalytics.content_analytic_system.exception.PlatformThrottledException;
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
+import com.contentanalytics.content_analytic_system.model.dto.YouTubeVideoListResponse;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.*;
 
 @Slf4j
 @Service
 
 // YouTube integration
 public class YouTubeIntegrationService {
+
+    // Maximum number of ids the videos endpoint accepts per call
+    public static final int MAX_IDS_PER_REQUEST = 50;
+
     private final String apiKey;
     private final RestTemplate restTemplate;
     private final YouTubeConfig youTubeConfig;
     private final YouTubeAnalyticService youTubeAnalyticService;
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final int batchSize;
+    private final int batchConcurrency;
+    private final PlatformCallGuard platformGuard;
 
 
     public YouTubeIntegrationService(@Value("${youtube.api.key}") String apiKey,
                                      RestTemplate restTemplate,
                                      YouTubeConfig youTubeConfig,
-                                     YouTubeAnalyticService youTubeAnalyticService) {
+                                     YouTubeAnalyticService youTubeAnalyticService,
+                                     WebClient platformWebClient,
+                                     @Value("${youtube.api.base-url:https://www.googleapis.com/youtube/v3}") String baseUrl,
+                                     @Value("${youtube.api.batch-size:50}") int batchSize,
+                                     @Value("${youtube.api.batch-concurrency:4}") int batchConcurrency,
+                                     PlatformCallGuard platformGuard) {
         this.apiKey = apiKey;
-        this.restTemplate = new RestTemplate();
-        this.youTubeConfig = new YouTubeConfig();
+        this.restTemplate = restTemplate;
+        this.youTubeConfig = youTubeConfig;
         this.youTubeAnalyticService = youTubeAnalyticService;
+        this.webClient = platformWebClient;
+        this.baseUrl = baseUrl;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_IDS_PER_REQUEST));
+        this.batchConcurrency = Math.max(batchConcurrency, 1);
+        this.platformGuard = platformGuard;
 
     }
 
-    //To fetch video stats
+    //To fetch video stats (blocking; runs on the YouTube bulkhead)
     public YouTubeAnalyticService.VideoStats getVideoStats(String videoId) {
+        YouTubeAnalyticService.VideoStats stats;
         try {
-            String url = String.format(
-                    "https://www.googleapis.com/youtube/v3/videos?id=%s&key=%s&part=statistics",
-                    videoId, apiKey
-            );
-
-            // For now, return dummy data
-            YouTubeAnalyticService.VideoStats stats = new YouTubeAnalyticService.VideoStats();
-            stats.setViewCount(1000L);
-            stats.setLikeCount(100L);
-            stats.setCommentCount(50L);
-            stats.setShareCount(25L);
-            stats.setFavoriteCount(75L);
-            stats.setDuration("PT5M30S");
-
-            return stats;
-
+            stats = platformGuard.call(Platform.YOUTUBE, () -> requestChunk(List.of(videoId)).block()).get(videoId);
+        } catch (PlatformOperationException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error fetching YouTube stats: ", e);
-            throw new PlatformOperationException("Failed to fetch YouTube stats");
+            log.error("Error fetching YouTube stats for video {}: {}", videoId, e.getMessage());
+            throw new PlatformOperationException("Failed to fetch YouTube stats for video " + videoId);
+        }
+        if (stats == null) {
+            throw new PlatformOperationException("Failed to fetch YouTube stats for video " + videoId);
+        }
+        return stats;
+    }
+
+    // To fetch stats for many videos (blocking wrapper around fetchVideoStatsBatch)
+    public Map<String, YouTubeAnalyticService.VideoStats> getVideoStatsBatch(Collection<String> videoIds) {
+        Map<String, YouTubeAnalyticService.VideoStats> results = fetchVideoStatsBatch(videoIds)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        return results != null ? results : Collections.emptyMap();
+    }
+
+    // Reactive single-video fetch
+    public Mono<YouTubeAnalyticService.VideoStats> fetchVideoStats(String videoId) {
+        return platformGuard.callReactive(Platform.YOUTUBE, () -> requestChunk(List.of(videoId)))
+                .flatMap(stats -> Mono.justOrEmpty(stats.get(videoId)))
+                .switchIfEmpty(Mono.error(
+                        new PlatformOperationException("Failed to fetch YouTube stats for video " + videoId)));
+    }
+
+    // Reactive batch fetch; ids are grouped into requests of up to 50, a few of them in flight at once.
+    // Videos missing from the result were not returned by YouTube (deleted/private) or their chunk failed
+    public Flux<Map.Entry<String, YouTubeAnalyticService.VideoStats>> fetchVideoStatsBatch(Collection<String> videoIds) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(videoIds));
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += batchSize) {
+            chunks.add(distinctIds.subList(from, Math.min(from + batchSize, distinctIds.size())));
         }
+
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> platformGuard.callReactive(Platform.YOUTUBE, () -> requestChunk(chunk))
+                        .onErrorResume(e -> {
+                            if (e instanceof PlatformThrottledException || e instanceof PlatformUnavailableException) {
+                                log.warn("Skipped YouTube stats for {} videos: {}", chunk.size(), e.getMessage());
+                            } else {
+                                log.error("Error fetching YouTube stats for {} videos: {}", chunk.size(), e.getMessage());
+                            }
+                            return Mono.empty();
+                        }), batchConcurrency)
+                .flatMapIterable(Map::entrySet);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+
+    // HELPER methods
+
+    // One call to the videos endpoint for up to 50 ids
+    private Mono<Map<String, YouTubeAnalyticService.VideoStats>> requestChunk(List<String> videoIds) {
+        URI url = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/videos")
+                .queryParam("part", "statistics,contentDetails")
+                .queryParam("id", String.join(",", videoIds))
+                .queryParam("key", apiKey)
+                .build()
+                .encode()
+                .toUri();
+
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(YouTubeVideoListResponse.class)
+                .map(response -> {
+                    Map<String, YouTubeAnalyticService.VideoStats> stats = new HashMap<>();
+                    for (YouTubeVideoListResponse.Item item : response.getItems()) {
+                        stats.put(item.getId(), toVideoStats(item));
+                    }
+                    return stats;
+                })
+                .defaultIfEmpty(Collections.emptyMap());
+    }
+
+    private YouTubeAnalyticService.VideoStats toVideoStats(YouTubeVideoListResponse.Item item) {
+        YouTubeAnalyticService.VideoStats stats = new YouTubeAnalyticService.VideoStats();
+        YouTubeVideoListResponse.Statistics statistics = item.getStatistics();
+        if (statistics != null) {
+            stats.setViewCount(valueOrZero(statistics.getViewCount()));
+            stats.setLikeCount(valueOrZero(statistics.getLikeCount()));
+            stats.setCommentCount(valueOrZero(statistics.getCommentCount()));
+            stats.setFavoriteCount(valueOrZero(statistics.getFavoriteCount()));
+        }
+        // The Data API doesn't expose shares
+        stats.setShareCount(0L);
+        if (item.getContentDetails() != null) {
+            stats.setDuration(item.getContentDetails().getDuration());
+        }
+        return stats;
+    }
+
+    private long valueOrZero(Long value) {
+        return value != null ? value : 0L;
     }
 }
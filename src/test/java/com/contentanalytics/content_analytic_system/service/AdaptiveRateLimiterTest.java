@@ -0,0 +1,126 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformThrottledException;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The token bucket and AIMD window, and which platform responses count as congestion
+class AdaptiveRateLimiterTest {
+
+	@Test
+	void growsTheWindowByOnePerWindowOfSuccessesUpToTheMax() {
+		AdaptiveRateLimiter limiter = limiter(1000, 100, 2, 4, 0, 0.5, 0);
+
+		assertEquals(2, limit(limiter));
+		call(limiter, AdaptiveRateLimiter.Outcome.SUCCESS, 10);
+		call(limiter, AdaptiveRateLimiter.Outcome.SUCCESS, 10);
+		// 2 -> 2.5 -> 2.9
+		assertEquals(2, limit(limiter));
+		call(limiter, AdaptiveRateLimiter.Outcome.SUCCESS, 10);
+		assertEquals(3, limit(limiter));
+
+		for (int i = 0; i < 20; i++) {
+			call(limiter, AdaptiveRateLimiter.Outcome.SUCCESS, 10);
+		}
+		assertEquals(4, limit(limiter));
+	}
+
+	@Test
+	void halvesTheWindowOncePerCooldownOn429sAndPausesNewCalls() {
+		AdaptiveRateLimiter limiter = limiter(1, 5, 8, 16, 0, 0.5, 60_000);
+
+		call(limiter, AdaptiveRateLimiter.Outcome.THROTTLED, 10);
+		assertEquals(4, limit(limiter));
+		assertEquals(1L, limiter.getStatus().get("throttledResponses"));
+		assertEquals(0.0, limiter.getStatus().get("availableTokens"));
+		// The bucket was emptied, so the next call waits for a refill
+		assertFalse(limiter.tryAcquire());
+
+		// A second 429 within the cooldown leaves the window alone
+		limiter.release(AdaptiveRateLimiter.Outcome.THROTTLED, 10);
+		assertEquals(4, limit(limiter));
+	}
+
+	@Test
+	void cutsTheWindowOnServerErrorsAndSlowCallsDownToTheMinimum() {
+		AdaptiveRateLimiter limiter = limiter(1000, 100, 8, 16, 100, 0.5, 0);
+
+		call(limiter, AdaptiveRateLimiter.Outcome.ERROR, 10);
+		assertEquals(4, limit(limiter));
+		// Succeeded, but over the latency threshold
+		call(limiter, AdaptiveRateLimiter.Outcome.SUCCESS, 500);
+		assertEquals(2, limit(limiter));
+		assertEquals(1L, limiter.getStatus().get("slowCalls"));
+
+		for (int i = 0; i < 5; i++) {
+			call(limiter, AdaptiveRateLimiter.Outcome.ERROR, 10);
+		}
+		assertEquals(1, limit(limiter));
+		assertEquals(6L, limiter.getStatus().get("errors"));
+	}
+
+	@Test
+	void rejectsOnceTheAcquireTimeoutPassesWithTheWindowFull() {
+		AdaptiveRateLimiter limiter = limiter(1000, 100, 1, 1, 0, 0.5, 0);
+
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertThrows(PlatformThrottledException.class, limiter::acquire);
+		assertEquals(1L, limiter.getStatus().get("rejected"));
+
+		// The slot comes back with the release
+		limiter.release(AdaptiveRateLimiter.Outcome.SUCCESS, 10);
+		limiter.acquire();
+		assertEquals(1, limiter.getStatus().get("inFlight"));
+	}
+
+	@Test
+	void classifiesOnly429sAsThrottlingAndServerOrIoFailuresAsErrors() {
+		assertEquals(AdaptiveRateLimiter.Outcome.THROTTLED, PlatformRateLimiterRegistry.classify(
+				HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null)));
+		assertEquals(AdaptiveRateLimiter.Outcome.THROTTLED, PlatformRateLimiterRegistry.classify(
+				WebClientResponseException.create(429, "Too Many Requests", null, null, null)));
+		assertEquals(AdaptiveRateLimiter.Outcome.ERROR, PlatformRateLimiterRegistry.classify(
+				HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null)));
+		assertEquals(AdaptiveRateLimiter.Outcome.ERROR, PlatformRateLimiterRegistry.classify(
+				WebClientResponseException.create(502, "Bad Gateway", null, null, null)));
+		assertEquals(AdaptiveRateLimiter.Outcome.ERROR, PlatformRateLimiterRegistry.classify(
+				new ResourceAccessException("Connection reset")));
+		assertEquals(AdaptiveRateLimiter.Outcome.ERROR, PlatformRateLimiterRegistry.classify(new TimeoutException()));
+
+		// Client errors say nothing about load
+		assertEquals(AdaptiveRateLimiter.Outcome.SUCCESS, PlatformRateLimiterRegistry.classify(
+				HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)));
+		assertEquals(AdaptiveRateLimiter.Outcome.SUCCESS, PlatformRateLimiterRegistry.classify(
+				new IllegalStateException("parse error")));
+	}
+
+
+	private AdaptiveRateLimiter limiter(double requestsPerSecond, int burst, int initialConcurrency,
+										int maxConcurrency, long latencyThresholdMs, double decreaseFactor,
+										long decreaseCooldownMs) {
+		return new AdaptiveRateLimiter(Platform.YOUTUBE, requestsPerSecond, burst, 1, initialConcurrency,
+				maxConcurrency, 50, latencyThresholdMs, decreaseFactor, decreaseCooldownMs);
+	}
+
+	private void call(AdaptiveRateLimiter limiter, AdaptiveRateLimiter.Outcome outcome, long latencyMs) {
+		limiter.acquire();
+		limiter.release(outcome, latencyMs);
+	}
+
+	private int limit(AdaptiveRateLimiter limiter) {
+		return (int) limiter.getStatus().get("concurrencyLimit");
+	}
+}
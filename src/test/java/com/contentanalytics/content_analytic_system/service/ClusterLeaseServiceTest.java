@@ -0,0 +1,171 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.entity.SchedulerLease;
+import com.contentanalytics.content_analytic_system.repository.sql.IClusterBroadcastRepository;
+import com.contentanalytics.content_analytic_system.repository.sql.ISchedulerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Several nodes, each its own application context, sharing one H2 database as they would share MySQL
+class ClusterLeaseServiceTest {
+
+	private final String database = "cluster-" + UUID.randomUUID();
+	private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+	@AfterEach
+	void stopNodes() {
+		nodes.forEach(ConfigurableApplicationContext::close);
+	}
+
+	@Test
+	void exactlyOneNodeHoldsALease() {
+		List<ClusterLeaseService> services = List.of(start("node-1", 30000), start("node-2", 30000),
+				start("node-3", 30000));
+
+		for (int round = 0; round < 3; round++) {
+			long holders = services.stream()
+					.filter(service -> service.tryAcquire(ClusterLeaseService.METRICS_SYNC).isPresent())
+					.count();
+			assertEquals(1, holders);
+		}
+		// The first node to ask keeps it by renewing
+		assertTrue(services.get(0).tryAcquire(ClusterLeaseService.METRICS_SYNC).isPresent());
+	}
+
+	@Test
+	void anotherNodeTakesOverWhenTheLeaderShutsDown() {
+		ClusterLeaseService leader = start("node-1", 30000);
+		ClusterLeaseService follower = start("node-2", 30000);
+
+		ClusterLeaseService.Lease first = leader.tryAcquire(ClusterLeaseService.METRICS_SYNC).orElseThrow();
+		assertTrue(follower.tryAcquire(ClusterLeaseService.METRICS_SYNC).isEmpty());
+
+		// Closing the context releases its leases
+		nodes.get(0).close();
+
+		ClusterLeaseService.Lease second = follower.tryAcquire(ClusterLeaseService.METRICS_SYNC).orElseThrow();
+		assertEquals("node-2", second.nodeId());
+		assertTrue(second.fencingToken() > first.fencingToken());
+	}
+
+	@Test
+	void anotherNodeTakesOverAnExpiredLeaseAndFencesOffTheOldLeader() throws Exception {
+		ClusterLeaseService leader = start("node-1", 300);
+		ClusterLeaseService follower = start("node-2", 300);
+
+		ClusterLeaseService.Lease stale = leader.tryAcquire(ClusterLeaseService.METRICS_SYNC).orElseThrow();
+		// The leader pauses past its TTL without renewing
+		Thread.sleep(400);
+
+		assertFalse(leader.isHeld(stale));
+		ClusterLeaseService.Lease current = follower.tryAcquire(ClusterLeaseService.METRICS_SYNC).orElseThrow();
+		assertTrue(current.fencingToken() > stale.fencingToken());
+		assertTrue(leader.tryAcquire(ClusterLeaseService.METRICS_SYNC).isEmpty());
+
+		SchedulerLease row = nodes.get(1).getBean(ISchedulerLeaseRepository.class)
+				.findById(ClusterLeaseService.METRICS_SYNC).orElseThrow();
+		assertEquals("node-2", row.getOwnerNode());
+	}
+
+	@Test
+	void updatesPublishedByTheLeaderReachTheClientsOfEveryNode() {
+		start("node-1", 30000);
+		start("node-2", 30000);
+		start("node-3", 30000);
+		nodes.forEach(node -> node.getBean(ClusterBroadcastRelay.class).poll());
+
+		ClusterBroadcastRelay leaderRelay = nodes.get(0).getBean(ClusterBroadcastRelay.class);
+		leaderRelay.publish(List.of(new ClusterBroadcastRelay.Broadcast("/topic/analytics/youtube",
+				Map.of("totalViews", 42))));
+		nodes.forEach(node -> node.getBean(ClusterBroadcastRelay.class).poll());
+		nodes.forEach(node -> node.getBean(ClusterBroadcastRelay.class).poll());
+
+		for (ConfigurableApplicationContext node : nodes) {
+			verify(node.getBean(SimpMessageSendingOperations.class), times(1))
+					.convertAndSend("/topic/analytics/youtube", (Object) Map.of("totalViews", 42));
+		}
+	}
+
+	@Test
+	void nodesStartingLaterSkipOldUpdates() {
+		start("node-1", 30000);
+		nodes.get(0).getBean(ClusterBroadcastRelay.class).publish(List.of(new ClusterBroadcastRelay.Broadcast("/topic/analytics/youtube", Map.of())));
+
+		start("node-2", 30000);
+		ClusterBroadcastRelay laterRelay = nodes.get(1).getBean(ClusterBroadcastRelay.class);
+		laterRelay.poll();
+		laterRelay.poll();
+
+		verify(nodes.get(1).getBean(SimpMessageSendingOperations.class), never())
+				.convertAndSend(anyString(), any(Object.class));
+	}
+
+
+	// HELPER methods
+
+	private ClusterLeaseService start(String nodeId, long ttlMs) {
+		ConfigurableApplicationContext node = new SpringApplicationBuilder(Node.class)
+				.web(WebApplicationType.NONE)
+				// As arguments, so they win over application.properties
+				.run(
+						"--spring.main.banner-mode=off",
+						"--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=update",
+						"--app.node-id=" + nodeId,
+						"--cluster.lease.ttl-ms=" + ttlMs);
+		nodes.add(node);
+		return node.getBean(ClusterLeaseService.class);
+	}
+
+	// Just the lease and relay beans over the shared database; the STOMP side is a mock per node
+	@Configuration
+	@ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+			TransactionAutoConfiguration.class, JacksonAutoConfiguration.class})
+	@EntityScan(basePackageClasses = SchedulerLease.class)
+	@EnableJpaRepositories(basePackageClasses = ISchedulerLeaseRepository.class,
+			includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+					classes = {ISchedulerLeaseRepository.class, IClusterBroadcastRepository.class}))
+	@Import({ClusterLeaseService.class, ClusterBroadcastRelay.class})
+	static class Node {
+
+		@Bean
+		SimpMessageSendingOperations messagingTemplate() {
+			return Mockito.mock(SimpMessageSendingOperations.class);
+		}
+	}
+}
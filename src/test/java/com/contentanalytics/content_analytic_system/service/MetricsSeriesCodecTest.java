@@ -0,0 +1,68 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsSeriesCodecTest {
+
+	@Test
+	void roundTripsIrregularSeries() {
+		List<ContentMetrics> samples = new ArrayList<>();
+		LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+		long views = 1_000_000;
+		for (int i = 0; i < 500; i++) {
+			// Jittered interval, counters mostly rising with an occasional correction downwards
+			timestamp = timestamp.plusSeconds(900 + (i * 37 % 120)).plusNanos((i % 7) * 1_000_000L);
+			views += i % 50 == 0 ? -300 : i * 13 % 400;
+			samples.add(sample(timestamp, views, views / 20, views / 500, i % 3 == 0 ? 0 : Long.MAX_VALUE / 2));
+		}
+
+		List<ContentMetrics> decoded = MetricsSeriesCodec.decode(MetricsSeriesCodec.encode(samples), 42L, "42:block");
+
+		assertEquals(samples.size(), decoded.size());
+		for (int i = 0; i < samples.size(); i++) {
+			assertEquals(samples.get(i).getTimestamp(), decoded.get(i).getTimestamp());
+			assertEquals(samples.get(i).getMetrics(), decoded.get(i).getMetrics());
+			assertEquals(42L, decoded.get(i).getContentId());
+		}
+		assertEquals("42:block:499", decoded.get(499).getId());
+	}
+
+	@Test
+	void packsSteadySamplesIntoFewBytes() {
+		List<ContentMetrics> samples = new ArrayList<>();
+		LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+		for (int i = 0; i < 1000; i++) {
+			timestamp = timestamp.plusMinutes(15);
+			samples.add(sample(timestamp, 50_000 + i * 120L, 2_000 + i * 4L, 300 + i / 10, 40 + i / 50));
+		}
+
+		byte[] block = MetricsSeriesCodec.encode(samples);
+
+		// A sample document takes well over 100 bytes of BSON
+		assertTrue(block.length < samples.size() * 10, "encoded " + block.length + " bytes");
+		assertEquals(samples.size(), MetricsSeriesCodec.decode(block, 1L, "1:0").size());
+	}
+
+	@Test
+	void emptySeries() {
+		assertTrue(MetricsSeriesCodec.decode(MetricsSeriesCodec.encode(List.of()), 1L, "1:0").isEmpty());
+	}
+
+	private ContentMetrics sample(LocalDateTime timestamp, long views, long likes, long comments, long shares) {
+		ContentMetrics sample = new ContentMetrics();
+		sample.setTimestamp(timestamp);
+		sample.setViews(views);
+		sample.setLikes(likes);
+		sample.setComments(comments);
+		sample.setShares(shares);
+		return sample;
+	}
+}
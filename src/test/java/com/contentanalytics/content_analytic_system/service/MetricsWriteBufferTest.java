@@ -0,0 +1,158 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.model.mongo.ContentMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Write-behind buffer over a mocked MongoTemplate whose stored documents are kept in a map (sample id ->
+// lastCheckedAt); the first bulk insert holds until the test releases it, so a flush can be caught mid-write
+class MetricsWriteBufferTest {
+
+	private final Map<String, LocalDateTime> stored = new ConcurrentHashMap<>();
+	private final CountDownLatch writing = new CountDownLatch(1);
+	private final CountDownLatch releaseWrite = new CountDownLatch(1);
+
+	private MongoTemplate mongoTemplate;
+	private MetricsWriteBuffer buffer;
+
+	@BeforeEach
+	void mockMongo() {
+		mongoTemplate = Mockito.mock(MongoTemplate.class);
+		BulkOperations bulkOps = Mockito.mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ContentMetrics.class)).thenReturn(bulkOps);
+		when(bulkOps.insert(anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			assertTrue(releaseWrite.await(5, TimeUnit.SECONDS));
+			List<ContentMetrics> batch = invocation.getArgument(0);
+			batch.forEach(this::store);
+			return bulkOps;
+		});
+		when(mongoTemplate.insert(any(ContentMetrics.class))).thenAnswer(invocation -> {
+			ContentMetrics sample = invocation.getArgument(0);
+			store(sample);
+			return sample;
+		});
+	}
+
+	@AfterEach
+	void shutdown() {
+		releaseWrite.countDown();
+		if (buffer != null) {
+			buffer.shutdown();
+		}
+	}
+
+	@Test
+	void aTouchDuringAFlushEndsUpInTheStoredDocument() throws Exception {
+		buffer = start(1, 1, 2000);
+		LocalDateTime fetchedAt = LocalDateTime.now().minusMinutes(5);
+		ContentMetrics sample = buffer.add(sample(fetchedAt));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+		// The flush has taken the sample out of the buffer but not written it yet
+		LocalDateTime checkedAt = LocalDateTime.now();
+		CompletableFuture<ContentMetrics> touch = CompletableFuture.supplyAsync(
+				() -> buffer.touchPending(sample.getId(), checkedAt));
+		assertThrows(TimeoutException.class, () -> touch.get(200, TimeUnit.MILLISECONDS));
+
+		releaseWrite.countDown();
+		assertNull(touch.get(5, TimeUnit.SECONDS));
+		assertEquals(fetchedAt, stored.get(sample.getId()));
+
+		// A missed touch goes to the stored document, as ContentMetricsService does; the insert is already done
+		stored.put(sample.getId(), checkedAt);
+		buffer.shutdown();
+		assertEquals(checkedAt, stored.get(sample.getId()));
+		assertEquals(1L, buffer.getStatus().get("written"));
+	}
+
+	@Test
+	void aTouchBeforeTheFlushIsWrittenWithTheSample() throws Exception {
+		buffer = start(1, 1, 2000);
+		LocalDateTime fetchedAt = LocalDateTime.now().minusMinutes(5);
+		ContentMetrics first = buffer.add(sample(fetchedAt));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+		// Queued behind the write in progress
+		ContentMetrics second = buffer.add(sample(fetchedAt));
+		LocalDateTime checkedAt = LocalDateTime.now();
+		assertSame(second, buffer.touchPending(second.getId(), checkedAt));
+
+		releaseWrite.countDown();
+		buffer.shutdown();
+		assertEquals(fetchedAt, stored.get(first.getId()));
+		assertEquals(checkedAt, stored.get(second.getId()));
+	}
+
+	@Test
+	void writesTheSampleDirectlyOnceTheOfferTimesOut() throws Exception {
+		buffer = start(1, 1, 50);
+		buffer.add(sample(LocalDateTime.now()));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+		// Fills the queue while the flusher is stuck on the first write
+		ContentMetrics queued = buffer.add(sample(LocalDateTime.now()));
+
+		CompletableFuture<ContentMetrics> overflow = CompletableFuture.supplyAsync(
+				() -> buffer.add(sample(LocalDateTime.now())));
+		// Timed out on the offer, then waits for the write in progress before inserting
+		assertThrows(TimeoutException.class, () -> overflow.get(300, TimeUnit.MILLISECONDS));
+		verify(mongoTemplate, never()).insert(any(ContentMetrics.class));
+
+		releaseWrite.countDown();
+		ContentMetrics direct = overflow.get(5, TimeUnit.SECONDS);
+		verify(mongoTemplate).insert(direct);
+		assertTrue(stored.containsKey(direct.getId()));
+		// No longer buffered, so a touch goes to the stored document
+		assertNull(buffer.touchPending(direct.getId(), LocalDateTime.now()));
+
+		buffer.shutdown();
+		assertTrue(stored.containsKey(queued.getId()));
+		assertEquals(3, stored.size());
+		assertEquals(2L, buffer.getStatus().get("written"));
+		assertEquals(1L, buffer.getStatus().get("writtenByCaller"));
+	}
+
+
+	private MetricsWriteBuffer start(int capacity, int batchSize, long offerTimeoutMs) {
+		MetricsWriteBuffer writeBuffer = new MetricsWriteBuffer(mongoTemplate,
+				new MetricsBucketStore(mongoTemplate, "samples"), true, capacity, batchSize, 50, offerTimeoutMs);
+		writeBuffer.start();
+		return writeBuffer;
+	}
+
+	private ContentMetrics sample(LocalDateTime fetchedAt) {
+		ContentMetrics sample = new ContentMetrics();
+		sample.setContentId(42L);
+		sample.setTimestamp(fetchedAt);
+		sample.setLastCheckedAt(fetchedAt);
+		return sample;
+	}
+
+	private void store(ContentMetrics sample) {
+		stored.put(sample.getId(), sample.getLastCheckedAt());
+	}
+}
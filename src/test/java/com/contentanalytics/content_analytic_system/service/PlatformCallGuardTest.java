@@ -0,0 +1,148 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Breaker, bulkhead and rate limiter around a platform call, with one pool thread and room for one queued call
+class PlatformCallGuardTest {
+
+	private PlatformRateLimiterRegistry rateLimiters;
+	private PlatformCallGuard platformGuard;
+
+	@BeforeEach
+	void createGuard() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("platform.circuit-breaker.default.window-size", "2")
+				.withProperty("platform.circuit-breaker.default.minimum-calls", "2")
+				.withProperty("platform.circuit-breaker.default.open-duration-ms", "60000")
+				.withProperty("platform.bulkhead.default.threads", "1")
+				.withProperty("platform.bulkhead.default.queue-capacity", "1")
+				.withProperty("platform.bulkhead.default.call-timeout-ms", "300");
+		rateLimiters = new PlatformRateLimiterRegistry(environment);
+		platformGuard = new PlatformCallGuard(rateLimiters, environment);
+	}
+
+	@AfterEach
+	void shutdown() {
+		platformGuard.shutdown();
+	}
+
+	@Test
+	void opensTheCircuitOnServerErrorsAndFailsFast() {
+		AtomicInteger calls = new AtomicInteger();
+		for (int i = 0; i < 2; i++) {
+			assertThrows(HttpServerErrorException.class, () -> platformGuard.call(Platform.YOUTUBE, () -> {
+				calls.incrementAndGet();
+				throw HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null);
+			}));
+		}
+
+		assertFalse(platformGuard.isAvailable(Platform.YOUTUBE));
+		PlatformUnavailableException open = assertThrows(PlatformUnavailableException.class,
+				() -> platformGuard.call(Platform.YOUTUBE, calls::incrementAndGet));
+		assertTrue(open.getMessage().contains("circuit open"));
+		// The platform isn't called while the circuit is open
+		assertEquals(2, calls.get());
+		assertEquals(2L, limiterStatus(Platform.YOUTUBE).get("errors"));
+	}
+
+	@Test
+	void clientErrorsLeaveTheCircuitClosed() {
+		for (int i = 0; i < 4; i++) {
+			assertThrows(HttpClientErrorException.class, () -> platformGuard.call(Platform.MEDIUM, () -> {
+				throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+			}));
+		}
+		assertTrue(platformGuard.isAvailable(Platform.MEDIUM));
+	}
+
+	@Test
+	void countsTimeoutsAgainstThePlatform() {
+		for (int i = 0; i < 2; i++) {
+			PlatformUnavailableException timeout = assertThrows(PlatformUnavailableException.class,
+					() -> platformGuard.call(Platform.WORDPRESS, () -> {
+						try {
+							Thread.sleep(5000);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return null;
+					}));
+			assertTrue(timeout.getMessage().contains("timed out"));
+		}
+		assertFalse(platformGuard.isAvailable(Platform.WORDPRESS));
+	}
+
+	@Test
+	void rejectsCallsWhileTheBulkheadIsFull() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> platformGuard.call(Platform.YOUTUBE, () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "first";
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(
+				() -> platformGuard.call(Platform.YOUTUBE, () -> "second"));
+		awaitQueued(Platform.YOUTUBE, 1);
+
+		PlatformUnavailableException busy = assertThrows(PlatformUnavailableException.class,
+				() -> platformGuard.call(Platform.YOUTUBE, () -> "third"));
+		assertTrue(busy.getMessage().contains("bulkhead full"));
+
+		release.countDown();
+		assertEquals("first", running.get(5, TimeUnit.SECONDS));
+		assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+		// A full bulkhead says nothing about the platform's health
+		assertTrue(platformGuard.isAvailable(Platform.YOUTUBE));
+		assertEquals(2, breakerStatus(Platform.YOUTUBE).get("bufferedCalls"));
+	}
+
+
+	private Map<String, Object> limiterStatus(Platform platform) {
+		return rateLimiters.getLimiter(platform).getStatus();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> breakerStatus(Platform platform) {
+		return (Map<String, Object>) platformStatus(platform).get("circuitBreaker");
+	}
+
+	private Map<String, Object> platformStatus(Platform platform) {
+		return platformGuard.getStatus().stream()
+				.filter(status -> platform.name().equals(status.get("platform")))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private void awaitQueued(Platform platform, int queued) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!Integer.valueOf(queued).equals(platformStatus(platform).get("bulkheadQueued"))) {
+			assertTrue(System.currentTimeMillis() < deadline, "call was never queued");
+			Thread.sleep(10);
+		}
+	}
+}
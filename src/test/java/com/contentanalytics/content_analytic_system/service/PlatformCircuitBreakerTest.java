@@ -0,0 +1,98 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformUnavailableException;
+import com.contentanalytics.content_analytic_system.model.enums.Platform;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Open / half-open / closed transitions of the count-based breaker
+class PlatformCircuitBreakerTest {
+
+	@Test
+	void opensOnceTheFailureRateOverTheMinimumCallsIsReached() {
+		PlatformCircuitBreaker breaker = new PlatformCircuitBreaker(Platform.YOUTUBE, 0.5, 4, 4, 60_000, 2);
+
+		breaker.onSuccess();
+		breaker.onFailure();
+		breaker.onFailure();
+		// 2 of 3 failed, but fewer than the minimum calls
+		assertEquals(PlatformCircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onSuccess();
+		breaker.onFailure();
+		// The oldest outcome rolled out: 3 of the last 4 failed
+		assertEquals(PlatformCircuitBreaker.State.OPEN, breaker.getState());
+		assertThrows(PlatformUnavailableException.class, breaker::acquirePermission);
+		assertEquals(1L, breaker.getStatus().get("rejected"));
+	}
+
+	@Test
+	void onlyCountsTheLastWindowOfCalls() {
+		PlatformCircuitBreaker breaker = new PlatformCircuitBreaker(Platform.YOUTUBE, 0.75, 4, 4, 60_000, 2);
+
+		breaker.onFailure();
+		breaker.onFailure();
+		for (int i = 0; i < 4; i++) {
+			breaker.onSuccess();
+		}
+		breaker.onFailure();
+		breaker.onFailure();
+
+		// 4 of 8 calls failed, but only 2 of the last 4
+		assertEquals(PlatformCircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0.5, breaker.getStatus().get("failureRate"));
+	}
+
+	@Test
+	void closesAfterTheTrialCallsSucceed() throws InterruptedException {
+		PlatformCircuitBreaker breaker = openBreaker(50);
+		Thread.sleep(80);
+
+		breaker.acquirePermission();
+		assertEquals(PlatformCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.acquirePermission();
+		// Both trial slots are taken
+		assertThrows(PlatformUnavailableException.class, breaker::acquirePermission);
+
+		breaker.onSuccess();
+		breaker.onSuccess();
+		assertEquals(PlatformCircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.getStatus().get("bufferedCalls"));
+		breaker.acquirePermission();
+	}
+
+	@Test
+	void reopensWhenATrialCallFails() throws InterruptedException {
+		PlatformCircuitBreaker breaker = openBreaker(50);
+		Thread.sleep(80);
+
+		breaker.acquirePermission();
+		breaker.onFailure();
+		assertEquals(PlatformCircuitBreaker.State.OPEN, breaker.getState());
+		// Open for another full duration
+		assertThrows(PlatformUnavailableException.class, breaker::acquirePermission);
+	}
+
+	@Test
+	void ignoredTrialCallsFreeTheirSlot() throws InterruptedException {
+		PlatformCircuitBreaker breaker = openBreaker(50);
+		Thread.sleep(80);
+
+		breaker.acquirePermission();
+		breaker.acquirePermission();
+		breaker.onIgnored();
+		breaker.acquirePermission();
+		assertEquals(PlatformCircuitBreaker.State.HALF_OPEN, breaker.getState());
+	}
+
+
+	private PlatformCircuitBreaker openBreaker(long openDurationMs) {
+		PlatformCircuitBreaker breaker = new PlatformCircuitBreaker(Platform.YOUTUBE, 0.5, 2, 2, openDurationMs, 2);
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals(PlatformCircuitBreaker.State.OPEN, breaker.getState());
+		return breaker;
+	}
+}
@@ -0,0 +1,96 @@
+package com.contentanalytics.content_analytic_system.service;
+
+import com.contentanalytics.content_analytic_system.exception.PlatformOperationException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The Data API client against a local stub of the videos endpoint
+class YouTubeIntegrationServiceTest {
+
+	private final List<List<String>> requestedIds = new CopyOnWriteArrayList<>();
+	private HttpServer server;
+	private PlatformCallGuard platformGuard;
+	private YouTubeIntegrationService youTubeService;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/videos", exchange -> {
+			String ids = UriComponentsBuilder.fromUri(exchange.getRequestURI()).build()
+					.getQueryParams().getFirst("id");
+			List<String> batch = List.of(ids.split(","));
+			requestedIds.add(batch);
+
+			// Ids starting with "gone" are left out, like deleted or private videos
+			String items = batch.stream()
+					.filter(id -> !id.startsWith("gone"))
+					.map(id -> "{\"id\":\"" + id + "\",\"statistics\":{\"viewCount\":\"" + (id.length() * 1000)
+							+ "\",\"likeCount\":\"12\",\"commentCount\":\"3\",\"favoriteCount\":\"0\"},"
+							+ "\"contentDetails\":{\"duration\":\"PT4M2S\"}}")
+					.collect(Collectors.joining(","));
+			byte[] body = ("{\"kind\":\"youtube#videoListResponse\",\"items\":[" + items + "]}")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+
+		MockEnvironment environment = new MockEnvironment();
+		platformGuard = new PlatformCallGuard(new PlatformRateLimiterRegistry(environment), environment);
+		youTubeService = new YouTubeIntegrationService("test-key", null, null, null, WebClient.create(),
+				"http://127.0.0.1:" + server.getAddress().getPort(), 50, 2, platformGuard);
+	}
+
+	@AfterEach
+	void stopStub() {
+		server.stop(0);
+		platformGuard.shutdown();
+	}
+
+	@Test
+	void batchesIdsIntoRequestsOfFifty() {
+		List<String> ids = new ArrayList<>(IntStream.range(0, 120).mapToObj(i -> "video" + i).toList());
+		ids.add("gone1");
+		ids.add("video7");	// Duplicates are requested once
+
+		Map<String, YouTubeAnalyticService.VideoStats> stats = youTubeService.getVideoStatsBatch(ids);
+
+		assertEquals(3, requestedIds.size());
+		assertEquals(List.of(50, 50, 21), requestedIds.stream().map(List::size).sorted((a, b) -> b - a).toList());
+		assertEquals(120, stats.size());
+		assertFalse(stats.containsKey("gone1"));
+		assertEquals(6000, stats.get("video7").getViewCount());
+		assertEquals(12, stats.get("video7").getLikeCount());
+		assertEquals("PT4M2S", stats.get("video7").getDuration());
+	}
+
+	@Test
+	void singleVideoMissingFromResponseFails() {
+		assertEquals(3, youTubeService.getVideoStats("abc").getCommentCount());
+		assertThrows(PlatformOperationException.class, () -> youTubeService.getVideoStats("gone2"));
+		assertTrue(requestedIds.stream().allMatch(batch -> batch.size() == 1));
+	}
+}